@@ -387,3 +387,164 @@ BEGIN
     CREATE INDEX idx_product_name ON [dbo].[jhi_product]([name]);
 END
 GO
+
+-- Tồn kho chia shard cho sản phẩm hot (xem ProductStockShardService)
+IF OBJECT_ID('dbo.jhi_product_stock_shard', 'U') IS NULL
+BEGIN
+    CREATE TABLE [dbo].[jhi_product_stock_shard](
+      [id] [bigint] IDENTITY(1,1) NOT NULL,
+      [product_id] [bigint] NOT NULL,
+      [shard_no] [int] NOT NULL,
+      [quantity] [int] NOT NULL,
+      [sales_count] [int] NOT NULL DEFAULT 0,
+      PRIMARY KEY CLUSTERED ([id] ASC),
+      CONSTRAINT [ux_stock_shard_product_shard] UNIQUE ([product_id], [shard_no]),
+      CONSTRAINT [CHK_stock_shard_quantity_nonnegative] CHECK ([quantity] >= 0),
+      FOREIGN KEY ([product_id]) REFERENCES [dbo].[jhi_product] ([id]) ON DELETE CASCADE
+    ) ON [PRIMARY]
+END
+GO
+
+-- Trạng thái của checkout bất đồng bộ (QUEUED, REJECTED)
+IF EXISTS (SELECT * FROM sys.check_constraints WHERE name = 'CHK_order_status' AND parent_object_id = OBJECT_ID('dbo.jhi_order'))
+BEGIN
+    ALTER TABLE [dbo].[jhi_order] DROP CONSTRAINT [CHK_order_status];
+END
+GO
+ALTER TABLE [dbo].[jhi_order]  WITH CHECK ADD  CONSTRAINT [CHK_order_status] CHECK  (([status]=N'CANCELLED' OR [status]=N'ĐÃ HOÀN THÀNH' OR [status]=N'HOÀN THÀNH' OR [status]=N'COMPLETED' OR [status]=N'DELIVERED' OR [status]=N'SHIPPED' OR [status]=N'PROCESSING' OR [status]=N'PENDING' OR [status]=N'QUEUED' OR [status]=N'REJECTED'))
+  GO
+
+-- Transactional outbox cho các sự kiện RabbitMQ (xem OutboxRelay)
+IF OBJECT_ID('dbo.jhi_outbox_event', 'U') IS NULL
+BEGIN
+    CREATE TABLE [dbo].[jhi_outbox_event](
+      [id] [bigint] IDENTITY(1,1) NOT NULL,
+      [event_id] [nvarchar](36) NOT NULL,
+      [exchange] [nvarchar](100) NOT NULL,
+      [event_type] [nvarchar](100) NOT NULL,
+      [payload_type] [nvarchar](255) NOT NULL,
+      [payload] [nvarchar](max) NOT NULL,
+      [created_date] [datetimeoffset](6) NOT NULL,
+      [published_date] [datetimeoffset](6) NULL,
+      [attempts] [int] NOT NULL DEFAULT 0,
+      [next_attempt_date] [datetimeoffset](6) NOT NULL,
+      [last_error] [nvarchar](500) NULL,
+      PRIMARY KEY CLUSTERED ([id] ASC),
+      CONSTRAINT [ux_outbox_event_event_id] UNIQUE ([event_id])
+    ) ON [PRIMARY]
+END
+GO
+
+IF NOT EXISTS (SELECT * FROM sys.indexes WHERE name = 'idx_outbox_event_pending' AND object_id = OBJECT_ID('dbo.jhi_outbox_event'))
+BEGIN
+    CREATE INDEX idx_outbox_event_pending ON [dbo].[jhi_outbox_event]([published_date], [next_attempt_date]);
+END
+GO
+
+-- Import chạy nền: mỗi phần ghi cùng checkpoint trong một transaction
+IF OBJECT_ID('dbo.jhi_import_job', 'U') IS NULL
+BEGIN
+    CREATE TABLE [dbo].[jhi_import_job](
+      [id] [bigint] IDENTITY(1,1) NOT NULL,
+      [type] [nvarchar](20) NOT NULL,
+      [status] [nvarchar](20) NOT NULL,
+      [source] [nvarchar](1024) NOT NULL,
+      [file_path] [nvarchar](1024) NULL,
+      [total_rows] [int] NULL,
+      [checkpoint_row] [int] NOT NULL DEFAULT 0,
+      [processed_rows] [int] NOT NULL DEFAULT 0,
+      [imported_rows] [int] NOT NULL DEFAULT 0,
+      [failed_rows] [int] NOT NULL DEFAULT 0,
+      [run_start_rows] [int] NOT NULL DEFAULT 0,
+      [last_error] [nvarchar](1000) NULL,
+      [created_by] [nvarchar](50) NULL,
+      [created_date] [datetimeoffset](6) NOT NULL,
+      [started_date] [datetimeoffset](6) NULL,
+      [finished_date] [datetimeoffset](6) NULL,
+      [heartbeat_date] [datetimeoffset](6) NOT NULL,
+      [version] [int] NOT NULL DEFAULT 0,
+      PRIMARY KEY CLUSTERED ([id] ASC)
+    ) ON [PRIMARY]
+END
+GO
+
+IF NOT EXISTS (SELECT * FROM sys.indexes WHERE name = 'idx_import_job_status' AND object_id = OBJECT_ID('dbo.jhi_import_job'))
+BEGIN
+    CREATE INDEX idx_import_job_status ON [dbo].[jhi_import_job]([status], [heartbeat_date]);
+END
+GO
+
+IF OBJECT_ID('dbo.jhi_import_job_error', 'U') IS NULL
+BEGIN
+    CREATE TABLE [dbo].[jhi_import_job_error](
+      [id] [bigint] IDENTITY(1,1) NOT NULL,
+      [job_id] [bigint] NOT NULL,
+      [excel_row] [int] NOT NULL,
+      [message] [nvarchar](1000) NOT NULL,
+      PRIMARY KEY CLUSTERED ([id] ASC),
+      CONSTRAINT [fk_import_job_error_job] FOREIGN KEY ([job_id]) REFERENCES [dbo].[jhi_import_job]([id]) ON DELETE CASCADE
+    ) ON [PRIMARY]
+END
+GO
+
+IF NOT EXISTS (SELECT * FROM sys.indexes WHERE name = 'idx_import_job_error_job' AND object_id = OBJECT_ID('dbo.jhi_import_job_error'))
+BEGIN
+    CREATE INDEX idx_import_job_error_job ON [dbo].[jhi_import_job_error]([job_id], [excel_row]);
+END
+GO
+
+-- Phân trang keyset (?after=): mỗi cột sort cần index, SQL Server tự thêm id (clustered key) vào cuối index
+IF NOT EXISTS (SELECT * FROM sys.indexes WHERE name = 'idx_product_sales_count' AND object_id = OBJECT_ID('dbo.jhi_product'))
+BEGIN
+    CREATE INDEX idx_product_sales_count ON [dbo].[jhi_product]([sales_count]);
+END
+GO
+
+IF NOT EXISTS (SELECT * FROM sys.indexes WHERE name = 'idx_product_created_date' AND object_id = OBJECT_ID('dbo.jhi_product'))
+BEGIN
+    CREATE INDEX idx_product_created_date ON [dbo].[jhi_product]([created_date]);
+END
+GO
+
+IF NOT EXISTS (SELECT * FROM sys.indexes WHERE name = 'idx_order_order_date' AND object_id = OBJECT_ID('dbo.jhi_order'))
+BEGIN
+    CREATE INDEX idx_order_order_date ON [dbo].[jhi_order]([order_date]);
+END
+GO
+
+-- Tìm kiếm đơn (/api/admin/orders/search): tên khách đã bỏ dấu, viết thường để LIKE 'x%' seek được index
+IF COL_LENGTH('dbo.jhi_order', 'customer_name_search') IS NULL
+BEGIN
+    ALTER TABLE [dbo].[jhi_order] ADD [customer_name_search] [nvarchar](255) NULL;
+END
+GO
+
+-- Cùng kết quả với Order.normalizeCustomerName: bỏ dấu, tab/xuống dòng thành khoảng trắng, rồi gộp nhiều khoảng trắng
+-- liên tiếp thành một (' ' -> ' ' + CHAR(7), bỏ CHAR(7) + ' ', bỏ CHAR(7) còn lại)
+UPDATE [dbo].[jhi_order]
+SET [customer_name_search] = LTRIM(RTRIM(REPLACE(REPLACE(REPLACE(
+    TRANSLATE(LOWER([customer_full_name]),
+        N'àáảãạăằắẳẵặâầấẩẫậđèéẻẽẹêềếểễệìíỉĩịòóỏõọôồốổỗộơờớởỡợùúủũụưừứửữựỳýỷỹỵ' + NCHAR(9) + NCHAR(10) + NCHAR(11) + NCHAR(12) + NCHAR(13),
+        N'aaaaaaaaaaaaaaaaadeeeeeeeeeeeiiiiiooooooooooooooooouuuuuuuuuuuyyyyy     '),
+    N' ', N' ' + NCHAR(7)), NCHAR(7) + N' ', N''), NCHAR(7), N'')))
+WHERE [customer_full_name] IS NOT NULL
+    AND ([customer_name_search] IS NULL OR [customer_name_search] LIKE N'%  %');
+GO
+
+IF NOT EXISTS (SELECT * FROM sys.indexes WHERE name = 'idx_order_order_code' AND object_id = OBJECT_ID('dbo.jhi_order'))
+BEGIN
+    CREATE INDEX idx_order_order_code ON [dbo].[jhi_order]([order_code]);
+END
+GO
+
+IF NOT EXISTS (SELECT * FROM sys.indexes WHERE name = 'idx_order_customer_name_search' AND object_id = OBJECT_ID('dbo.jhi_order'))
+BEGIN
+    CREATE INDEX idx_order_customer_name_search ON [dbo].[jhi_order]([customer_name_search]);
+END
+GO
+
+IF NOT EXISTS (SELECT * FROM sys.indexes WHERE name = 'idx_order_user_id' AND object_id = OBJECT_ID('dbo.jhi_order'))
+BEGIN
+    CREATE INDEX idx_order_user_id ON [dbo].[jhi_order]([user_id], [order_date]);
+END
+GO
@@ -1,6 +1,10 @@
 package com.mycompany.myapp.config;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Properties specific to Web Demo.
@@ -13,12 +17,66 @@ public class ApplicationProperties {
 
     private final Liquibase liquibase = new Liquibase();
 
+    private final Cache cache = new Cache();
+
+    private final Inventory inventory = new Inventory();
+
+    private final Checkout checkout = new Checkout();
+
+    private final Outbox outbox = new Outbox();
+
+    private final Import importing = new Import();
+
+    private final Search search = new Search();
+
+    private final Dashboard dashboard = new Dashboard();
+
+    private final TokenBlacklist tokenBlacklist = new TokenBlacklist();
+
+    private final JwtCache jwtCache = new JwtCache();
+
     // jhipster-needle-application-properties-property
 
     public Liquibase getLiquibase() {
         return liquibase;
     }
 
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Inventory getInventory() {
+        return inventory;
+    }
+
+    public Checkout getCheckout() {
+        return checkout;
+    }
+
+    public Outbox getOutbox() {
+        return outbox;
+    }
+
+    public Import getImport() {
+        return importing;
+    }
+
+    public Search getSearch() {
+        return search;
+    }
+
+    public Dashboard getDashboard() {
+        return dashboard;
+    }
+
+    public TokenBlacklist getTokenBlacklist() {
+        return tokenBlacklist;
+    }
+
+    public JwtCache getJwtCache() {
+        return jwtCache;
+    }
+
     // jhipster-needle-application-properties-property-getter
 
     public static class Liquibase {
@@ -33,5 +91,499 @@ public class ApplicationProperties {
             this.asyncStart = asyncStart;
         }
     }
+
+    public static class Cache {
+
+        /**
+         * Redis pub/sub channel used to drop local (L1) entries on the other nodes.
+         */
+        private String invalidationChannel = "cache:invalidation";
+
+        /**
+         * Default local (L1) settings, used by every cache without its own entry in {@link #caches}.
+         */
+        private final Local local = new Local();
+
+        /**
+         * Local (L1) settings per cache name.
+         */
+        private final Map<String, Local> caches = new HashMap<>();
+
+        public String getInvalidationChannel() {
+            return invalidationChannel;
+        }
+
+        public void setInvalidationChannel(String invalidationChannel) {
+            this.invalidationChannel = invalidationChannel;
+        }
+
+        public Local getLocal() {
+            return local;
+        }
+
+        public Map<String, Local> getCaches() {
+            return caches;
+        }
+
+        public Local getLocal(String cacheName) {
+            return caches.getOrDefault(cacheName, local);
+        }
+
+        public static class Local {
+
+            private boolean enabled = true;
+
+            private long maxSize = 1000;
+
+            /**
+             * Upper bound on how stale an L1 entry can get if an invalidation message is lost.
+             */
+            private Duration timeToLive = Duration.ofSeconds(60);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public long getMaxSize() {
+                return maxSize;
+            }
+
+            public void setMaxSize(long maxSize) {
+                this.maxSize = maxSize;
+            }
+
+            public Duration getTimeToLive() {
+                return timeToLive;
+            }
+
+            public void setTimeToLive(Duration timeToLive) {
+                this.timeToLive = timeToLive;
+            }
+        }
+    }
+
+    public static class Inventory {
+
+        /**
+         * Số shard tối đa cho một sản phẩm hot.
+         */
+        private int maxShards = 64;
+
+        /**
+         * Chu kỳ gộp các shard về {@code Product.quantity}/{@code salesCount} và chia lại tồn kho.
+         */
+        private Duration reconcileInterval = Duration.ofSeconds(10);
+
+        public int getMaxShards() {
+            return maxShards;
+        }
+
+        public void setMaxShards(int maxShards) {
+            this.maxShards = maxShards;
+        }
+
+        public Duration getReconcileInterval() {
+            return reconcileInterval;
+        }
+
+        public void setReconcileInterval(Duration reconcileInterval) {
+            this.reconcileInterval = reconcileInterval;
+        }
+    }
+
+    public static class Checkout {
+
+        /**
+         * Bật thì {@code POST /api/orders} chỉ ghi đơn QUEUED, trả 202 và để consumer xử lý qua RabbitMQ.
+         */
+        private boolean async = false;
+
+        /**
+         * Số consumer đồng thời đọc hàng đợi đơn hàng.
+         */
+        private int consumers = 4;
+
+        /**
+         * Số đơn tối đa mỗi consumer lấy trong một lần.
+         */
+        private int batchSize = 20;
+
+        public boolean isAsync() {
+            return async;
+        }
+
+        public void setAsync(boolean async) {
+            this.async = async;
+        }
+
+        public int getConsumers() {
+            return consumers;
+        }
+
+        public void setConsumers(int consumers) {
+            this.consumers = consumers;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+    }
+
+    public static class Outbox {
+
+        private Duration relayInterval = Duration.ofSeconds(1);
+
+        /**
+         * Số sự kiện tối đa gửi trong một lần chạy relay.
+         */
+        private int batchSize = 100;
+
+        /**
+         * Thời gian chờ broker xác nhận (publisher confirm) cho cả lô.
+         */
+        private Duration confirmTimeout = Duration.ofSeconds(5);
+
+        /**
+         * Backoff lần gửi lại đầu tiên, nhân đôi sau mỗi lần lỗi đến {@link #maxBackoff}.
+         */
+        private Duration initialBackoff = Duration.ofSeconds(1);
+
+        private Duration maxBackoff = Duration.ofMinutes(5);
+
+        /**
+         * Thời gian giữ lại các sự kiện đã gửi trước khi xóa.
+         */
+        private Duration retention = Duration.ofDays(7);
+
+        public Duration getRelayInterval() {
+            return relayInterval;
+        }
+
+        public void setRelayInterval(Duration relayInterval) {
+            this.relayInterval = relayInterval;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getConfirmTimeout() {
+            return confirmTimeout;
+        }
+
+        public void setConfirmTimeout(Duration confirmTimeout) {
+            this.confirmTimeout = confirmTimeout;
+        }
+
+        public Duration getInitialBackoff() {
+            return initialBackoff;
+        }
+
+        public void setInitialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+
+        public Duration getRetention() {
+            return retention;
+        }
+
+        public void setRetention(Duration retention) {
+            this.retention = retention;
+        }
+    }
+    public static class Import {
+
+        /**
+         * Số luồng băm mật khẩu (BCrypt) khi import người dùng, 0 = số CPU.
+         */
+        private int passwordHashThreads = 0;
+
+        /**
+         * Số job import chạy đồng thời trên mỗi node.
+         */
+        private int jobThreads = 2;
+
+        /**
+         * Số dòng ghi trong một transaction, cũng là khoảng cách giữa hai checkpoint.
+         */
+        private int chunkSize = 500;
+
+        /**
+         * Thư mục lưu file đang chờ import. Thư mục riêng của node thì job từ file tải lên chỉ chạy tiếp được trên node đó
+         * (job từ URL thì node khác tải lại); thư mục dùng chung thì node nào cũng chạy tiếp được.
+         */
+        private String storageDir = System.getProperty("java.io.tmpdir") + "/web-demo-import";
+
+        /**
+         * Job QUEUED/RUNNING không có heartbeat trong khoảng này được coi là bị gián đoạn và chạy tiếp từ checkpoint.
+         * Node đang chạy job ghi heartbeat mỗi {@code staleAfter / 4}; nên lớn hơn hẳn {@code downloadTimeout}.
+         */
+        private Duration staleAfter = Duration.ofMinutes(10);
+
+        /**
+         * Số lỗi theo dòng tối đa lưu cho một job.
+         */
+        private int maxStoredErrors = 1000;
+
+        /**
+         * Dung lượng tối đa của file tải từ URL, vượt quá thì dừng tải ngay.
+         */
+        private DataSize maxDownloadSize = DataSize.ofMegabytes(100);
+
+        private Duration connectTimeout = Duration.ofSeconds(10);
+
+        /**
+         * Thời gian chờ máy chủ trả header sau khi gửi request.
+         */
+        private Duration responseTimeout = Duration.ofSeconds(30);
+
+        /**
+         * Thời gian tối đa cho cả lần tải, kể cả đọc body.
+         */
+        private Duration downloadTimeout = Duration.ofMinutes(5);
+
+        public int getPasswordHashThreads() {
+            return passwordHashThreads;
+        }
+
+        public void setPasswordHashThreads(int passwordHashThreads) {
+            this.passwordHashThreads = passwordHashThreads;
+        }
+
+        public int getJobThreads() {
+            return jobThreads;
+        }
+
+        public void setJobThreads(int jobThreads) {
+            this.jobThreads = jobThreads;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public String getStorageDir() {
+            return storageDir;
+        }
+
+        public void setStorageDir(String storageDir) {
+            this.storageDir = storageDir;
+        }
+
+        public Duration getStaleAfter() {
+            return staleAfter;
+        }
+
+        public void setStaleAfter(Duration staleAfter) {
+            this.staleAfter = staleAfter;
+        }
+
+        public int getMaxStoredErrors() {
+            return maxStoredErrors;
+        }
+
+        public void setMaxStoredErrors(int maxStoredErrors) {
+            this.maxStoredErrors = maxStoredErrors;
+        }
+
+        public DataSize getMaxDownloadSize() {
+            return maxDownloadSize;
+        }
+
+        public void setMaxDownloadSize(DataSize maxDownloadSize) {
+            this.maxDownloadSize = maxDownloadSize;
+        }
+
+        public Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public void setConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+
+        public Duration getResponseTimeout() {
+            return responseTimeout;
+        }
+
+        public void setResponseTimeout(Duration responseTimeout) {
+            this.responseTimeout = responseTimeout;
+        }
+
+        public Duration getDownloadTimeout() {
+            return downloadTimeout;
+        }
+
+        public void setDownloadTimeout(Duration downloadTimeout) {
+            this.downloadTimeout = downloadTimeout;
+        }
+    }
+
+    public static class Search {
+
+        /**
+         * Chu kỳ dựng lại index tìm kiếm sản phẩm từ database; sửa các lệch do message giữa các node bị mất
+         * hoặc thay đổi không đi qua ứng dụng.
+         */
+        private Duration rebuildInterval = Duration.ofMinutes(10);
+
+        /**
+         * Chu kỳ gom các id sản phẩm mà node khác báo đã thay đổi (qua kênh {@code application.cache.invalidation-channel})
+         * rồi đọc lại một lượt, để mỗi đơn hàng không thành một truy vấn trên mọi node.
+         */
+        private Duration peerRefreshInterval = Duration.ofSeconds(1);
+
+        public Duration getRebuildInterval() {
+            return rebuildInterval;
+        }
+
+        public void setRebuildInterval(Duration rebuildInterval) {
+            this.rebuildInterval = rebuildInterval;
+        }
+
+        public Duration getPeerRefreshInterval() {
+            return peerRefreshInterval;
+        }
+
+        public void setPeerRefreshInterval(Duration peerRefreshInterval) {
+            this.peerRefreshInterval = peerRefreshInterval;
+        }
+    }
+
+    public static class Dashboard {
+
+        /**
+         * Chu kỳ tính lại toàn bộ số liệu dashboard từ database, sửa các lệch do thay đổi không đi qua Hibernate.
+         */
+        private Duration reconcileInterval = Duration.ofMinutes(5);
+
+        public Duration getReconcileInterval() {
+            return reconcileInterval;
+        }
+
+        public void setReconcileInterval(Duration reconcileInterval) {
+            this.reconcileInterval = reconcileInterval;
+        }
+    }
+
+    public static class TokenBlacklist {
+
+        /**
+         * Redis pub/sub channel báo token vừa bị thu hồi cho Bloom filter trên các node.
+         */
+        private String channel = "token:blacklist";
+
+        /**
+         * Chu kỳ nạp lại Bloom filter từ Redis, bù cho các message pub/sub bị mất; cũng là thời gian tối đa một node
+         * không biết token đã bị thu hồi trên node khác nếu mất kết nối pub/sub.
+         */
+        private Duration resyncInterval = Duration.ofMinutes(1);
+
+        /**
+         * Số token bị thu hồi dự kiến trong một phân vùng của Bloom filter.
+         */
+        private int expectedRevocations = 10_000;
+
+        private double falsePositiveRate = 0.01;
+
+        /**
+         * {@code false} (fail open): Redis lỗi thì chỉ chặn các token có trong Bloom filter.
+         * {@code true} (fail closed): Redis lỗi thì từ chối mọi token.
+         */
+        private boolean failClosed = false;
+
+        public String getChannel() {
+            return channel;
+        }
+
+        public void setChannel(String channel) {
+            this.channel = channel;
+        }
+
+        public Duration getResyncInterval() {
+            return resyncInterval;
+        }
+
+        public void setResyncInterval(Duration resyncInterval) {
+            this.resyncInterval = resyncInterval;
+        }
+
+        public int getExpectedRevocations() {
+            return expectedRevocations;
+        }
+
+        public void setExpectedRevocations(int expectedRevocations) {
+            this.expectedRevocations = expectedRevocations;
+        }
+
+        public double getFalsePositiveRate() {
+            return falsePositiveRate;
+        }
+
+        public void setFalsePositiveRate(double falsePositiveRate) {
+            this.falsePositiveRate = falsePositiveRate;
+        }
+
+        public boolean isFailClosed() {
+            return failClosed;
+        }
+
+        public void setFailClosed(boolean failClosed) {
+            this.failClosed = failClosed;
+        }
+    }
+
+    public static class JwtCache {
+
+        /**
+         * Giữ lại JWT đã kiểm tra chữ ký đến khi hết hạn; tắt thì mọi request đều giải mã lại.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Số token tối đa giữ trong cache trên mỗi node (mỗi entry khoảng 1-2 KB).
+         */
+        private long maxSize = 10_000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(long maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
@@ -1,73 +1,112 @@
 package com.mycompany.myapp.config;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mycompany.myapp.config.cache.TwoLevelCacheManager;
+import com.mycompany.myapp.domain.AbstractAuditingEntity;
+import com.mycompany.myapp.repository.ProductRepository;
+import com.mycompany.myapp.repository.UserRepository;
+import com.mycompany.myapp.service.ProductSearchService;
+import com.mycompany.myapp.service.TokenBlacklistService;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.CacheErrorHandler;
+import org.springframework.cache.interceptor.LoggingCacheErrorHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
 @EnableCaching
-public class CacheConfiguration {
+public class CacheConfiguration implements CachingConfigurer {
 
     @Bean
-    public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory) {
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
+    public TwoLevelCacheManager cacheManager(
+        RedisConnectionFactory connectionFactory,
+        StringRedisTemplate stringRedisTemplate,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
+        // L2 (Redis) không phải bean nên phải tự khởi tạo các cache đã cấu hình TTL
+        RedisCacheManager redisCacheManager = redisCacheManager(connectionFactory);
+        redisCacheManager.initializeCaches();
 
+        // L1 (Caffeine) cho từng node, các node khác được báo qua Redis pub/sub khi dữ liệu thay đổi
+        TwoLevelCacheManager cacheManager = new TwoLevelCacheManager(
+            redisCacheManager,
+            stringRedisTemplate,
+            applicationProperties.getCache(),
+            meterRegistry
+        );
+        // transactionAware: put/evict chỉ thực hiện sau khi transaction commit
+        cacheManager.setTransactionAware(true);
+        return cacheManager;
+    }
+
+    /**
+     * Container dùng chung cho các listener Redis pub/sub.
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(
+        RedisConnectionFactory connectionFactory,
+        TwoLevelCacheManager cacheManager,
+        ProductSearchService productSearchService,
+        TokenBlacklistService tokenBlacklistService,
+        ApplicationProperties applicationProperties
+    ) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        ChannelTopic invalidationChannel = new ChannelTopic(applicationProperties.getCache().getInvalidationChannel());
+        container.addMessageListener(cacheManager, invalidationChannel);
+        container.addMessageListener(productSearchService, invalidationChannel);
+        // Keyspace event chỉ đến khi Redis bật notify-keyspace-events (K$g), không có thì dựa vào channel và lần nạp lại định kỳ
+        container.addMessageListener(
+            tokenBlacklistService,
+            List.of(
+                new ChannelTopic(applicationProperties.getTokenBlacklist().getChannel()),
+                new PatternTopic("__keyspace@*__:" + TokenBlacklistService.BLACKLIST_PREFIX + "*"),
+                new PatternTopic("__keyspace@*__:" + TokenBlacklistService.EPOCH_PREFIX + "*")
+            )
+        );
+        return container;
+    }
+
+    private static RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory) {
         // Default cache configuration (10 phút)
-        RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
-            .entryTtl(Duration.ofMinutes(10))
-            .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
-            .serializeValuesWith(
-                RedisSerializationContext.SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer(objectMapper))
-            );
+        RedisCacheConfiguration defaultConfig = cacheConfiguration(Duration.ofMinutes(10));
 
         // Cấu hình TTL riêng cho từng cache
         Map<String, RedisCacheConfiguration> cacheConfigs = new HashMap<>();
 
         // Product cache: 5 phút
-        cacheConfigs.put(
-            "com.mycompany.myapp.domain.Product",
-            RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofMinutes(5))
-                .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
-                .serializeValuesWith(
-                    RedisSerializationContext.SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer(objectMapper))
-                )
-        );
+        cacheConfigs.put(ProductRepository.PRODUCTS_BY_ID_CACHE, cacheConfiguration(Duration.ofMinutes(5)));
+
+        // Danh sách id theo bộ lọc/trang: TTL ngắn vì sửa sản phẩm không xóa cache này
+        cacheConfigs.put(ProductRepository.PRODUCT_PAGES_CACHE, cacheConfiguration(Duration.ofMinutes(1)));
+
+        // Người dùng đang đăng nhập: mọi thay đổi qua UserService đều xóa cache, TTL chỉ giới hạn các thay đổi ngoài luồng đó
+        cacheConfigs.put(UserRepository.USERS_BY_EMAIL_CACHE, cacheConfiguration(Duration.ofMinutes(5)));
 
         // Featured products: cache lâu hơn (30 phút)
-        cacheConfigs.put(
-            "featuredProducts",
-            RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofMinutes(30))
-                .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
-                .serializeValuesWith(
-                    RedisSerializationContext.SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer(objectMapper))
-                )
-        );
+        cacheConfigs.put("featuredProducts", cacheConfiguration(Duration.ofMinutes(30)));
 
         // Featured categories: cache lâu nhất (1 giờ)
-        cacheConfigs.put(
-            "featuredCategories",
-            RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofHours(1))
-                .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
-                .serializeValuesWith(
-                    RedisSerializationContext.SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer(objectMapper))
-                )
-        );
+        cacheConfigs.put("featuredCategories", cacheConfiguration(Duration.ofHours(1)));
 
         return RedisCacheManager.builder(connectionFactory)
             .cacheDefaults(defaultConfig)
@@ -75,6 +114,14 @@ public class CacheConfiguration {
             .build();
     }
 
+    /**
+     * Redis lỗi thì chỉ log và đọc thẳng từ database, không làm hỏng request.
+     */
+    @Override
+    public CacheErrorHandler errorHandler() {
+        return new LoggingCacheErrorHandler();
+    }
+
     /**
      * RedisTemplate cho token blacklist và các operations khác
      */
@@ -86,4 +133,26 @@ public class CacheConfiguration {
         template.setValueSerializer(new StringRedisSerializer());
         return template;
     }
+
+    private static RedisCacheConfiguration cacheConfiguration(Duration ttl) {
+        return RedisCacheConfiguration.defaultCacheConfig()
+            .entryTtl(ttl)
+            .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
+            .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(cacheValueSerializer()));
+    }
+
+    /**
+     * Serializer có ghi kiểu (@class) để đọc lại đúng entity thay vì LinkedHashMap.
+     */
+    static GenericJackson2JsonRedisSerializer cacheValueSerializer() {
+        return new GenericJackson2JsonRedisSerializer().configure(objectMapper ->
+            objectMapper.registerModule(new JavaTimeModule()).addMixIn(AbstractAuditingEntity.class, AuditingFieldsMixIn.class)
+        );
+    }
+
+    /**
+     * Giữ lại các trường audit khi đọc từ cache (REST API chỉ cho phép ghi chúng ra).
+     */
+    @JsonIgnoreProperties
+    private abstract static class AuditingFieldsMixIn {}
 }
@@ -5,11 +5,13 @@ import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.core.QueueBuilder;
 import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.rabbit.retry.MessageRecoverer;
 import org.springframework.amqp.rabbit.retry.RepublishMessageRecoverer;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -19,10 +21,12 @@ public class RabbitMQConfig {
     // Queue names
     public static final String ORDER_EMAIL_QUEUE = "order.email.queue";
     public static final String USER_REGISTRATION_QUEUE = "user.registration.queue";
+    public static final String ORDER_INTENT_QUEUE = "order.intent.queue";
 
     // Dead Letter Queue names
     public static final String ORDER_EMAIL_DLQ = "order.email.queue.dlq";
     public static final String USER_REGISTRATION_DLQ = "user.registration.queue.dlq";
+    public static final String ORDER_INTENT_DLQ = "order.intent.queue.dlq";
 
     // Exchange names
     public static final String APP_EXCHANGE = "app.exchange";
@@ -31,6 +35,10 @@ public class RabbitMQConfig {
     // Routing keys
     public static final String ORDER_CREATED_KEY = "order.created";
     public static final String USER_REGISTERED_KEY = "user.registered";
+    public static final String ORDER_INTENT_KEY = "order.intent";
+
+    // Listener container factories
+    public static final String ORDER_INTENT_CONTAINER_FACTORY = "orderIntentListenerContainerFactory";
 
     /**
      * Main Order Email Queue với Dead Letter Queue config
@@ -72,6 +80,22 @@ public class RabbitMQConfig {
         return new Queue(USER_REGISTRATION_DLQ, true);
     }
 
+    /**
+     * Hàng đợi đơn hàng của chế độ checkout bất đồng bộ
+     */
+    @Bean
+    public Queue orderIntentQueue() {
+        return QueueBuilder.durable(ORDER_INTENT_QUEUE)
+            .withArgument("x-dead-letter-exchange", DLQ_EXCHANGE)
+            .withArgument("x-dead-letter-routing-key", ORDER_INTENT_DLQ)
+            .build();
+    }
+
+    @Bean
+    public Queue orderIntentDLQ() {
+        return new Queue(ORDER_INTENT_DLQ, true);
+    }
+
     @Bean
     public TopicExchange appExchange() {
         return new TopicExchange(APP_EXCHANGE);
@@ -96,6 +120,11 @@ public class RabbitMQConfig {
         return BindingBuilder.bind(userRegistrationQueue()).to(appExchange()).with(USER_REGISTERED_KEY);
     }
 
+    @Bean
+    public Binding orderIntentBinding() {
+        return BindingBuilder.bind(orderIntentQueue()).to(appExchange()).with(ORDER_INTENT_KEY);
+    }
+
     /**
      * Binding cho Dead Letter Queues
      */
@@ -109,6 +138,35 @@ public class RabbitMQConfig {
         return BindingBuilder.bind(userRegistrationDLQ()).to(dlqExchange()).with(USER_REGISTRATION_DLQ);
     }
 
+    @Bean
+    public Binding orderIntentDLQBinding() {
+        return BindingBuilder.bind(orderIntentDLQ()).to(dlqExchange()).with(ORDER_INTENT_DLQ);
+    }
+
+    /**
+     * Consumer đọc đơn hàng theo lô: mỗi lần nhận tối đa {@code batchSize} message,
+     * số consumer cố định nên số connection database dùng cho checkout cũng cố định.
+     * Lô bị ném lỗi không được requeue mà đi vào {@link #ORDER_INTENT_DLQ}.
+     */
+    @Bean(name = ORDER_INTENT_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory orderIntentListenerContainerFactory(
+        SimpleRabbitListenerContainerFactoryConfigurer configurer,
+        ConnectionFactory connectionFactory,
+        ApplicationProperties applicationProperties
+    ) {
+        ApplicationProperties.Checkout checkout = applicationProperties.getCheckout();
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setConcurrentConsumers(checkout.getConsumers());
+        factory.setMaxConcurrentConsumers(checkout.getConsumers());
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(checkout.getBatchSize());
+        factory.setPrefetchCount(checkout.getBatchSize());
+        factory.setDefaultRequeueRejected(false);
+        return factory;
+    }
+
     @Bean
     public Jackson2JsonMessageConverter messageConverter() {
         return new Jackson2JsonMessageConverter();
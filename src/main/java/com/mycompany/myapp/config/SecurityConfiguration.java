@@ -4,6 +4,7 @@ import static org.springframework.security.config.Customizer.withDefaults;
 import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
 
 import com.mycompany.myapp.security.AuthoritiesConstants;
+import com.mycompany.myapp.security.PublicPathMatcher;
 import com.mycompany.myapp.security.jwt.JwtBlacklistFilter;
 import com.mycompany.myapp.web.filter.SpaWebFilter;
 import org.springframework.context.annotation.Bean;
@@ -36,11 +37,18 @@ public class SecurityConfiguration {
     private final Environment env;
     private final JHipsterProperties jHipsterProperties;
     private final JwtBlacklistFilter jwtBlacklistFilter;
+    private final PublicPathMatcher publicPathMatcher;
 
-    public SecurityConfiguration(Environment env, JHipsterProperties jHipsterProperties, JwtBlacklistFilter jwtBlacklistFilter) {
+    public SecurityConfiguration(
+        Environment env,
+        JHipsterProperties jHipsterProperties,
+        JwtBlacklistFilter jwtBlacklistFilter,
+        PublicPathMatcher publicPathMatcher
+    ) {
         this.env = env;
         this.jHipsterProperties = jHipsterProperties;
         this.jwtBlacklistFilter = jwtBlacklistFilter;
+        this.publicPathMatcher = publicPathMatcher;
     }
 
     @Bean
@@ -81,13 +89,7 @@ public class SecurityConfiguration {
                     .requestMatchers(mvc.pattern(HttpMethod.GET, "/api/products")).permitAll()
                     .requestMatchers(mvc.pattern(HttpMethod.GET, "/api/products/**")).permitAll()
                     .requestMatchers(mvc.pattern(HttpMethod.GET, "/api/categories")).permitAll()
-                    .requestMatchers(mvc.pattern(HttpMethod.POST, "/api/authenticate")).permitAll()
-                    .requestMatchers(mvc.pattern(HttpMethod.GET, "/api/authenticate")).permitAll()
-                    .requestMatchers(mvc.pattern("/api/register")).permitAll()
-                    .requestMatchers(mvc.pattern("/api/activate")).permitAll()
-                    .requestMatchers(mvc.pattern("/api/account/reset-password/init")).permitAll()
-                    .requestMatchers(mvc.pattern("/api/account/reset-password/finish")).permitAll()
-                    .requestMatchers(antMatcher("/api/public/**")).permitAll()
+                    .requestMatchers(publicPathMatcher).permitAll()
                     .requestMatchers(mvc.pattern("/index.html"), mvc.pattern("/*.js"), mvc.pattern("/*.txt"), mvc.pattern("/*.json"), mvc.pattern("/*.map"), mvc.pattern("/*.css")).permitAll()
                     .requestMatchers(mvc.pattern("/*.ico"), mvc.pattern("/*.png"), mvc.pattern("/*.svg"), mvc.pattern("/*.webapp")).permitAll()
                     .requestMatchers(mvc.pattern("/app/**")).permitAll()
@@ -3,8 +3,10 @@ package com.mycompany.myapp.config;
 import static com.mycompany.myapp.security.SecurityUtils.JWT_ALGORITHM;
 
 import com.mycompany.myapp.management.SecurityMetersService;
+import com.mycompany.myapp.security.jwt.CachingJwtDecoder;
 import com.nimbusds.jose.jwk.source.ImmutableSecret;
 import com.nimbusds.jose.util.Base64;
+import io.micrometer.core.instrument.MeterRegistry;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import org.slf4j.Logger;
@@ -26,9 +28,13 @@ public class SecurityJwtConfiguration {
     private String jwtKey;
 
     @Bean
-    public JwtDecoder jwtDecoder(SecurityMetersService metersService) {
+    public JwtDecoder jwtDecoder(
+        SecurityMetersService metersService,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
+    ) {
         NimbusJwtDecoder jwtDecoder = NimbusJwtDecoder.withSecretKey(getSecretKey()).macAlgorithm(JWT_ALGORITHM).build();
-        return token -> {
+        JwtDecoder meteredDecoder = token -> {
             try {
                 return jwtDecoder.decode(token);
             } catch (Exception e) {
@@ -48,6 +54,8 @@ public class SecurityJwtConfiguration {
                 throw e;
             }
         };
+        ApplicationProperties.JwtCache jwtCache = applicationProperties.getJwtCache();
+        return jwtCache.isEnabled() ? new CachingJwtDecoder(meteredDecoder, jwtCache.getMaxSize(), meterRegistry) : meteredDecoder;
     }
 
     @Bean
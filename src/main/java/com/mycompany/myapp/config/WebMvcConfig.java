@@ -1,5 +1,6 @@
 package com.mycompany.myapp.config;
 
+import com.mycompany.myapp.security.PublicPathMatcher;
 import com.mycompany.myapp.web.rest.interceptor.RequestLoggingInterceptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
@@ -21,13 +22,6 @@ public class WebMvcConfig implements WebMvcConfigurer {
         registry
             .addInterceptor(requestLoggingInterceptor)
             .addPathPatterns("/api/**")
-            .excludePathPatterns(
-                "/api/public/**",
-                "/api/authenticate",
-                "/api/register",
-                "/api/activate",
-                "/api/account/reset-password/init",
-                "/api/account/reset-password/finish"
-            );
+            .excludePathPatterns(PublicPathMatcher.PATTERNS);
     }
 }
@@ -0,0 +1,215 @@
+package com.mycompany.myapp.config.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+/**
+ * Cache hai tầng: L1 là Caffeine trong JVM, L2 là Redis dùng chung giữa các node.
+ * <p>
+ * Đọc: L1 → L2 → (miss). Ghi/xóa: ghi L2 trước, cập nhật L1, rồi báo cho các node khác
+ * qua {@link TwoLevelCacheManager} để họ bỏ bản L1 cũ. Giá trị trong L1 là object dùng chung,
+ * caller không được sửa trực tiếp.
+ * <p>
+ * {@code @Cacheable} thường nạp giá trị bị miss qua {@link #put}, tức là phát invalidation ở mỗi lần miss.
+ * Các method đọc qua cache này phải dùng {@code @Cacheable(sync = true)}: khi đó Spring gọi
+ * {@link #get(Object, Callable)}, nạp bằng {@link #putIfAbsent} và không phát gì. Trong một JVM, các lần miss đồng thời
+ * của cùng một key chỉ gọi loader một lần (khóa theo dải key); giữa các node thì mỗi node vẫn có thể nạp một lần.
+ */
+public class TwoLevelCache implements Cache {
+
+    static final String REQUESTS_METER_NAME = "cache.two-level.requests";
+
+    private static final int LOAD_LOCK_STRIPES = 64;
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> local;
+    private final Cache remote;
+    private final InvalidationPublisher publisher;
+    private final Lock[] loadLocks = new Lock[LOAD_LOCK_STRIPES];
+
+    private final Counter l1Hits;
+    private final Counter l1Misses;
+    private final Counter l2Hits;
+    private final Counter l2Misses;
+
+    public TwoLevelCache(
+        String name,
+        com.github.benmanes.caffeine.cache.Cache<String, ValueWrapper> local,
+        Cache remote,
+        InvalidationPublisher publisher,
+        MeterRegistry meterRegistry
+    ) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.publisher = publisher;
+        for (int i = 0; i < loadLocks.length; i++) {
+            loadLocks[i] = new ReentrantLock();
+        }
+        this.l1Hits = requestsCounter(meterRegistry, "l1", "hit");
+        this.l1Misses = requestsCounter(meterRegistry, "l1", "miss");
+        this.l2Hits = requestsCounter(meterRegistry, "l2", "hit");
+        this.l2Misses = requestsCounter(meterRegistry, "l2", "miss");
+    }
+
+    private Counter requestsCounter(MeterRegistry meterRegistry, String tier, String result) {
+        return Counter.builder(REQUESTS_METER_NAME)
+            .description("Cache lookups per tier of the two-level cache")
+            .tag("cache", name)
+            .tag("tier", tier)
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        ValueWrapper wrapper = local.getIfPresent(localKey);
+        if (wrapper != null) {
+            l1Hits.increment();
+            return wrapper;
+        }
+        l1Misses.increment();
+
+        wrapper = remote.get(key);
+        if (wrapper == null) {
+            l2Misses.increment();
+            return null;
+        }
+        l2Hits.increment();
+        // Bọc lại để L1 không giữ tham chiếu tới wrapper riêng của Redis cache
+        wrapper = new SimpleValueWrapper(wrapper.get());
+        local.put(localKey, wrapper);
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        Lock lock = loadLocks[Math.floorMod(localKey(key).hashCode(), loadLocks.length)];
+        lock.lock();
+        try {
+            // Luồng giữ khóa trước có thể vừa nạp xong key này
+            wrapper = get(key);
+            if (wrapper != null) {
+                return (T) wrapper.get();
+            }
+            T value;
+            try {
+                value = valueLoader.call();
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+            putIfAbsent(key, value);
+            return value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        local.put(localKey(key), new SimpleValueWrapper(value));
+        publisher.publishEvict(name, localKey(key));
+    }
+
+    /**
+     * Dùng khi nạp giá trị vừa đọc từ database: không ghi đè bản đã có và không phát invalidation,
+     * vì các node khác không thể đang giữ bản mới hơn.
+     */
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        Object current = existing != null ? existing.get() : value;
+        local.put(localKey(key), new SimpleValueWrapper(current));
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        local.invalidate(localKey(key));
+        publisher.publishEvict(name, localKey(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = remote.evictIfPresent(key);
+        local.invalidate(localKey(key));
+        publisher.publishEvict(name, localKey(key));
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        publisher.publishClear(name);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean notEmpty = remote.invalidate();
+        local.invalidateAll();
+        publisher.publishClear(name);
+        return notEmpty;
+    }
+
+    /**
+     * Chỉ xóa L1, gọi khi nhận invalidation từ node khác.
+     */
+    void evictLocal(String localKey) {
+        local.invalidate(localKey);
+    }
+
+    void clearLocal() {
+        local.invalidateAll();
+    }
+
+    /**
+     * Redis cache chuyển key sang String (Long 1 → "1"), L1 dùng cùng dạng để khớp với key trong message.
+     */
+    static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    /**
+     * Kênh báo cho các node khác bỏ bản L1 cũ.
+     */
+    public interface InvalidationPublisher {
+        void publishEvict(String cacheName, String key);
+
+        void publishClear(String cacheName);
+    }
+}
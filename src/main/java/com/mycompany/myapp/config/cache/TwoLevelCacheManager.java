@@ -0,0 +1,137 @@
+package com.mycompany.myapp.config.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mycompany.myapp.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Bọc một {@link CacheManager} Redis (L2) và thêm L1 Caffeine cho từng cache.
+ * <p>
+ * Mỗi thay đổi được phát lên kênh Redis pub/sub; các node khác nhận message và chỉ xóa L1 của mình.
+ * Message có dạng {@code nodeId \n cacheName [\n key]}, thiếu key nghĩa là xóa toàn bộ cache.
+ * Nếu mất message, TTL của L1 là giới hạn trên cho độ cũ của dữ liệu.
+ */
+public class TwoLevelCacheManager extends AbstractTransactionSupportingCacheManager implements MessageListener {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TwoLevelCacheManager.class);
+
+    static final String INVALIDATIONS_METER_NAME = "cache.two-level.invalidations";
+
+    private final CacheManager remoteCacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final ApplicationProperties.Cache properties;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final TwoLevelCache.InvalidationPublisher publisher = new RedisInvalidationPublisher();
+
+    public TwoLevelCacheManager(
+        CacheManager remoteCacheManager,
+        StringRedisTemplate redisTemplate,
+        ApplicationProperties.Cache properties,
+        MeterRegistry meterRegistry
+    ) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return remoteCacheManager.getCacheNames().stream().map(this::createCache).toList();
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        return createCache(name);
+    }
+
+    private Cache createCache(String name) {
+        Cache remote = remoteCacheManager.getCache(name);
+        if (remote == null) {
+            return null;
+        }
+        ApplicationProperties.Cache.Local local = properties.getLocal(name);
+        if (!local.isEnabled()) {
+            return remote;
+        }
+        return new TwoLevelCache(
+            name,
+            Caffeine.newBuilder().maximumSize(local.getMaxSize()).expireAfterWrite(local.getTimeToLive()).build(),
+            remote,
+            publisher,
+            meterRegistry
+        );
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\n", 3);
+        if (parts.length < 2 || nodeId.equals(parts[0])) {
+            return;
+        }
+        Cache cache = lookupCache(parts[1]);
+        if (cache == null) {
+            return;
+        }
+        if (unwrap(cache) instanceof TwoLevelCache twoLevelCache) {
+            if (parts.length == 3) {
+                twoLevelCache.evictLocal(parts[2]);
+            } else {
+                twoLevelCache.clearLocal();
+            }
+            invalidationsCounter(parts[1]).increment();
+        }
+    }
+
+    private Counter invalidationsCounter(String cacheName) {
+        return Counter.builder(INVALIDATIONS_METER_NAME)
+            .description("Local cache invalidations received from other nodes")
+            .tag("cache", cacheName)
+            .register(meterRegistry);
+    }
+
+    private static Cache unwrap(Cache cache) {
+        return cache instanceof TransactionAwareCacheDecorator decorator ? decorator.getTargetCache() : cache;
+    }
+
+    String getNodeId() {
+        return nodeId;
+    }
+
+    private class RedisInvalidationPublisher implements TwoLevelCache.InvalidationPublisher {
+
+        @Override
+        public void publishEvict(String cacheName, String key) {
+            send(String.join("\n", List.of(nodeId, cacheName, key)));
+        }
+
+        @Override
+        public void publishClear(String cacheName) {
+            send(nodeId + "\n" + cacheName);
+        }
+
+        private void send(String message) {
+            try {
+                redisTemplate.convertAndSend(properties.getInvalidationChannel(), message);
+            } catch (RuntimeException e) {
+                // L2 đã được cập nhật, các node khác sẽ tự hết hạn L1 theo TTL
+                LOG.warn("Could not publish cache invalidation: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.mycompany.myapp.domain;
+
+import com.mycompany.myapp.domain.enumeration.ImportJobStatus;
+import com.mycompany.myapp.domain.enumeration.ImportJobType;
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Một lần import file xlsx chạy nền. Dữ liệu được ghi theo từng phần, mỗi phần một transaction cùng với
+ * {@link #checkpointRow}, nên job bị gián đoạn có thể chạy tiếp từ dòng sau checkpoint.
+ */
+@Entity
+@Table(name = "jhi_import_job", indexes = @Index(name = "idx_import_job_status", columnList = "status, heartbeat_date"))
+public class ImportJob implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", length = 20, nullable = false)
+    private ImportJobType type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20, nullable = false)
+    private ImportJobStatus status;
+
+    /**
+     * Tên file tải lên hoặc URL nguồn.
+     */
+    @Column(name = "source", length = 1024, nullable = false, columnDefinition = "NVARCHAR(1024)")
+    private String source;
+
+    /**
+     * File xlsx đã lưu trên đĩa, {@code null} khi import từ URL chưa tải xong.
+     */
+    @Column(name = "file_path", length = 1024, columnDefinition = "NVARCHAR(1024)")
+    private String filePath;
+
+    /**
+     * Số dòng dữ liệu theo thẻ dimension của sheet, {@code null} nếu file không ghi.
+     */
+    @Column(name = "total_rows")
+    private Integer totalRows;
+
+    /**
+     * Chỉ số (từ 0) của dòng cuối cùng đã ghi xong.
+     */
+    @Column(name = "checkpoint_row", nullable = false)
+    private Integer checkpointRow = 0;
+
+    @Column(name = "processed_rows", nullable = false)
+    private Integer processedRows = 0;
+
+    @Column(name = "imported_rows", nullable = false)
+    private Integer importedRows = 0;
+
+    @Column(name = "failed_rows", nullable = false)
+    private Integer failedRows = 0;
+
+    /**
+     * {@link #processedRows} khi lần chạy hiện tại bắt đầu, dùng để tính tốc độ của lần chạy này.
+     */
+    @Column(name = "run_start_rows", nullable = false)
+    private Integer runStartRows = 0;
+
+    @Column(name = "last_error", length = 1000, columnDefinition = "NVARCHAR(1000)")
+    private String lastError;
+
+    @Column(name = "created_by", length = 50)
+    private String createdBy;
+
+    @Column(name = "created_date", nullable = false)
+    private Instant createdDate;
+
+    @Column(name = "started_date")
+    private Instant startedDate;
+
+    @Column(name = "finished_date")
+    private Instant finishedDate;
+
+    /**
+     * Cập nhật sau mỗi phần; job QUEUED/RUNNING lâu không cập nhật được coi là bị gián đoạn.
+     */
+    @Column(name = "heartbeat_date", nullable = false)
+    private Instant heartbeatDate;
+
+    /**
+     * Node nào nhận job cũng phải tăng version, nên node cũ mất quyền ghi tiếp.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public ImportJobType getType() {
+        return type;
+    }
+
+    public void setType(ImportJobType type) {
+        this.type = type;
+    }
+
+    public ImportJobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ImportJobStatus status) {
+        this.status = status;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public String getFilePath() {
+        return filePath;
+    }
+
+    public void setFilePath(String filePath) {
+        this.filePath = filePath;
+    }
+
+    public Integer getTotalRows() {
+        return totalRows;
+    }
+
+    public void setTotalRows(Integer totalRows) {
+        this.totalRows = totalRows;
+    }
+
+    public Integer getCheckpointRow() {
+        return checkpointRow;
+    }
+
+    public void setCheckpointRow(Integer checkpointRow) {
+        this.checkpointRow = checkpointRow;
+    }
+
+    public Integer getProcessedRows() {
+        return processedRows;
+    }
+
+    public void setProcessedRows(Integer processedRows) {
+        this.processedRows = processedRows;
+    }
+
+    public Integer getImportedRows() {
+        return importedRows;
+    }
+
+    public void setImportedRows(Integer importedRows) {
+        this.importedRows = importedRows;
+    }
+
+    public Integer getFailedRows() {
+        return failedRows;
+    }
+
+    public void setFailedRows(Integer failedRows) {
+        this.failedRows = failedRows;
+    }
+
+    public Integer getRunStartRows() {
+        return runStartRows;
+    }
+
+    public void setRunStartRows(Integer runStartRows) {
+        this.runStartRows = runStartRows;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public String getCreatedBy() {
+        return createdBy;
+    }
+
+    public void setCreatedBy(String createdBy) {
+        this.createdBy = createdBy;
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public Instant getStartedDate() {
+        return startedDate;
+    }
+
+    public void setStartedDate(Instant startedDate) {
+        this.startedDate = startedDate;
+    }
+
+    public Instant getFinishedDate() {
+        return finishedDate;
+    }
+
+    public void setFinishedDate(Instant finishedDate) {
+        this.finishedDate = finishedDate;
+    }
+
+    public Instant getHeartbeatDate() {
+        return heartbeatDate;
+    }
+
+    public void setHeartbeatDate(Instant heartbeatDate) {
+        this.heartbeatDate = heartbeatDate;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ImportJob)) {
+            return false;
+        }
+        return id != null && id.equals(((ImportJob) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return (
+            "ImportJob{" +
+            "id=" +
+            id +
+            ", type=" +
+            type +
+            ", status=" +
+            status +
+            ", checkpointRow=" +
+            checkpointRow +
+            ", processedRows=" +
+            processedRows +
+            "}"
+        );
+    }
+}
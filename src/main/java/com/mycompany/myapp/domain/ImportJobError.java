@@ -0,0 +1,92 @@
+package com.mycompany.myapp.domain;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+
+/**
+ * Một dòng bị bỏ qua trong {@link ImportJob} và lý do.
+ */
+@Entity
+@Table(name = "jhi_import_job_error", indexes = @Index(name = "idx_import_job_error_job", columnList = "job_id, excel_row"))
+public class ImportJobError implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+
+    /**
+     * Số dòng trong Excel (bắt đầu từ 1).
+     */
+    @Column(name = "excel_row", nullable = false)
+    private Integer rowNumber;
+
+    @Column(name = "message", length = 1000, nullable = false, columnDefinition = "NVARCHAR(1000)")
+    private String message;
+
+    public ImportJobError() {}
+
+    public ImportJobError(Long jobId, Integer rowNumber, String message) {
+        this.jobId = jobId;
+        this.rowNumber = rowNumber;
+        this.message = message;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(Long jobId) {
+        this.jobId = jobId;
+    }
+
+    public Integer getRowNumber() {
+        return rowNumber;
+    }
+
+    public void setRowNumber(Integer rowNumber) {
+        this.rowNumber = rowNumber;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ImportJobError)) {
+            return false;
+        }
+        return id != null && id.equals(((ImportJobError) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "ImportJobError{" + "jobId=" + jobId + ", rowNumber=" + rowNumber + ", message='" + message + "'" + "}";
+    }
+}
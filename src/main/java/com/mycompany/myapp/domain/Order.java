@@ -1,13 +1,16 @@
 package com.mycompany.myapp.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.mycompany.myapp.domain.enumeration.OrderStatus;
+import com.mycompany.myapp.domain.search.SearchText;
 import com.mycompany.myapp.web.rest.dto.OrderSearchDTO;
 import jakarta.persistence.*;
 import java.io.Serializable;
 import java.time.Instant;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.regex.Pattern;
 
 @Entity
 @Table(name = "jhi_order")
@@ -29,6 +32,8 @@ public class Order implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id")
@@ -65,6 +70,13 @@ public class Order implements Serializable {
     @Column(name = "notes", length = 500, columnDefinition = "NVARCHAR(500)")
     private String notes;
 
+    /**
+     * Tên khách đã chuẩn hóa (chữ thường, bỏ dấu) để tìm theo tiền tố bằng index; tự cập nhật khi lưu.
+     */
+    @JsonIgnore
+    @Column(name = "customer_name_search", length = 255, columnDefinition = "NVARCHAR(255)")
+    private String customerNameSearch;
+
     @ManyToOne(fetch = FetchType.LAZY, optional = true)
     @JoinColumn(name = "user_id")
     @JsonIgnoreProperties(value = { "authorities", "orders" }, allowSetters = true)
@@ -74,6 +86,23 @@ public class Order implements Serializable {
     @JsonIgnoreProperties(value = { "order" }, allowSetters = true)
     private Set<OrderItem> items = new HashSet<>();
 
+    @PrePersist
+    @PreUpdate
+    protected void updateCustomerNameSearch() {
+        this.customerNameSearch = normalizeCustomerName(customerFullName);
+    }
+
+    /**
+     * Chuẩn hóa dùng cho cột {@code customer_name_search} và cho từ khóa tìm kiếm:
+     * "  Nguyễn  Văn Đức" → "nguyen van duc". Bản SQL tương ứng là đoạn backfill {@code customer_name_search} trong demo.sql.
+     */
+    public static String normalizeCustomerName(String name) {
+        if (name == null || name.isBlank()) {
+            return null;
+        }
+        return WHITESPACE.matcher(SearchText.fold(name.trim())).replaceAll(" ");
+    }
+
     // Getters and setters
 
     public Long getId() {
@@ -116,6 +145,10 @@ public class Order implements Serializable {
         this.customerFullName = customerFullName;
     }
 
+    public String getCustomerNameSearch() {
+        return this.customerNameSearch;
+    }
+
     public String getCustomerEmail() {
         return this.customerEmail;
     }
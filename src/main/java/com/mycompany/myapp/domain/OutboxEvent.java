@@ -0,0 +1,183 @@
+package com.mycompany.myapp.domain;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Sự kiện chờ gửi lên RabbitMQ, được ghi trong cùng transaction với thay đổi nghiệp vụ.
+ * {@code OutboxRelay} đọc các dòng chưa gửi và đánh dấu {@code publishedDate} khi broker xác nhận.
+ */
+@Entity
+@Table(
+    name = "jhi_outbox_event",
+    indexes = @Index(name = "idx_outbox_event_pending", columnList = "published_date, next_attempt_date")
+)
+public class OutboxEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    /**
+     * Id duy nhất của sự kiện, gửi kèm làm message id để consumer bỏ qua bản trùng.
+     */
+    @Column(name = "event_id", length = 36, nullable = false, unique = true)
+    private String eventId;
+
+    @Column(name = "exchange", length = 100, nullable = false)
+    private String exchange;
+
+    /**
+     * Routing key, cũng dùng làm loại sự kiện trong metrics.
+     */
+    @Column(name = "event_type", length = 100, nullable = false)
+    private String eventType;
+
+    @Column(name = "payload_type", length = 255, nullable = false)
+    private String payloadType;
+
+    @Lob
+    @Column(name = "payload", nullable = false, columnDefinition = "NVARCHAR(MAX)")
+    private String payload;
+
+    @Column(name = "created_date", nullable = false)
+    private Instant createdDate;
+
+    @Column(name = "published_date")
+    private Instant publishedDate;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_date", nullable = false)
+    private Instant nextAttemptDate;
+
+    @Column(name = "last_error", length = 500, columnDefinition = "NVARCHAR(500)")
+    private String lastError;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getExchange() {
+        return exchange;
+    }
+
+    public void setExchange(String exchange) {
+        this.exchange = exchange;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public String getPayloadType() {
+        return payloadType;
+    }
+
+    public void setPayloadType(String payloadType) {
+        this.payloadType = payloadType;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public Instant getPublishedDate() {
+        return publishedDate;
+    }
+
+    public void setPublishedDate(Instant publishedDate) {
+        this.publishedDate = publishedDate;
+    }
+
+    public Integer getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public Instant getNextAttemptDate() {
+        return nextAttemptDate;
+    }
+
+    public void setNextAttemptDate(Instant nextAttemptDate) {
+        this.nextAttemptDate = nextAttemptDate;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof OutboxEvent)) {
+            return false;
+        }
+        return id != null && id.equals(((OutboxEvent) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return (
+            "OutboxEvent{" +
+            "id=" +
+            id +
+            ", eventId='" +
+            eventId +
+            "'" +
+            ", eventType='" +
+            eventType +
+            "'" +
+            ", attempts=" +
+            attempts +
+            "}"
+        );
+    }
+}
@@ -0,0 +1,112 @@
+package com.mycompany.myapp.domain;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+
+/**
+ * Một phần tồn kho của sản phẩm "hot". Mỗi shard được trừ độc lập nên các đơn hàng
+ * không còn xếp hàng chờ khóa trên cùng một dòng {@code jhi_product}.
+ */
+@Entity
+@Table(
+    name = "jhi_product_stock_shard",
+    uniqueConstraints = @UniqueConstraint(name = "ux_stock_shard_product_shard", columnNames = { "product_id", "shard_no" })
+)
+public class ProductStockShard implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "shard_no", nullable = false)
+    private Integer shardNo;
+
+    @Column(name = "quantity", nullable = false)
+    private Integer quantity;
+
+    /**
+     * Số lượng đã bán qua shard này kể từ lần đối soát trước.
+     */
+    @Column(name = "sales_count", nullable = false)
+    private Integer salesCount = 0;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getShardNo() {
+        return shardNo;
+    }
+
+    public void setShardNo(Integer shardNo) {
+        this.shardNo = shardNo;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public Integer getSalesCount() {
+        return salesCount;
+    }
+
+    public void setSalesCount(Integer salesCount) {
+        this.salesCount = salesCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ProductStockShard)) {
+            return false;
+        }
+        return id != null && id.equals(((ProductStockShard) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return (
+            "ProductStockShard{" +
+            "id=" +
+            id +
+            ", productId=" +
+            productId +
+            ", shardNo=" +
+            shardNo +
+            ", quantity=" +
+            quantity +
+            ", salesCount=" +
+            salesCount +
+            "}"
+        );
+    }
+}
@@ -0,0 +1,8 @@
+package com.mycompany.myapp.domain.enumeration;
+
+public enum ImportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+}
@@ -0,0 +1,6 @@
+package com.mycompany.myapp.domain.enumeration;
+
+public enum ImportJobType {
+    PRODUCTS,
+    USERS,
+}
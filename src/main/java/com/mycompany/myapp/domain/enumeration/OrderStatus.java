@@ -7,4 +7,6 @@ public enum OrderStatus {
     DELIVERED,
     COMPLETED,
     CANCELLED,
+    QUEUED, // Checkout bất đồng bộ: đã tiếp nhận, chưa giữ hàng
+    REJECTED, // Checkout bất đồng bộ: không đủ hàng khi xử lý
 }
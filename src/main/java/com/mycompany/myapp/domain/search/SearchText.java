@@ -0,0 +1,87 @@
+package com.mycompany.myapp.domain.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Chuẩn hóa văn bản cho tìm kiếm: chữ thường, bỏ dấu tiếng Việt ("Điện thoại" và "dien thoai" cho cùng token).
+ * <p>
+ * Nằm ở tầng domain để entity (cột tìm kiếm như {@code Order.customerNameSearch}) và index tìm kiếm của service
+ * dùng chung một cách chuẩn hóa.
+ */
+public final class SearchText {
+
+    /**
+     * Kết quả của {@link #foldChar(char)} khi ký tự không chuẩn hóa được thành đúng một ký tự mà không cần ngữ cảnh;
+     * caller phải dùng {@link #fold(String)} cho cả chuỗi.
+     */
+    public static final char UNFOLDABLE = '\uFFFF';
+
+    /**
+     * Kết quả của {@link #foldChar(char)} cho dấu ghép rời (văn bản dạng NFD): ký tự bị bỏ đi.
+     */
+    public static final char DROPPED = '\uFFFE';
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    /**
+     * Bảng chuẩn hóa từng ký tự cho U+0000..U+1EFF (gồm toàn bộ chữ Latin có dấu của tiếng Việt).
+     */
+    private static final char[] FOLD_TABLE = buildFoldTable();
+
+    private SearchText() {}
+
+    private static char[] buildFoldTable() {
+        char[] table = new char[0x1F00];
+        for (char c = 0; c < table.length; c++) {
+            String folded = fold(String.valueOf(c));
+            table[c] = folded.isEmpty() ? DROPPED : folded.length() == 1 ? folded.charAt(0) : UNFOLDABLE;
+        }
+        // Σ viết thường thành σ hoặc ς tùy vị trí trong từ
+        table['\u03A3'] = UNFOLDABLE;
+        return table;
+    }
+
+    /**
+     * Chuẩn hóa một ký tự như {@link #fold(String)} mà không cấp phát gì, dùng cho tra cứu theo từng ký tự.
+     *
+     * @return ký tự đã chuẩn hóa, {@link #DROPPED} hoặc {@link #UNFOLDABLE}.
+     */
+    public static char foldChar(char c) {
+        if (c < 0x80) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return c < FOLD_TABLE.length ? FOLD_TABLE[c] : UNFOLDABLE;
+    }
+
+    public static String fold(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        // đ không phải chữ có dấu ghép nên NFD không tách được
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").replace('đ', 'd');
+    }
+
+    /**
+     * Tách văn bản đã chuẩn hóa thành các token chữ/số.
+     */
+    public static List<String> tokenize(String text) {
+        String folded = fold(text);
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
@@ -7,5 +7,5 @@ import org.springframework.stereotype.Repository;
 
 @Repository
 public interface CartRepository extends JpaRepository<Cart, Long> {
-    Optional<Cart> findOneByUser_Email(String email);
+    Optional<Cart> findOneByUser_Id(Long userId);
 }
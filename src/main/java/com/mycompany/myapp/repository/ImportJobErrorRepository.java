@@ -0,0 +1,14 @@
+package com.mycompany.myapp.repository;
+
+import com.mycompany.myapp.domain.ImportJobError;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the ImportJobError entity.
+ */
+@Repository
+public interface ImportJobErrorRepository extends JpaRepository<ImportJobError, Long> {
+    List<ImportJobError> findAllByJobIdOrderByRowNumber(Long jobId);
+}
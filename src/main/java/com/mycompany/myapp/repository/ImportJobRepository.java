@@ -0,0 +1,35 @@
+package com.mycompany.myapp.repository;
+
+import com.mycompany.myapp.domain.ImportJob;
+import com.mycompany.myapp.domain.enumeration.ImportJobStatus;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the ImportJob entity.
+ */
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
+    /**
+     * Các job chưa xong mà lâu không có heartbeat: node đang chạy đã dừng hoặc job chưa được nhận.
+     */
+    List<ImportJob> findAllByStatusInAndHeartbeatDateBefore(Collection<ImportJobStatus> statuses, Instant before);
+
+    /**
+     * Ghi heartbeat nếu node vẫn giữ job; bulk update không tăng {@code version} nên không tranh với checkpoint của chính node đó.
+     *
+     * @return 0 nếu job đã bị node khác nhận hoặc đã kết thúc.
+     */
+    @Modifying
+    @Query(
+        "update ImportJob j set j.heartbeatDate = :now " +
+        "where j.id = :id and j.version = :version and j.status = com.mycompany.myapp.domain.enumeration.ImportJobStatus.RUNNING"
+    )
+    int touchHeartbeat(@Param("id") Long id, @Param("version") Integer version, @Param("now") Instant now);
+}
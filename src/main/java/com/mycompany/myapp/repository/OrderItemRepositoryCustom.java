@@ -0,0 +1,13 @@
+package com.mycompany.myapp.repository;
+
+import com.mycompany.myapp.domain.Order;
+import com.mycompany.myapp.domain.OrderItem;
+import java.util.Collection;
+
+public interface OrderItemRepositoryCustom {
+    /**
+     * Ghi toàn bộ dòng của đơn hàng trong một JDBC batch rồi nạp lại {@code order.items}.
+     * Order phải đã được persist (đã có id).
+     */
+    void insertAll(Order order, Collection<OrderItem> items);
+}
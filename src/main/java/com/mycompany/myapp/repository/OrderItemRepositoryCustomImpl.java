@@ -0,0 +1,50 @@
+package com.mycompany.myapp.repository;
+
+import com.mycompany.myapp.domain.Order;
+import com.mycompany.myapp.domain.OrderItem;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.Collection;
+import org.hibernate.Session;
+import org.springframework.stereotype.Repository;
+
+/**
+ * OrderItem dùng id IDENTITY nên Hibernate không gom insert thành batch được,
+ * ở đây ghi thẳng bằng JDBC batch trên cùng connection/transaction của EntityManager.
+ */
+@Repository
+public class OrderItemRepositoryCustomImpl implements OrderItemRepositoryCustom {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO jhi_order_item (order_id, product_id, product_name, quantity, price) VALUES (?, ?, ?, ?, ?)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void insertAll(Order order, Collection<OrderItem> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        entityManager
+            .unwrap(Session.class)
+            .doWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+                    for (OrderItem item : items) {
+                        statement.setLong(1, order.getId());
+                        statement.setObject(2, item.getProductId(), Types.BIGINT);
+                        statement.setString(3, item.getProductName());
+                        statement.setObject(4, item.getQuantity(), Types.INTEGER);
+                        statement.setObject(5, item.getPrice(), Types.DOUBLE);
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                }
+            });
+        // Nạp lại items từ database để entity trả về có id của từng dòng
+        entityManager.refresh(order);
+    }
+}
@@ -1,10 +1,13 @@
 package com.mycompany.myapp.repository;
 
 import com.mycompany.myapp.domain.Order;
+import com.mycompany.myapp.domain.enumeration.OrderStatus;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -12,11 +15,32 @@ import org.springframework.stereotype.Repository;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order>, OrderRepositoryCustom {
     List<Order> findByCustomer_EmailOrderByOrderDateDesc(String email);
 
-    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.customer LEFT JOIN FETCH o.items")
-    Page<Order> findAllOrders(Pageable pageable);
+    /**
+     * Bước 1 của danh sách đơn hàng: chỉ phân trang id trên bảng jhi_order (OFFSET/FETCH chạy ở database).
+     * Không fetch join collection ở đây, nếu không Hibernate phải nạp toàn bộ bảng và phân trang trong bộ nhớ (HHH000104).
+     */
+    @Query(value = "SELECT o.id FROM Order o", countQuery = "SELECT COUNT(o) FROM Order o")
+    Page<Long> findAllIds(Pageable pageable);
 
     Page<Order> findByOrderCodeContainingIgnoreCase(String orderCode, Pageable pageable);
+
+    /**
+     * Bước 2: nạp customer và items cho một trang id bằng một query. Không phân trang nên fetch collection an toàn;
+     * các đơn đã có trong persistence context cũng được khởi tạo luôn.
+     */
+    @EntityGraph(attributePaths = { "customer", "items" })
+    List<Order> findAllWithCustomerAndItemsByIdIn(Collection<Long> ids);
+
+    /**
+     * Chuyển trạng thái chỉ khi đơn còn ở {@code from}; dòng bị khóa đến hết transaction nên hai consumer nhận trùng
+     * một message không thể cùng xử lý một đơn.
+     *
+     * @return 1 nếu chuyển được, 0 nếu đơn không còn ở {@code from}.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Order o set o.status = :to where o.id = :id and o.status = :from")
+    int transitionStatus(@Param("id") Long id, @Param("from") OrderStatus from, @Param("to") OrderStatus to);
 }
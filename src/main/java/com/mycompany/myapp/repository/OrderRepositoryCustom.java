@@ -1,8 +1,16 @@
 package com.mycompany.myapp.repository;
 
 import com.mycompany.myapp.web.rest.dto.OrderSearchDTO;
+import java.time.Instant;
 import java.util.List;
 
 public interface OrderRepositoryCustom {
-    List<OrderSearchDTO> searchOrders(String searchTerm);
+    /**
+     * Tìm đơn có mã đơn, tên khách (không phân biệt dấu) hoặc email bắt đầu bằng {@code searchTerm}, mới nhất trước.
+     *
+     * @param afterDate ngày đặt của dòng cuối trang trước, {@code null} cho trang đầu.
+     * @param afterId id của dòng cuối trang trước.
+     * @param limit số dòng tối đa.
+     */
+    List<OrderSearchDTO> searchOrders(String searchTerm, Instant afterDate, Long afterId, int limit);
 }
@@ -1,12 +1,15 @@
 package com.mycompany.myapp.repository;
 
+import com.mycompany.myapp.domain.Order;
 import com.mycompany.myapp.web.rest.dto.OrderSearchDTO;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
 import jakarta.persistence.Tuple;
-import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.type.StandardBasicTypes;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -26,15 +29,24 @@ public class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
      * CÁCH 1: Dùng Tuple Query (hiện đang dùng)
      * Ưu: Đơn giản, linh hoạt, dễ debug
      * Nhược: Phải map thủ công
+     * <p>
+     * Mỗi điều kiện là một tìm kiếm theo tiền tố trên cột có index (order_code, customer_name_search, email), gộp
+     * bằng UNION thay vì OR để SQL Server seek từng index thay vì quét cả bảng. Kết quả giới hạn {@code limit} dòng,
+     * sắp xếp (order_date, id) giảm dần; {@code afterDate}/{@code afterId} là cursor của trang trước.
      */
     @Override
     @SuppressWarnings("unchecked")
-    public List<OrderSearchDTO> searchOrders(String searchTerm) {
+    public List<OrderSearchDTO> searchOrders(String searchTerm, Instant afterDate, Long afterId, int limit) {
+        String term = searchTerm.trim();
+        String normalizedName = Order.normalizeCustomerName(term);
+        boolean after = afterDate != null && afterId != null;
         String nativeQuery =
             """
-            SELECT
+            SELECT TOP (:limit)
                 o.id,
-                u.login AS customerLogin,
+                o.order_code AS orderCode,
+                u.email AS customerLogin,
+                o.customer_full_name AS customerFullName,
                 o.order_date AS orderDate,
                 o.total_amount AS totalAmount,
                 o.status AS status
@@ -43,39 +55,72 @@ public class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
             LEFT JOIN
                 jhi_user u ON o.user_id = u.id
             WHERE
-                LOWER(o.order_code) LIKE LOWER(:searchTermWithWildcard) OR
-                LOWER(o.customer_full_name) LIKE LOWER(:searchTermWithWildcard) OR
-                LOWER(u.login) LIKE LOWER(:searchTermWithWildcard)
+                o.id IN (
+                    SELECT id FROM jhi_order WHERE order_code LIKE :prefix ESCAPE '!'
+                    UNION
+                    SELECT id FROM jhi_order WHERE customer_name_search LIKE :namePrefix ESCAPE '!'
+                    UNION
+                    SELECT o2.id FROM jhi_user u2 JOIN jhi_order o2 ON o2.user_id = u2.id WHERE u2.email LIKE :prefix ESCAPE '!'
+                )
+            """ +
+            (after ? "    AND (o.order_date < :afterDate OR (o.order_date = :afterDate AND o.id < :afterId))\n" : "") +
+            """
             ORDER BY
-                o.order_date DESC
+                o.order_date DESC, o.id DESC
             """;
 
-        // Dùng Tuple query (chuẩn JPA) thay vì ResultSetMapping
+        // Dùng Tuple query (chuẩn JPA) thay vì ResultSetMapping; khai báo kiểu từng cột để datetimeoffset đọc ra Instant
         //noinspection JpaQueryApiInspection
-        List<Tuple> tuples = entityManager
+        Query query = entityManager
             .createNativeQuery(nativeQuery, Tuple.class)
-            .setParameter("searchTermWithWildcard", "%" + searchTerm + "%")
-            .getResultList();
+            .setParameter("limit", limit)
+            .setParameter("prefix", likePrefix(term))
+            .setParameter("namePrefix", normalizedName == null ? "" : likePrefix(normalizedName));
+        if (after) {
+            query.setParameter("afterDate", afterDate).setParameter("afterId", afterId);
+        }
+        query
+            .unwrap(NativeQuery.class)
+            .addScalar("id", StandardBasicTypes.LONG)
+            .addScalar("orderCode", StandardBasicTypes.STRING)
+            .addScalar("customerLogin", StandardBasicTypes.STRING)
+            .addScalar("customerFullName", StandardBasicTypes.STRING)
+            .addScalar("orderDate", StandardBasicTypes.INSTANT)
+            .addScalar("totalAmount", StandardBasicTypes.DOUBLE)
+            .addScalar("status", StandardBasicTypes.STRING);
+        List<Tuple> tuples = query.getResultList();
 
         // Map Tuple sang DTO
         return tuples
             .stream()
-            .map(tuple -> {
-                // Convert BigDecimal sang Double
-                BigDecimal totalAmount = tuple.get("totalAmount", BigDecimal.class);
-                Double totalAmountDouble = (totalAmount != null) ? totalAmount.doubleValue() : null;
-
-                return new OrderSearchDTO(
+            .map(tuple ->
+                new OrderSearchDTO(
                     tuple.get("id", Long.class),
+                    tuple.get("orderCode", String.class),
                     tuple.get("customerLogin", String.class),
+                    tuple.get("customerFullName", String.class),
                     tuple.get("orderDate", Instant.class),
-                    totalAmountDouble,
+                    tuple.get("totalAmount", Double.class),
                     tuple.get("status", String.class)
-                );
-            })
+                )
+            )
             .toList();
     }
 
+    /**
+     * {@code LIKE 'x%'} với ký tự đặc biệt của SQL Server được escape bằng {@code !}.
+     */
+    private static String likePrefix(String value) {
+        StringBuilder pattern = new StringBuilder(value.length() + 1);
+        for (char c : value.toCharArray()) {
+            if (c == '!' || c == '%' || c == '_' || c == '[') {
+                pattern.append('!');
+            }
+            pattern.append(c);
+        }
+        return pattern.append('%').toString();
+    }
+
     /**
      * CÁCH 2: Dùng @SqlResultSetMapping (định nghĩa trong Order.java)
      * Ưu: Chuẩn JPA, tái sử dụng, clean code
@@ -0,0 +1,34 @@
+package com.mycompany.myapp.repository;
+
+import com.mycompany.myapp.domain.OutboxEvent;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the OutboxEvent entity.
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    /**
+     * Lấy và khóa một lô sự kiện đến hạn gửi. READPAST bỏ qua các dòng node khác đang giữ,
+     * nên nhiều instance có thể chạy relay cùng lúc mà không gửi trùng một lô.
+     */
+    @Query(
+        value = "SELECT TOP (:limit) * FROM jhi_outbox_event WITH (UPDLOCK, READPAST, ROWLOCK) " +
+        "WHERE published_date IS NULL AND next_attempt_date <= :now ORDER BY id",
+        nativeQuery = true
+    )
+    List<OutboxEvent> lockNextBatch(@Param("now") Instant now, @Param("limit") int limit);
+
+    @Query("select e.eventType, count(e), min(e.createdDate) from OutboxEvent e where e.publishedDate is null group by e.eventType")
+    List<Object[]> summarizePending();
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.publishedDate < :before")
+    int deletePublishedBefore(@Param("before") Instant before);
+}
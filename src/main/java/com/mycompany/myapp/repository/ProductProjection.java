@@ -0,0 +1,15 @@
+package com.mycompany.myapp.repository;
+
+/**
+ * Một dòng sản phẩm chỉ gồm các cột cần cho export và index tìm kiếm, đọc thẳng bằng constructor expression (không tạo entity).
+ */
+public record ProductProjection(
+    Long id,
+    String name,
+    String description,
+    Double price,
+    Integer quantity,
+    String imageUrl,
+    Integer salesCount,
+    String categorySlug
+) {}
@@ -1,17 +1,43 @@
 package com.mycompany.myapp.repository;
 
 import com.mycompany.myapp.domain.Product;
+import jakarta.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>, ProductRepositoryCustom {
+    String PRODUCTS_BY_ID_CACHE = "com.mycompany.myapp.domain.Product";
+
+    String PRODUCT_PAGES_CACHE = "productPages";
+
+    @EntityGraph(attributePaths = "category")
+    Optional<Product> findOneWithCategoryById(Long id);
+
+    @EntityGraph(attributePaths = "category")
+    List<Product> findAllWithCategoryByIdIn(Collection<Long> ids);
+
+    /**
+     * Khóa dòng sản phẩm trước khi sửa {@code quantity}/{@code salesCount} theo kiểu đọc-rồi-ghi.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Product p where p.id = :id")
+    Optional<Product> findOneForUpdateById(@Param("id") Long id);
+
     Optional<Product> findFirstByName(String name);
 
+    List<Product> findAllByNameIn(Collection<String> names);
+
     // Các phương thức cũ vẫn có thể giữ lại nếu cần
     Page<Product> findByCategory_SlugAndNameContainingIgnoreCase(Pageable pageable, String categorySlug, String name);
     Page<Product> findByCategory_Slug(Pageable pageable, String categorySlug);
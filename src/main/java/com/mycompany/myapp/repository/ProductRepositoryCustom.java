@@ -1,9 +1,28 @@
 package com.mycompany.myapp.repository;
 
+import com.mycompany.myapp.domain.Product;
 import com.mycompany.myapp.web.rest.dto.TopSellingProductDTO;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.springframework.data.jpa.domain.Specification;
 
 public interface ProductRepositoryCustom {
     List<TopSellingProductDTO> getTopSellingProducts(int topN);
     int updateProductQuantity(Long productId, int quantity);
+
+    /**
+     * Trừ tồn kho và cộng salesCount cho nhiều sản phẩm trong một JDBC batch.
+     * Mỗi dòng chỉ được trừ khi còn đủ hàng ({@code WHERE quantity >= ?}), kiểm tra và ghi là một lệnh nguyên tử.
+     *
+     * @param quantities số lượng bán theo id sản phẩm.
+     * @return id các sản phẩm không trừ được vì không còn đủ hàng.
+     */
+    List<Long> reserveStock(Map<Long, Integer> quantities);
+
+    /**
+     * Đọc các sản phẩm thỏa {@code specification} theo thứ tự id dưới dạng projection, không tạo entity.
+     * Phải gọi trong transaction và đóng stream sau khi dùng.
+     */
+    Stream<ProductProjection> streamProjections(Specification<Product> specification);
 }
@@ -1,17 +1,36 @@
 package com.mycompany.myapp.repository;
 
+import com.mycompany.myapp.domain.Category;
+import com.mycompany.myapp.domain.Product;
 import com.mycompany.myapp.web.rest.dto.TopSellingProductDTO;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.ParameterMode;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.StoredProcedureQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.sql.PreparedStatement;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
 
+    private static final String RESERVE_STOCK_SQL =
+        "UPDATE jhi_product SET quantity = quantity - ?, sales_count = sales_count + ? WHERE id = ? AND quantity >= ?";
+
+    private static final int STREAM_FETCH_SIZE = 1000;
+
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -52,4 +71,65 @@ public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
 
         return (Integer) query.getOutputParameterValue("Result");
     }
+
+    @Override
+    public List<Long> reserveStock(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return List.of();
+        }
+        List<Map.Entry<Long, Integer>> entries = new ArrayList<>(quantities.entrySet());
+        return entityManager
+            .unwrap(Session.class)
+            .doReturningWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(RESERVE_STOCK_SQL)) {
+                    for (Map.Entry<Long, Integer> entry : entries) {
+                        statement.setInt(1, entry.getValue());
+                        statement.setInt(2, entry.getValue());
+                        statement.setLong(3, entry.getKey());
+                        statement.setInt(4, entry.getValue());
+                        statement.addBatch();
+                    }
+                    int[] updateCounts = statement.executeBatch();
+                    List<Long> rejected = new ArrayList<>();
+                    for (int i = 0; i < updateCounts.length; i++) {
+                        if (updateCounts[i] == 0) {
+                            rejected.add(entries.get(i).getKey());
+                        }
+                    }
+                    return rejected;
+                }
+            });
+    }
+
+    @Override
+    public Stream<ProductProjection> streamProjections(Specification<Product> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductProjection> query = cb.createQuery(ProductProjection.class);
+        Root<Product> root = query.from(Product.class);
+        Join<Product, Category> category = root.join("category", JoinType.LEFT);
+        query.select(
+            cb.construct(
+                ProductProjection.class,
+                root.get("id"),
+                root.get("name"),
+                root.get("description"),
+                root.get("price"),
+                root.get("quantity"),
+                root.get("imageUrl"),
+                root.get("salesCount"),
+                category.get("slug")
+            )
+        );
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.asc(root.get("id")));
+
+        return entityManager
+            .createQuery(query)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .getResultStream();
+    }
 }
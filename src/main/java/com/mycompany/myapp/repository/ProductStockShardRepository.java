@@ -0,0 +1,45 @@
+package com.mycompany.myapp.repository;
+
+import com.mycompany.myapp.domain.ProductStockShard;
+import jakarta.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the ProductStockShard entity.
+ */
+@Repository
+public interface ProductStockShardRepository extends JpaRepository<ProductStockShard, Long> {
+    /**
+     * @return các cặp [productId, số shard] cho những sản phẩm trong danh sách đang chia shard.
+     */
+    @Query("select s.productId, count(s) from ProductStockShard s where s.productId in :productIds group by s.productId")
+    List<Object[]> countShardsByProductIds(@Param("productIds") Collection<Long> productIds);
+
+    @Query("select distinct s.productId from ProductStockShard s")
+    List<Long> findAllShardedProductIds();
+
+    /**
+     * Khóa toàn bộ shard của sản phẩm, dùng khi đối soát hoặc chia lại.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<ProductStockShard> findAllByProductIdOrderByShardNo(Long productId);
+
+    /**
+     * Trừ trên một shard, chỉ khi shard đó còn đủ hàng.
+     *
+     * @return 1 nếu trừ được, 0 nếu shard không đủ hàng.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(
+        "update ProductStockShard s set s.quantity = s.quantity - :quantity, s.salesCount = s.salesCount + :quantity " +
+        "where s.productId = :productId and s.shardNo = :shardNo and s.quantity >= :quantity"
+    )
+    int reserve(@Param("productId") Long productId, @Param("shardNo") int shardNo, @Param("quantity") int quantity);
+}
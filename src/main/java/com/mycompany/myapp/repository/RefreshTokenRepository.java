@@ -4,6 +4,9 @@ import com.mycompany.myapp.domain.RefreshToken;
 import com.mycompany.myapp.domain.User;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -11,4 +14,8 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long
     Optional<RefreshToken> findByToken(String token);
     Optional<RefreshToken> findByUser(User user);
     void deleteByUser(User user);
+
+    @Modifying
+    @Query("delete from RefreshToken r where r.user.id = :userId")
+    int deleteAllByUserId(@Param("userId") Long userId);
 }
@@ -0,0 +1,9 @@
+package com.mycompany.myapp.repository;
+
+import java.io.Serializable;
+
+/**
+ * Thông tin tối thiểu của người dùng đang đăng nhập, đọc bằng constructor expression và giữ trong cache
+ * {@link UserRepository#USERS_BY_EMAIL_CACHE} (không có mật khẩu hay dữ liệu cá nhân khác).
+ */
+public record UserProjection(Long id, String email, String authority, boolean activated) implements Serializable {}
@@ -2,8 +2,10 @@ package com.mycompany.myapp.repository;
 
 import com.mycompany.myapp.domain.User;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
@@ -29,6 +31,28 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findOneByPhone(String phone);
 
+    /**
+     * @param emails email đã chuyển về chữ thường.
+     */
+    @Query("SELECT u FROM User u WHERE LOWER(u.email) IN :emails")
+    List<User> findAllByLowerCaseEmailIn(@Param("emails") Collection<String> emails);
+
+    List<User> findAllByPhoneIn(Collection<String> phones);
+
+    /**
+     * {@code sync = true} để lần miss được nạp bằng {@code putIfAbsent}, không phát invalidation tới các node khác.
+     * Chế độ này không cho dùng {@code unless} nên kết quả rỗng cũng được cache: mọi chỗ tạo, sửa hay xóa user
+     * ({@code UserService}, import user) đều xóa entry của email tương ứng, user vừa đăng ký vẫn được tìm thấy ngay.
+     *
+     * @param email email đã chuyển về chữ thường (cũng là key của cache).
+     */
+    @Cacheable(cacheNames = USERS_BY_EMAIL_CACHE, sync = true)
+    @Query(
+        "SELECT new com.mycompany.myapp.repository.UserProjection(u.id, u.email, a.name, u.activated) " +
+        "FROM User u LEFT JOIN u.authority a WHERE LOWER(u.email) = :email"
+    )
+    Optional<UserProjection> findProjectionByEmail(@Param("email") String email);
+
     @EntityGraph(attributePaths = "authority")
     Optional<User> findOneWithAuthoritiesByEmailIgnoreCase(String email);
 
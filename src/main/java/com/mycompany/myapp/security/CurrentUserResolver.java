@@ -0,0 +1,60 @@
+package com.mycompany.myapp.security;
+
+import com.mycompany.myapp.repository.UserProjection;
+import com.mycompany.myapp.repository.UserRepository;
+import java.util.Locale;
+import java.util.Optional;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tìm người dùng đang đăng nhập qua cache {@link UserRepository#USERS_BY_EMAIL_CACHE}, để request thông thường
+ * không phải đọc lại bảng user. Cần gắn user vào entity khác thì dùng {@link UserRepository#getReferenceById(Object)}
+ * với {@link #getCurrentUserId()} (proxy, không truy vấn).
+ * <p>
+ * Cache là hai tầng (Caffeine + Redis, xem {@code CacheConfiguration}); {@link #evict(String...)} chạy sau commit và
+ * được báo sang các node khác.
+ */
+@Component
+public class CurrentUserResolver {
+
+    private final UserRepository userRepository;
+    private final CacheManager cacheManager;
+
+    public CurrentUserResolver(UserRepository userRepository, CacheManager cacheManager) {
+        this.userRepository = userRepository;
+        this.cacheManager = cacheManager;
+    }
+
+    public Optional<UserProjection> getCurrentUser() {
+        return SecurityUtils.getCurrentUserLogin().flatMap(this::findByLogin);
+    }
+
+    public Optional<Long> getCurrentUserId() {
+        return getCurrentUser().map(UserProjection::id);
+    }
+
+    public Optional<UserProjection> findByLogin(String login) {
+        return userRepository.findProjectionByEmail(normalize(login));
+    }
+
+    /**
+     * Xóa thông tin đã cache của các email (email cũ và mới khi đổi email); bỏ qua giá trị {@code null}.
+     */
+    public void evict(String... emails) {
+        Cache cache = cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE);
+        if (cache == null) {
+            return;
+        }
+        for (String email : emails) {
+            if (email != null) {
+                cache.evict(normalize(email));
+            }
+        }
+    }
+
+    private static String normalize(String login) {
+        return login.toLowerCase(Locale.ENGLISH);
+    }
+}
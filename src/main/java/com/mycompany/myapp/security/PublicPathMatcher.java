@@ -0,0 +1,97 @@
+package com.mycompany.myapp.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Danh sách endpoint công khai (không cần JWT) dùng chung cho {@code SecurityConfiguration},
+ * {@code JwtBlacklistFilter} và {@code RequestLoggingInterceptor}.
+ * <p>
+ * Chỉ hỗ trợ đường dẫn chính xác và tiền tố {@code /**}, nên việc so khớp là một vòng lặp so sánh ký tự trên
+ * request URI (bỏ qua context path bằng offset), không cấp phát chuỗi hay danh sách nào cho mỗi request.
+ */
+@Component
+public class PublicPathMatcher implements RequestMatcher {
+
+    public static final String[] PATTERNS = {
+        "/api/authenticate",
+        "/api/register",
+        "/api/activate",
+        "/api/public/**",
+        "/api/account/reset-password/init",
+        "/api/account/reset-password/finish",
+    };
+
+    private static final String ANY_SUFFIX = "/**";
+
+    private final String[] exactPaths;
+    private final String[] prefixes;
+
+    public PublicPathMatcher() {
+        this(PATTERNS);
+    }
+
+    PublicPathMatcher(String... patterns) {
+        int prefixCount = 0;
+        for (String pattern : patterns) {
+            if (pattern.endsWith(ANY_SUFFIX)) {
+                prefixCount++;
+            }
+        }
+        this.exactPaths = new String[patterns.length - prefixCount];
+        this.prefixes = new String[prefixCount];
+        int e = 0;
+        int p = 0;
+        for (String pattern : patterns) {
+            boolean prefix = pattern.endsWith(ANY_SUFFIX);
+            String path = prefix ? pattern.substring(0, pattern.length() - ANY_SUFFIX.length()) : pattern;
+            if (!path.startsWith("/") || path.indexOf('*') >= 0 || path.indexOf('?') >= 0 || path.indexOf('{') >= 0) {
+                throw new IllegalArgumentException("Unsupported public path pattern: " + pattern);
+            }
+            if (prefix) {
+                prefixes[p++] = path;
+            } else {
+                exactPaths[e++] = path;
+            }
+        }
+    }
+
+    @Override
+    public boolean matches(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        if (uri == null) {
+            return false;
+        }
+        String contextPath = request.getContextPath();
+        int offset = contextPath == null ? 0 : contextPath.length();
+        return offset <= uri.length() && matches(uri, offset);
+    }
+
+    /**
+     * @param path đường dẫn không gồm context path
+     */
+    public boolean matches(String path) {
+        return path != null && matches(path, 0);
+    }
+
+    private boolean matches(String uri, int offset) {
+        int length = uri.length() - offset;
+        for (String exact : exactPaths) {
+            if (exact.length() == length && uri.startsWith(exact, offset)) {
+                return true;
+            }
+        }
+        for (String prefix : prefixes) {
+            // "/api/public" và "/api/public/..." khớp, "/api/publication" thì không
+            if (
+                length >= prefix.length() &&
+                uri.startsWith(prefix, offset) &&
+                (length == prefix.length() || uri.charAt(offset + prefix.length()) == '/')
+            ) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
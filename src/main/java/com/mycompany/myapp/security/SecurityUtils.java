@@ -1,6 +1,8 @@
 package com.mycompany.myapp.security;
 
+import java.security.SecureRandom;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.Optional;
 import java.util.stream.Stream;
 import org.springframework.security.core.Authentication;
@@ -23,8 +25,21 @@ public final class SecurityUtils {
 
     public static final String USER_ID_CLAIM = "userId";
 
+    private static final SecureRandom TOKEN_ID_RANDOM = new SecureRandom();
+
     private SecurityUtils() {}
 
+    /**
+     * Generate a value for the {@code jti} claim: 128 random bits, base64url encoded (22 characters).
+     *
+     * @return a new token id.
+     */
+    public static String generateTokenId() {
+        byte[] bytes = new byte[16];
+        TOKEN_ID_RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
     /**
      * Get the login of the current user.
      *
@@ -0,0 +1,104 @@
+package com.mycompany.myapp.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * Bọc một {@link JwtDecoder} và giữ lại {@link Jwt} đã giải mã thành công đến đúng thời điểm {@code exp} của token,
+ * để SPA gửi lại cùng một token không phải kiểm tra HMAC và parse JSON lại ở mỗi request.
+ * <p>
+ * Key là SHA-256 của token; khi trúng cache vẫn so sánh lại chuỗi token nên hai token khác nhau không bao giờ dùng
+ * chung kết quả. Token lỗi không được cache (mỗi lần gửi lại vẫn qua decoder gốc và được đếm trong metrics).
+ * Cache chỉ thay cho bước kiểm tra chữ ký: {@link JwtBlacklistFilter} vẫn kiểm tra blacklist ở mọi request.
+ * <p>
+ * Metrics: {@code cache.gets{cache=jwt-decoder,result=hit|miss}}, {@code cache.evictions}, {@code cache.size}.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    public static final String CACHE_NAME = "jwt-decoder";
+
+    private final JwtDecoder delegate;
+    private final Clock clock;
+    private final Cache<String, Jwt> cache;
+
+    public CachingJwtDecoder(JwtDecoder delegate, long maximumSize, MeterRegistry meterRegistry) {
+        this(delegate, maximumSize, meterRegistry, Clock.systemUTC());
+    }
+
+    CachingJwtDecoder(JwtDecoder delegate, long maximumSize, MeterRegistry meterRegistry, Clock clock) {
+        this.delegate = delegate;
+        this.clock = clock;
+        this.cache = Caffeine.newBuilder().maximumSize(maximumSize).expireAfter(new UntilExpiresAt()).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        if (token == null) {
+            return delegate.decode(null);
+        }
+        String key = digest(token);
+        Jwt cached = cache.getIfPresent(key);
+        if (cached != null && cached.getTokenValue().equals(token) && isNotExpired(cached)) {
+            return cached;
+        }
+        Jwt jwt = delegate.decode(token);
+        if (isNotExpired(jwt)) {
+            cache.put(key, jwt);
+        }
+        return jwt;
+    }
+
+    /**
+     * Token không có {@code exp} thì không cache.
+     */
+    private boolean isNotExpired(Jwt jwt) {
+        Instant expiresAt = jwt.getExpiresAt();
+        return expiresAt != null && expiresAt.isAfter(clock.instant());
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private final class UntilExpiresAt implements Expiry<String, Jwt> {
+
+        @Override
+        public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+            Duration remaining = Duration.between(clock.instant(), jwt.getExpiresAt());
+            if (remaining.isNegative()) {
+                return 0;
+            }
+            // Caffeine tính theo nano giây trong một long (khoảng 292 năm)
+            return remaining.getSeconds() >= Long.MAX_VALUE / 1_000_000_000L ? Long.MAX_VALUE : remaining.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
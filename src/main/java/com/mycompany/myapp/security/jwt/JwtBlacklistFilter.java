@@ -1,18 +1,18 @@
 package com.mycompany.myapp.security.jwt;
 
+import com.mycompany.myapp.security.PublicPathMatcher;
 import com.mycompany.myapp.service.TokenBlacklistService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Component;
-import org.springframework.util.AntPathMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 /**
@@ -24,24 +24,20 @@ public class JwtBlacklistFilter extends OncePerRequestFilter {
 
     private static final Logger log = LoggerFactory.getLogger(JwtBlacklistFilter.class);
     private final TokenBlacklistService tokenBlacklistService;
-    private final AntPathMatcher pathMatcher = new AntPathMatcher();
-    private final List<String> publicEndpoints = List.of(
-        "/api/authenticate",
-        "/api/register",
-        "/api/activate",
-        "/api/public/**",
-        "/api/account/reset-password/init",
-        "/api/account/reset-password/finish"
-    );
+    private final PublicPathMatcher publicPathMatcher;
 
-    public JwtBlacklistFilter(TokenBlacklistService tokenBlacklistService) {
+    public JwtBlacklistFilter(TokenBlacklistService tokenBlacklistService, PublicPathMatcher publicPathMatcher) {
         this.tokenBlacklistService = tokenBlacklistService;
+        this.publicPathMatcher = publicPathMatcher;
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
         throws ServletException, IOException {
-        String token = extractToken(request);
+        // BearerTokenAuthenticationFilter đã giải mã và kiểm tra chữ ký, dùng lại Jwt trong SecurityContext
+        Jwt token = SecurityContextHolder.getContext().getAuthentication() instanceof JwtAuthenticationToken authentication
+            ? authentication.getToken()
+            : null;
 
         if (token != null) {
             try {
@@ -62,41 +58,8 @@ public class JwtBlacklistFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
-    private String extractToken(HttpServletRequest request) {
-        String bearerToken = request.getHeader("Authorization");
-        if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
-            return bearerToken.substring(7);
-        }
-        return null;
-    }
-
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
-        // Use servlet path (which excludes context path) for matching so filter is robust when app has context path
-        final String servletPath = request.getServletPath() == null ? request.getRequestURI() : request.getServletPath();
-        final String requestUri = request.getRequestURI();
-        final String pathInfo = request.getPathInfo();
-
-        // Build a small set of path candidates to match against public endpoints to be defensive
-        List<String> candidates = new ArrayList<>();
-        if (servletPath != null) candidates.add(servletPath);
-        if (requestUri != null) candidates.add(requestUri);
-        if (pathInfo != null) candidates.add(pathInfo);
-
-        for (String p : publicEndpoints) {
-            for (String candidate : candidates) {
-                if (candidate == null) continue;
-                try {
-                    if (pathMatcher.match(p, candidate) || candidate.startsWith(p.replace("/**", ""))) {
-                        return true;
-                    }
-                } catch (Exception ex) {
-                    if (candidate.contains(p.replace("**", ""))) {
-                        return true;
-                    }
-                }
-            }
-        }
-        return false;
+        return publicPathMatcher.matches(request);
     }
 }
@@ -3,11 +3,10 @@ package com.mycompany.myapp.service;
 import com.mycompany.myapp.domain.Cart;
 import com.mycompany.myapp.domain.CartItem;
 import com.mycompany.myapp.domain.Product;
-import com.mycompany.myapp.domain.User;
 import com.mycompany.myapp.repository.CartRepository;
 import com.mycompany.myapp.repository.ProductRepository;
 import com.mycompany.myapp.repository.UserRepository;
-import com.mycompany.myapp.security.SecurityUtils;
+import com.mycompany.myapp.security.CurrentUserResolver;
 import java.time.Instant;
 import java.util.HashSet;
 import java.util.Optional;
@@ -25,26 +24,28 @@ public class CartService {
     private final CartRepository cartRepository;
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
+    private final CurrentUserResolver currentUserResolver;
 
     public CartService(
         CartRepository cartRepository,
         UserRepository userRepository,
-        ProductRepository productRepository
+        ProductRepository productRepository,
+        CurrentUserResolver currentUserResolver
     ) {
         this.cartRepository = cartRepository;
         this.userRepository = userRepository;
         this.productRepository = productRepository;
+        this.currentUserResolver = currentUserResolver;
     }
 
     public Cart getCartForCurrentUser() {
-        String userEmail = SecurityUtils.getCurrentUserLogin().orElseThrow(() -> new IllegalStateException("Current user not found"));
-        return cartRepository.findOneByUser_Email(userEmail).orElseGet(() -> createCartForUser(userEmail));
+        Long userId = currentUserResolver.getCurrentUserId().orElseThrow(() -> new IllegalStateException("Current user not found"));
+        return cartRepository.findOneByUser_Id(userId).orElseGet(() -> createCartForUser(userId));
     }
 
-    private Cart createCartForUser(String userEmail) {
-        User user = userRepository.findOneByEmailIgnoreCase(userEmail).orElseThrow(() -> new IllegalStateException("User not found"));
+    private Cart createCartForUser(Long userId) {
         Cart newCart = new Cart();
-        newCart.setUser(user);
+        newCart.setUser(userRepository.getReferenceById(userId));
         newCart.setCreatedDate(Instant.now());
         newCart.setUpdatedDate(Instant.now());
         newCart.setItems(new HashSet<>());
@@ -0,0 +1,79 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.domain.Order;
+import com.mycompany.myapp.service.dto.OrderDTO;
+import com.mycompany.myapp.service.dto.OrderIntentDTO;
+import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Điểm vào của checkout: đồng bộ ({@link OrderService#create(OrderDTO)}) hoặc nhận-rồi-xếp-hàng
+ * khi bật {@code application.checkout.async}.
+ * <p>
+ * Không dùng {@code @Transactional}: đơn QUEUED phải được commit trước khi message được gửi đi.
+ */
+@Service
+public class CheckoutService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CheckoutService.class);
+
+    private final OrderService orderService;
+    private final MessageProducer messageProducer;
+    private final ApplicationProperties applicationProperties;
+
+    public CheckoutService(OrderService orderService, MessageProducer messageProducer, ApplicationProperties applicationProperties) {
+        this.orderService = orderService;
+        this.messageProducer = messageProducer;
+        this.applicationProperties = applicationProperties;
+    }
+
+    public boolean isAsync() {
+        return applicationProperties.getCheckout().isAsync();
+    }
+
+    /**
+     * @return đơn đã tạo; ở chế độ bất đồng bộ là đơn QUEUED, trạng thái được hỏi lại qua {@code GET /api/orders/{id}}.
+     */
+    public Order checkout(OrderDTO orderDTO) {
+        if (!isAsync()) {
+            return orderService.create(orderDTO);
+        }
+        Order queued = orderService.enqueue(orderDTO);
+        try {
+            messageProducer.sendOrderIntent(new OrderIntentDTO(queued.getId(), orderDTO));
+            return queued;
+        } catch (AmqpException e) {
+            // Broker lỗi thì xử lý luôn trong request, khách không mất đơn
+            LOG.warn("Could not queue order {}, processing it synchronously: {}", queued.getId(), e.getMessage());
+            try {
+                return orderService.processQueued(queued.getId(), orderDTO).orElse(queued);
+            } catch (BadRequestAlertException notEnoughStock) {
+                orderService.reject(queued.getId());
+                throw notEnoughStock;
+            }
+        }
+    }
+
+    /**
+     * Xử lý một đơn đang chờ; hết hàng thì đánh dấu REJECTED thay vì ném lỗi ra consumer.
+     */
+    public void process(OrderIntentDTO intent) {
+        try {
+            orderService.processQueued(intent.getOrderId(), intent.getOrder());
+        } catch (BadRequestAlertException e) {
+            LOG.info("Queued order {} rejected: {}", intent.getOrderId(), e.getMessage());
+            orderService.reject(intent.getOrderId());
+        }
+    }
+
+    /**
+     * Đánh dấu REJECTED một đơn còn QUEUED mà consumer không xử lý được (lỗi ngoài hết hàng).
+     */
+    public void reject(Long orderId) {
+        orderService.reject(orderId);
+    }
+}
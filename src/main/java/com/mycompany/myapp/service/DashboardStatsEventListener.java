@@ -0,0 +1,137 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.domain.Authority;
+import com.mycompany.myapp.domain.Order;
+import com.mycompany.myapp.domain.Product;
+import com.mycompany.myapp.domain.User;
+import com.mycompany.myapp.domain.enumeration.OrderStatus;
+import com.mycompany.myapp.security.AuthoritiesConstants;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.Set;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.stereotype.Component;
+
+/**
+ * Chuyển các thay đổi đã commit của đơn hàng, sản phẩm và người dùng thành phần cộng dồn cho
+ * {@link DashboardStatsService}. Chạy sau commit nên transaction rollback không làm lệch số liệu.
+ */
+@Component
+public class DashboardStatsEventListener
+    implements PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private static final Set<Class<?>> TRACKED = Set.of(Order.class, Product.class, User.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final DashboardStatsService dashboardStatsService;
+
+    public DashboardStatsEventListener(EntityManagerFactory entityManagerFactory, DashboardStatsService dashboardStatsService) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.dashboardStatsService = dashboardStatsService;
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory
+            .unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry()
+            .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return TRACKED.contains(persister.getMappedClass());
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        Object entity = event.getEntity();
+        if (entity instanceof Order order) {
+            dashboardStatsService.increment(DashboardStatsService.revenueOf(order.getStatus(), order.getTotalAmount()), 1, 0, 0);
+        } else if (entity instanceof Product) {
+            dashboardStatsService.increment(0, 0, 0, 1);
+        } else if (entity instanceof User user && isCustomer(user.getAuthority())) {
+            dashboardStatsService.increment(0, 0, 1, 0);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        Object[] oldState = event.getOldState();
+        if (oldState == null) {
+            // Cập nhật entity detached không có snapshot: không biết giá trị cũ, để reconcile sửa
+            return;
+        }
+        EntityPersister persister = event.getPersister();
+        Object entity = event.getEntity();
+        if (entity instanceof Order order) {
+            OrderStatus oldStatus = (OrderStatus) oldState[propertyIndex(persister, "status")];
+            Double oldAmount = (Double) oldState[propertyIndex(persister, "totalAmount")];
+            double revenue =
+                DashboardStatsService.revenueOf(order.getStatus(), order.getTotalAmount()) -
+                DashboardStatsService.revenueOf(oldStatus, oldAmount);
+            dashboardStatsService.increment(revenue, 0, 0, 0);
+        } else if (entity instanceof User user) {
+            boolean wasCustomer = isCustomer(oldState[propertyIndex(persister, "authority")]);
+            boolean isCustomer = isCustomer(user.getAuthority());
+            if (wasCustomer != isCustomer) {
+                dashboardStatsService.increment(0, 0, isCustomer ? 1 : -1, 0);
+            }
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        Object entity = event.getEntity();
+        if (entity instanceof Order order) {
+            dashboardStatsService.increment(-DashboardStatsService.revenueOf(order.getStatus(), order.getTotalAmount()), -1, 0, 0);
+        } else if (entity instanceof Product) {
+            dashboardStatsService.increment(0, 0, 0, -1);
+        } else if (entity instanceof User user && isCustomer(user.getAuthority())) {
+            dashboardStatsService.increment(0, 0, -1, 0);
+        }
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // Không commit thì không có gì để cộng
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // Không commit thì không có gì để cộng
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // Không commit thì không có gì để cộng
+    }
+
+    private static int propertyIndex(EntityPersister persister, String property) {
+        return Arrays.asList(persister.getPropertyNames()).indexOf(property);
+    }
+
+    /**
+     * Lấy tên quyền mà không nạp proxy (sau commit session có thể không còn dùng được).
+     */
+    private static boolean isCustomer(Object authority) {
+        Object name = authority instanceof HibernateProxy proxy
+            ? proxy.getHibernateLazyInitializer().getIdentifier()
+            : authority instanceof Authority value ? value.getName() : null;
+        return AuthoritiesConstants.USER.equals(name);
+    }
+}
@@ -1,26 +1,154 @@
 package com.mycompany.myapp.service;
 
+import com.mycompany.myapp.domain.enumeration.OrderStatus;
 import com.mycompany.myapp.repository.DashboardStatsRepository;
 import com.mycompany.myapp.repository.UserRepository;
 import com.mycompany.myapp.security.AuthoritiesConstants;
 import com.mycompany.myapp.service.dto.DashboardStatsDTO;
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Số liệu dashboard admin giữ sẵn trong một Redis hash, đọc là O(1).
+ * <p>
+ * {@link DashboardStatsEventListener} cộng dồn thay đổi sau mỗi commit (tạo/đổi trạng thái/xóa đơn, thêm/xóa sản phẩm
+ * và khách hàng). Các thay đổi không đi qua Hibernate (bulk update, sửa tay trong database) hoặc lần cộng bị lỗi
+ * được {@link #reconcile()} tính lại toàn bộ theo chu kỳ.
+ */
 @Service
-@Transactional(readOnly = true)
 public class DashboardStatsService {
 
+    private static final Logger LOG = LoggerFactory.getLogger(DashboardStatsService.class);
+
+    static final String STATS_KEY = "dashboard:stats";
+
+    private static final String REVENUE = "revenue";
+    private static final String ORDERS = "orders";
+    private static final String CUSTOMERS = "customers";
+    private static final String PRODUCTS = "products";
+
+    private static final List<String> FIELDS = List.of(REVENUE, ORDERS, CUSTOMERS, PRODUCTS);
+
+    /**
+     * Trạng thái được tính vào doanh thu, khớp với {@link DashboardStatsRepository#getTotalRevenue()}.
+     */
+    private static final Set<OrderStatus> REVENUE_STATUSES = Set.of(OrderStatus.DELIVERED, OrderStatus.COMPLETED);
+
     private final DashboardStatsRepository dashboardStatsRepository;
     private final UserRepository userRepository;
+    private final StringRedisTemplate redisTemplate;
 
-    public DashboardStatsService(DashboardStatsRepository dashboardStatsRepository, UserRepository userRepository) {
+    public DashboardStatsService(
+        DashboardStatsRepository dashboardStatsRepository,
+        UserRepository userRepository,
+        StringRedisTemplate redisTemplate
+    ) {
         this.dashboardStatsRepository = dashboardStatsRepository;
         this.userRepository = userRepository;
+        this.redisTemplate = redisTemplate;
     }
 
     public DashboardStatsDTO getDashboardStats() {
+        List<String> values;
+        try {
+            values = hash().multiGet(STATS_KEY, FIELDS);
+        } catch (DataAccessException e) {
+            LOG.warn("Không đọc được số liệu dashboard từ Redis, tính trực tiếp từ database: {}", e.getMessage());
+            return computeStats();
+        }
+        if (values.contains(null)) {
+            // Lần đầu chạy hoặc Redis bị xóa dữ liệu
+            return reconcile();
+        }
+        return new DashboardStatsDTO(
+            Double.parseDouble(values.get(0)),
+            Long.parseLong(values.get(1)),
+            Long.parseLong(values.get(2)),
+            Long.parseLong(values.get(3))
+        );
+    }
+
+    /**
+     * Tính lại toàn bộ từ database và ghi đè hash.
+     * <p>
+     * Thay đổi commit xen giữa lúc đọc database và lúc ghi đè có thể bị tính thiếu/thừa một lần, lần chạy sau sẽ sửa.
+     */
+    @Scheduled(
+        fixedDelayString = "${application.dashboard.reconcile-interval:PT5M}",
+        initialDelayString = "${application.dashboard.reconcile-interval:PT5M}"
+    )
+    @Transactional(readOnly = true)
+    public DashboardStatsDTO reconcile() {
+        DashboardStatsDTO stats = computeStats();
+        try {
+            hash()
+                .putAll(
+                    STATS_KEY,
+                    Map.of(
+                        REVENUE,
+                        // Không dùng dạng 1.5E7 để HINCRBYFLOAT đọc được
+                        BigDecimal.valueOf(stats.getTotalRevenue()).toPlainString(),
+                        ORDERS,
+                        String.valueOf(stats.getTotalOrders()),
+                        CUSTOMERS,
+                        String.valueOf(stats.getTotalCustomers()),
+                        PRODUCTS,
+                        String.valueOf(stats.getTotalProducts())
+                    )
+                );
+        } catch (DataAccessException e) {
+            LOG.warn("Không ghi được số liệu dashboard vào Redis: {}", e.getMessage());
+        }
+        return stats;
+    }
+
+    /**
+     * Cộng dồn thay đổi đã commit. Hash chưa có (chưa reconcile) thì bỏ qua, lần đọc đầu tiên sẽ tính lại toàn bộ.
+     */
+    void increment(double revenue, long orders, long customers, long products) {
+        if (revenue == 0 && orders == 0 && customers == 0 && products == 0) {
+            return;
+        }
+        try {
+            if (!Boolean.TRUE.equals(redisTemplate.hasKey(STATS_KEY))) {
+                return;
+            }
+            HashOperations<String, String, String> hash = hash();
+            if (revenue != 0) {
+                hash.increment(STATS_KEY, REVENUE, revenue);
+            }
+            if (orders != 0) {
+                hash.increment(STATS_KEY, ORDERS, orders);
+            }
+            if (customers != 0) {
+                hash.increment(STATS_KEY, CUSTOMERS, customers);
+            }
+            if (products != 0) {
+                hash.increment(STATS_KEY, PRODUCTS, products);
+            }
+        } catch (DataAccessException e) {
+            LOG.warn("Không cập nhật được số liệu dashboard, chờ reconcile: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Phần doanh thu của một đơn: bằng tổng tiền nếu trạng thái được tính doanh thu, ngược lại 0.
+     */
+    static double revenueOf(OrderStatus status, Double totalAmount) {
+        return status != null && totalAmount != null && REVENUE_STATUSES.contains(status) ? totalAmount : 0;
+    }
+
+    private DashboardStatsDTO computeStats() {
         BigDecimal totalRevenue = dashboardStatsRepository.getTotalRevenue();
         Long totalOrders = dashboardStatsRepository.getTotalOrders();
         Long totalCustomers = userRepository.countByAuthority_Name(AuthoritiesConstants.USER);
@@ -34,4 +162,8 @@ public class DashboardStatsService {
 
         return stats;
     }
+
+    private HashOperations<String, String, String> hash() {
+        return redisTemplate.opsForHash();
+    }
 }
@@ -6,6 +6,8 @@ import com.mycompany.myapp.service.dto.UserRegistrationEventDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -13,13 +15,19 @@ public class EmailConsumer {
 
     private final Logger log = LoggerFactory.getLogger(EmailConsumer.class);
     private final MailService mailService;
+    private final ProcessedEventService processedEventService;
 
-    public EmailConsumer(MailService mailService) {
+    public EmailConsumer(MailService mailService, ProcessedEventService processedEventService) {
         this.mailService = mailService;
+        this.processedEventService = processedEventService;
     }
 
     @RabbitListener(queues = RabbitMQConfig.ORDER_EMAIL_QUEUE)
-    public void handleOrderCreated(OrderEventDTO event) {
+    public void handleOrderCreated(OrderEventDTO event, @Header(name = AmqpHeaders.MESSAGE_ID, required = false) String messageId) {
+        if (!processedEventService.markProcessed(RabbitMQConfig.ORDER_EMAIL_QUEUE, messageId)) {
+            log.debug("Skipping duplicate order created event {}", messageId);
+            return;
+        }
         log.info("Received order created event for order: {}", event.getOrderCode());
         try {
             sendOrderConfirmationEmail(event);
@@ -30,7 +38,14 @@ public class EmailConsumer {
     }
 
     @RabbitListener(queues = RabbitMQConfig.USER_REGISTRATION_QUEUE)
-    public void handleUserRegistered(UserRegistrationEventDTO event) {
+    public void handleUserRegistered(
+        UserRegistrationEventDTO event,
+        @Header(name = AmqpHeaders.MESSAGE_ID, required = false) String messageId
+    ) {
+        if (!processedEventService.markProcessed(RabbitMQConfig.USER_REGISTRATION_QUEUE, messageId)) {
+            log.debug("Skipping duplicate user registered event {}", messageId);
+            return;
+        }
         log.info("Received user registered event for user: {}", event.getEmail());
         try {
             sendWelcomeEmail(event);
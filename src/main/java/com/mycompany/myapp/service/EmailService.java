@@ -6,9 +6,11 @@ import com.mycompany.myapp.service.dto.UserRegistrationEventDTO;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -16,16 +18,22 @@ public class EmailService {
 
     private final Logger log = LoggerFactory.getLogger(EmailService.class);
     private final JavaMailSender mailSender;
+    private final ProcessedEventService processedEventService;
 
     @Value("${spring.mail.username}")
     private String fromEmail;
 
-    public EmailService(JavaMailSender mailSender) {
+    public EmailService(JavaMailSender mailSender, ProcessedEventService processedEventService) {
         this.mailSender = mailSender;
+        this.processedEventService = processedEventService;
     }
 
     @RabbitListener(queues = RabbitMQConfig.ORDER_EMAIL_QUEUE)
-    public void handleOrderCreatedEvent(OrderEventDTO event) {
+    public void handleOrderCreatedEvent(OrderEventDTO event, @Header(name = AmqpHeaders.MESSAGE_ID, required = false) String messageId) {
+        if (!processedEventService.markProcessed(RabbitMQConfig.ORDER_EMAIL_QUEUE, messageId)) {
+            log.debug("Skipping duplicate order created event {}", messageId);
+            return;
+        }
         log.info("Received order created event for email: {}", event);
         log.info("Sending confirmation email for order {} to {}", event.getOrderCode(), event.getCustomerEmail());
 
@@ -57,7 +65,14 @@ public class EmailService {
     }
 
     @RabbitListener(queues = RabbitMQConfig.USER_REGISTRATION_QUEUE)
-    public void handleUserRegisteredEvent(UserRegistrationEventDTO event) {
+    public void handleUserRegisteredEvent(
+        UserRegistrationEventDTO event,
+        @Header(name = AmqpHeaders.MESSAGE_ID, required = false) String messageId
+    ) {
+        if (!processedEventService.markProcessed(RabbitMQConfig.USER_REGISTRATION_QUEUE, messageId)) {
+            log.debug("Skipping duplicate user registered event {}", messageId);
+            return;
+        }
         log.info("Received user registered event for email: {}", event);
         log.info("Sending welcome email to user {}", event.getEmail());
 
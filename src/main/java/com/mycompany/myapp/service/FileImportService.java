@@ -9,21 +9,25 @@ import com.mycompany.myapp.repository.CategoryRepository;
 import com.mycompany.myapp.repository.ProductRepository;
 import com.mycompany.myapp.repository.UserRepository;
 import com.mycompany.myapp.security.AuthoritiesConstants;
-import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
-import java.io.BufferedInputStream;
-import java.io.InputStream;
-import java.net.URL;
-import java.net.URLConnection;
+import com.mycompany.myapp.security.CurrentUserResolver;
+import com.mycompany.myapp.service.importer.ImportChunkResult;
+import com.mycompany.myapp.service.importer.ImportRowError;
+import com.mycompany.myapp.service.importer.PasswordHashingPool;
+import com.mycompany.myapp.service.importer.XlsxRow;
+import jakarta.validation.Validator;
 import java.util.*;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.multipart.MultipartFile;
 
+/**
+ * Kiểm tra và ghi từng phần dòng đọc từ file import. Mỗi lần gọi là một transaction do {@link ImportJobService} điều khiển;
+ * dòng không hợp lệ được trả về trong {@link ImportChunkResult#errors()} thay vì làm hỏng cả phần.
+ */
 @Service
 @Transactional
 public class FileImportService {
@@ -32,344 +36,403 @@ public class FileImportService {
 
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingPool passwordHashingPool;
     private final AuthorityRepository authorityRepository;
     private final CategoryRepository categoryRepository;
+    private final ProductSearchService productSearchService;
+    private final UserService userService;
+    private final CurrentUserResolver currentUserResolver;
+    private final Validator validator;
 
     public FileImportService(
         ProductRepository productRepository,
         UserRepository userRepository,
-        PasswordEncoder passwordEncoder,
+        PasswordHashingPool passwordHashingPool,
         AuthorityRepository authorityRepository,
-        CategoryRepository categoryRepository
+        CategoryRepository categoryRepository,
+        ProductSearchService productSearchService,
+        UserService userService,
+        CurrentUserResolver currentUserResolver,
+        Validator validator
     ) {
         this.productRepository = productRepository;
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingPool = passwordHashingPool;
         this.authorityRepository = authorityRepository;
         this.categoryRepository = categoryRepository;
+        this.productSearchService = productSearchService;
+        this.userService = userService;
+        this.currentUserResolver = currentUserResolver;
+        this.validator = validator;
     }
 
-    // Existing implementation methods
-    public void importProducts(MultipartFile file) throws Exception {
-        if (!file.getOriginalFilename().endsWith(".xlsx")) {
-            throw new BadRequestAlertException("Chỉ chấp nhận file Excel định dạng .xlsx", "fileImport", "invalidFileFormat");
-        }
-        try (InputStream inputStream = file.getInputStream()) {
-            processProductExcel(inputStream);
-        } catch (Exception e) {
-            log.error("Lỗi khi import sản phẩm từ file: {}", e.getMessage());
-            throw e;
+    /**
+     * Ghi một phần sản phẩm. Sản phẩm có sẵn (theo ID) và trùng tên được tra bằng một query {@code IN} mỗi loại
+     * cho cả phần, thay vì hai query cho mỗi dòng.
+     */
+    @CacheEvict(cacheNames = { ProductRepository.PRODUCTS_BY_ID_CACHE, ProductRepository.PRODUCT_PAGES_CACHE }, allEntries = true)
+    public ImportChunkResult importProductRows(List<XlsxRow> rows) {
+        // --- Optimization: Pre-load categories ---
+        Map<String, Category> categoryCacheByName = new HashMap<>();
+        Map<String, Category> categoryCacheBySlug = new HashMap<>();
+        categoryRepository.findAll().forEach(cat -> {
+            if (cat.getName() != null) {
+                categoryCacheByName.put(cat.getName().trim(), cat);
+            }
+            if (cat.getSlug() != null) {
+                categoryCacheBySlug.put(cat.getSlug().trim(), cat);
+            }
+        });
+
+        Category defaultCategory = categoryCacheBySlug.get("chua-phan-loai");
+        if (defaultCategory == null) {
+            defaultCategory = categoryRepository.findBySlug("chua-phan-loai").orElseGet(() -> {
+                Category newCat = new Category();
+                newCat.setName("Chưa phân loại");
+                newCat.setSlug("chua-phan-loai");
+                return categoryRepository.save(newCat);
+            });
+            categoryCacheBySlug.put("chua-phan-loai", defaultCategory);
+            if (defaultCategory.getName() != null) {
+                categoryCacheByName.put(defaultCategory.getName().trim(), defaultCategory);
+            }
         }
-    }
-
-    public void importProductsFromUrl(String urlString) throws Exception {
-        try {
-            URL url = new URL(urlString);
-            URLConnection connection = url.openConnection();
-            try (InputStream inputStream = new BufferedInputStream(connection.getInputStream())) {
-                processProductExcel(inputStream);
+        // --- End Optimization ---
+
+        List<ImportRowError> errors = new ArrayList<>();
+        List<ImportRow<Product>> parsed = new ArrayList<>(rows.size());
+        for (XlsxRow row : rows) {
+            try {
+                parsed.add(new ImportRow<>(row.getRowNum(), readProduct(row, categoryCacheByName, categoryCacheBySlug, defaultCategory)));
+            } catch (RuntimeException e) {
+                errors.add(new ImportRowError(row.getRowNum() + 1, e.getMessage()));
             }
-        } catch (Exception e) {
-            log.error("Lỗi khi import sản phẩm từ URL: {}", e.getMessage());
-            throw e;
         }
-    }
-
-    private void processProductExcel(InputStream inputStream) throws Exception {
-        try (Workbook workbook = new XSSFWorkbook(inputStream)) {
-            Sheet sheet = workbook.getSheetAt(0);
-            Iterator<Row> rows = sheet.iterator();
-
-            List<Product> productsToSave = new ArrayList<>();
-            int rowNumber = 0;
 
-            // --- Optimization: Pre-load categories ---
-            Map<String, Category> categoryCacheByName = new HashMap<>();
-            Map<String, Category> categoryCacheBySlug = new HashMap<>();
-            categoryRepository.findAll().forEach(cat -> {
-                if (cat.getName() != null) {
-                    categoryCacheByName.put(cat.getName().trim(), cat);
-                }
-                if (cat.getSlug() != null) {
-                    categoryCacheBySlug.put(cat.getSlug().trim(), cat);
-                }
-            });
-
-            Category defaultCategory = categoryCacheBySlug.get("chua-phan-loai");
-            if (defaultCategory == null) {
-                defaultCategory = categoryRepository.findBySlug("chua-phan-loai").orElseGet(() -> {
-                    Category newCat = new Category();
-                    newCat.setName("Chưa phân loại");
-                    newCat.setSlug("chua-phan-loai");
-                    return categoryRepository.save(newCat);
-                });
-                categoryCacheBySlug.put("chua-phan-loai", defaultCategory);
-                if(defaultCategory.getName() != null) {
-                    categoryCacheByName.put(defaultCategory.getName().trim(), defaultCategory);
-                }
+        Set<Long> ids = new HashSet<>();
+        Set<String> newNames = new HashSet<>();
+        for (ImportRow<Product> row : parsed) {
+            if (row.entity().getId() != null) {
+                ids.add(row.entity().getId());
+            } else {
+                newNames.add(row.entity().getName());
             }
-            // --- End Optimization ---
+        }
+        Map<Long, Product> existingById = new HashMap<>();
+        if (!ids.isEmpty()) {
+            productRepository.findAllById(ids).forEach(existing -> existingById.put(existing.getId(), existing));
+        }
+        Map<String, Long> existingIdByName = new HashMap<>();
+        if (!newNames.isEmpty()) {
+            productRepository
+                .findAllByNameIn(newNames)
+                .forEach(existing -> existingIdByName.merge(existing.getName(), existing.getId(), Math::min));
+        }
 
-            while (rows.hasNext()) {
-                Row currentRow = rows.next();
-                if (rowNumber == 0) {
-                    rowNumber++;
+        List<Product> productsToSave = new ArrayList<>(parsed.size());
+        for (ImportRow<Product> row : parsed) {
+            Product product = row.entity();
+            if (product.getId() != null) {
+                Product existingProduct = existingById.get(product.getId());
+                if (existingProduct == null) {
+                    errors.add(
+                        row.error(
+                            "Không tìm thấy sản phẩm với ID=" +
+                            product.getId() +
+                            ". Vui lòng kiểm tra lại hoặc để trống cột ID để tạo mới."
+                        )
+                    );
                     continue;
                 }
 
-                Product product = new Product();
-                Cell idCell = currentRow.getCell(0);
-                if (idCell != null && idCell.getCellType() == CellType.NUMERIC) {
-                    product.setId((long) idCell.getNumericCellValue());
-                }
-
-                try {
-                    String name = getCellValue(currentRow.getCell(1));
-                    if (name == null || name.trim().isEmpty()) {
-                        throw new IllegalArgumentException("Tên sản phẩm không được để trống");
-                    }
-                    product.setName(name.trim());
-
-                    String description = getCellValue(currentRow.getCell(2));
-                    product.setDescription((description == null || description.trim().isEmpty()) ? "Chưa có mô tả" : description.trim());
-
-                    Cell priceCell = currentRow.getCell(3);
-                    if (priceCell == null || priceCell.getCellType() != CellType.NUMERIC) {
-                        throw new IllegalArgumentException("Giá sản phẩm không được để trống và phải là số");
-                    }
-                    product.setPrice(Double.valueOf(priceCell.getNumericCellValue()));
-
-                    Cell quantityCell = currentRow.getCell(4);
-                    if (quantityCell != null && quantityCell.getCellType() == CellType.NUMERIC) {
-                        product.setQuantity((int) quantityCell.getNumericCellValue());
-                    } else {
-                        product.setQuantity(0);
-                    }
-
-                    String imageUrl = getCellValue(currentRow.getCell(5));
-                    product.setImageUrl(
-                        (imageUrl == null || imageUrl.trim().isEmpty())
-                            ? "https://via.placeholder.com/300x300?text=No+Image"
-                            : imageUrl.trim()
-                    );
-
-                    // --- Use category cache ---
-                    String categoryInput = getCellValue(currentRow.getCell(7));
-                    Category category;
-
-                    if (categoryInput == null || categoryInput.trim().isEmpty()) {
-                        category = defaultCategory;
-                    } else {
-                        String trimmedInput = categoryInput.trim();
-                        category = categoryCacheByName.get(trimmedInput);
-                        if (category == null) {
-                            category = categoryCacheBySlug.get(trimmedInput);
-                        }
-
-                        if (category == null) {
-                            throw new IllegalArgumentException(
-                                "Không tìm thấy danh mục '" +
-                                categoryInput +
-                                "'. Vui lòng kiểm tra lại tên danh mục hoặc tạo danh mục mới."
-                            );
-                        }
-                    }
-                    product.setCategory(category);
-                    // --- End category cache usage ---
-
-                } catch (BadRequestAlertException e) {
-                    throw e;
-                } catch (Exception e) {
-                    throw new BadRequestAlertException(
-                        "Lỗi tại dòng " + (rowNumber + 1) + ": " + e.getMessage(),
-                        "fileImport",
-                        "dataReadError"
+                if (!existingProduct.getName().equals(product.getName())) {
+                    log.warn(
+                        "Cảnh báo: Sản phẩm ID={} đang đổi tên từ '{}' thành '{}'",
+                        product.getId(),
+                        existingProduct.getName(),
+                        product.getName()
                     );
                 }
 
-                if (product.getId() != null) {
-                    Optional<Product> existingProductOpt = productRepository.findById(product.getId());
-                    if (existingProductOpt.isEmpty()) {
-                        throw new IllegalArgumentException(
-                            "Không tìm thấy sản phẩm với ID=" + product.getId() + ". Vui lòng kiểm tra lại hoặc để trống cột ID để tạo mới."
-                        );
-                    }
-
-                    Product existingProduct = existingProductOpt.get();
-
-                    if (!existingProduct.getName().equals(product.getName())) {
-                        log.warn(
-                            "Cảnh báo: Sản phẩm ID={} đang đổi tên từ '{}' thành '{}'",
-                            product.getId(),
-                            existingProduct.getName(),
-                            product.getName()
-                        );
-                    }
-
-                    product.setCreatedBy(existingProduct.getCreatedBy());
-                    product.setCreatedDate(existingProduct.getCreatedDate());
-                } else {
-                    Optional<Product> duplicateProduct = productRepository.findFirstByName(product.getName());
-                    if (duplicateProduct.isPresent()) {
-                        throw new IllegalArgumentException(
+                product.setCreatedBy(existingProduct.getCreatedBy());
+                product.setCreatedDate(existingProduct.getCreatedDate());
+            } else {
+                Long duplicateId = existingIdByName.get(product.getName());
+                if (duplicateId != null) {
+                    errors.add(
+                        row.error(
                             "Sản phẩm '" +
                             product.getName() +
                             "' đã tồn tại (ID=" +
-                            duplicateProduct.get().getId() +
+                            duplicateId +
                             "). " +
                             "Nếu muốn cập nhật, vui lòng điền ID=" +
-                            duplicateProduct.get().getId() +
+                            duplicateId +
                             " vào cột A."
-                        );
-                    }
+                        )
+                    );
+                    continue;
+                }
+                // Hai dòng mới trùng tên trong cùng một phần: dòng sau bị từ chối
+                if (!newNames.remove(product.getName())) {
+                    errors.add(row.error("Sản phẩm '" + product.getName() + "' bị lặp lại trong file."));
+                    continue;
                 }
-                productsToSave.add(product);
-                rowNumber++;
             }
-            productRepository.saveAll(productsToSave);
+            productsToSave.add(product);
         }
+        productRepository.saveAll(productsToSave);
+        productSearchService.refreshAfterCommit(productsToSave.stream().map(Product::getId).toList());
+        return new ImportChunkResult(productsToSave.size(), errors);
     }
 
-    public void importUsers(MultipartFile file) throws Exception {
-        if (!file.getOriginalFilename().endsWith(".xlsx")) {
-            throw new BadRequestAlertException("Chỉ chấp nhận file Excel định dạng .xlsx", "fileImport", "invalidFileFormat");
+    private Product readProduct(
+        XlsxRow row,
+        Map<String, Category> categoryCacheByName,
+        Map<String, Category> categoryCacheBySlug,
+        Category defaultCategory
+    ) {
+        Product product = new Product();
+        Double id = row.getNumber(0);
+        if (id != null) {
+            product.setId(id.longValue());
         }
-        try (InputStream inputStream = file.getInputStream()) {
-            processUserExcel(inputStream);
-        } catch (Exception e) {
-            log.error("Lỗi khi import người dùng từ file: {}", e.getMessage());
-            throw e;
+
+        String name = row.getString(1);
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Tên sản phẩm không được để trống");
         }
-    }
+        product.setName(name.trim());
+
+        String description = row.getString(2);
+        product.setDescription((description == null || description.trim().isEmpty()) ? "Chưa có mô tả" : description.trim());
+
+        Double price = row.getNumber(3);
+        if (price == null) {
+            throw new IllegalArgumentException("Giá sản phẩm không được để trống và phải là số");
+        }
+        product.setPrice(price);
+
+        Double quantity = row.getNumber(4);
+        product.setQuantity(quantity != null ? quantity.intValue() : 0);
+
+        String imageUrl = row.getString(5);
+        product.setImageUrl(
+            (imageUrl == null || imageUrl.trim().isEmpty()) ? "https://via.placeholder.com/300x300?text=No+Image" : imageUrl.trim()
+        );
+
+        // --- Use category cache ---
+        String categoryInput = row.getString(7);
+        Category category;
+
+        if (categoryInput == null || categoryInput.trim().isEmpty()) {
+            category = defaultCategory;
+        } else {
+            String trimmedInput = categoryInput.trim();
+            category = categoryCacheByName.get(trimmedInput);
+            if (category == null) {
+                category = categoryCacheBySlug.get(trimmedInput);
+            }
 
-    public void importUsersFromUrl(String urlString) throws Exception {
-        try {
-            URL url = new URL(urlString);
-            URLConnection connection = url.openConnection();
-            try (InputStream inputStream = new BufferedInputStream(connection.getInputStream())) {
-                processUserExcel(inputStream);
+            if (category == null) {
+                throw new IllegalArgumentException(
+                    "Không tìm thấy danh mục '" + categoryInput + "'. Vui lòng kiểm tra lại tên danh mục hoặc tạo danh mục mới."
+                );
             }
-        } catch (Exception e) {
-            log.error("Lỗi khi import người dùng từ URL: {}", e.getMessage());
-            throw e;
         }
-    }
+        product.setCategory(category);
+        // --- End category cache usage ---
 
-    private void processUserExcel(InputStream inputStream) throws Exception {
-        try (Workbook workbook = new XSSFWorkbook(inputStream)) {
-            Sheet sheet = workbook.getSheetAt(0);
-            Iterator<Row> rows = sheet.iterator();
+        if (product.getImageUrl().length() > 1024) {
+            throw new IllegalArgumentException("URL ảnh sản phẩm dài quá 1024 ký tự");
+        }
+        validate(product);
+        return product;
+    }
 
-            List<User> usersToSave = new ArrayList<>();
-            int rowNumber = 0;
+    /**
+     * Ghi một phần người dùng. Người dùng có sẵn theo ID, email và số điện thoại được tra bằng một query {@code IN}
+     * mỗi loại cho cả phần; các tài khoản chưa kích hoạt bị trùng được xóa cùng lúc.
+     * <p>
+     * Mật khẩu của các dòng được nhận được băm song song trên {@link PasswordHashingPool} trong lúc xóa tài khoản trùng,
+     * chỉ chờ kết quả ngay trước khi ghi; dòng bị từ chối không tốn lần băm nào.
+     * <p>
+     * Ghi đè user có sẵn (theo ID) luôn đổi mật khẩu và đặt quyền USER, nên token của user đó bị thu hồi như khi đặt lại
+     * mật khẩu; user bị ghi đè hoặc bị xóa đều được xóa khỏi cache của {@link CurrentUserResolver}.
+     */
+    public ImportChunkResult importUserRows(List<XlsxRow> rows) {
+        Authority userAuthority = authorityRepository
+            .findById(AuthoritiesConstants.USER)
+            .orElseThrow(() -> new IllegalStateException("Không tìm thấy quyền USER mặc định"));
+
+        List<ImportRowError> errors = new ArrayList<>();
+        List<ImportRow<PendingUser>> parsed = new ArrayList<>(rows.size());
+        for (XlsxRow row : rows) {
+            try {
+                parsed.add(new ImportRow<>(row.getRowNum(), readUser(row, userAuthority)));
+            } catch (RuntimeException e) {
+                errors.add(new ImportRowError(row.getRowNum() + 1, e.getMessage()));
+            }
+        }
 
-            Authority userAuthority = authorityRepository
-                .findById(AuthoritiesConstants.USER)
-                .orElseThrow(() -> new BadRequestAlertException("Không tìm thấy quyền USER mặc định", "fileImport", "userAuthorityNotFound"));
+        Set<Long> ids = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        Set<String> phones = new HashSet<>();
+        for (ImportRow<PendingUser> row : parsed) {
+            User user = row.entity().user();
+            if (user.getId() != null) {
+                ids.add(user.getId());
+            } else {
+                emails.add(user.getEmail());
+                if (user.getPhone() != null && !user.getPhone().isBlank()) {
+                    phones.add(user.getPhone());
+                }
+            }
+        }
+        Map<Long, User> existingById = new HashMap<>();
+        if (!ids.isEmpty()) {
+            userRepository.findAllById(ids).forEach(existing -> existingById.put(existing.getId(), existing));
+        }
+        Map<String, User> existingByEmail = new HashMap<>();
+        if (!emails.isEmpty()) {
+            userRepository
+                .findAllByLowerCaseEmailIn(emails)
+                .forEach(existing -> existingByEmail.put(existing.getEmail().toLowerCase(), existing));
+        }
+        Map<String, User> existingByPhone = new HashMap<>();
+        if (!phones.isEmpty()) {
+            userRepository.findAllByPhoneIn(phones).forEach(existing -> existingByPhone.put(existing.getPhone(), existing));
+        }
 
-            while (rows.hasNext()) {
-                Row currentRow = rows.next();
-                if (rowNumber == 0) {
-                    rowNumber++;
+        // Sync with UserService: remove non-activated user with same email or phone
+        Map<Long, User> usersToDelete = new LinkedHashMap<>();
+        Set<String> chunkEmails = new HashSet<>();
+        Set<String> chunkPhones = new HashSet<>();
+        List<ImportRow<PendingUser>> accepted = new ArrayList<>(parsed.size());
+        for (ImportRow<PendingUser> row : parsed) {
+            User user = row.entity().user();
+            if (user.getId() != null) {
+                User existingUser = existingById.get(user.getId());
+                if (existingUser != null) {
+                    user.setCreatedBy(existingUser.getCreatedBy());
+                    user.setCreatedDate(existingUser.getCreatedDate());
+                    currentUserResolver.evict(existingUser.getEmail(), user.getEmail());
+                    userService.revokeTokensAfterCommit(existingUser.getId());
+                }
+            } else {
+                User sameEmail = existingByEmail.get(user.getEmail());
+                User samePhone = user.getPhone() == null ? null : existingByPhone.get(user.getPhone());
+                if (sameEmail != null && sameEmail.isActivated()) {
+                    errors.add(row.error("Email '" + user.getEmail() + "' đã tồn tại và đã được kích hoạt."));
                     continue;
                 }
-
-                User user = new User();
-                Cell idCell = currentRow.getCell(0);
-                if (idCell != null && idCell.getCellType() == CellType.NUMERIC) {
-                    user.setId((long) idCell.getNumericCellValue());
+                if (samePhone != null && samePhone.isActivated()) {
+                    errors.add(row.error("Số điện thoại '" + user.getPhone() + "' đã tồn tại và đã được kích hoạt."));
+                    continue;
                 }
-
-                try {
-                    String password = getCellValue(currentRow.getCell(2));
-                    if (password == null || password.isBlank()) {
-                        throw new IllegalArgumentException("Mật khẩu không được để trống");
-                    }
-                    user.setPassword(passwordEncoder.encode(password));
-
-                    user.setFirstName(getCellValue(currentRow.getCell(3)));
-                    user.setLastName(getCellValue(currentRow.getCell(4)));
-
-                    String email = getCellValue(currentRow.getCell(5));
-                    if (email == null || email.isBlank()) {
-                        throw new IllegalArgumentException("Email không được để trống");
-                    }
-                    user.setEmail(email.toLowerCase());
-
-                    user.setPhone(getCellValue(currentRow.getCell(6)));
-                    user.setActivated(true);
-                    user.setAuthority(userAuthority);
-                } catch (Exception e) {
-                    throw new BadRequestAlertException(
-                        "Lỗi đọc dữ liệu người dùng tại dòng " + (rowNumber + 1) + ": " + e.getMessage(),
-                        "fileImport",
-                        "dataReadError"
-                    );
+                // Hai dòng mới trùng email/số điện thoại trong cùng một phần: dòng sau bị từ chối
+                if (!chunkEmails.add(user.getEmail())) {
+                    errors.add(row.error("Email '" + user.getEmail() + "' bị lặp lại trong file."));
+                    continue;
                 }
-
-                if (user.getId() != null) {
-                    userRepository
-                        .findById(user.getId())
-                        .ifPresent(existingUser -> {
-                            user.setCreatedBy(existingUser.getCreatedBy());
-                            user.setCreatedDate(existingUser.getCreatedDate());
-                        });
-                } else {
-                    // Sync with UserService: remove non-activated user with same email or phone
-                    final String userEmail = user.getEmail();
-                    if (userEmail != null && !userEmail.isBlank()) {
-                        userRepository
-                            .findOneByEmailIgnoreCase(userEmail)
-                            .ifPresent(existingUser -> {
-                                if (existingUser.isActivated()) {
-                                    throw new BadRequestAlertException(
-                                        "Email '" + userEmail + "' đã tồn tại và đã được kích hoạt.",
-                                        "fileImport",
-                                        "emailExists"
-                                    );
-                                }
-                                userRepository.delete(existingUser);
-                                userRepository.flush();
-                            });
-                    }
-
-                    final String userPhone = user.getPhone();
-                    if (userPhone != null && !userPhone.isBlank()) {
-                        userRepository
-                            .findOneByPhone(userPhone)
-                            .ifPresent(existingUser -> {
-                                if (existingUser.isActivated()) {
-                                    throw new BadRequestAlertException(
-                                        "Số điện thoại '" + userPhone + "' đã tồn tại và đã được kích hoạt.",
-                                        "fileImport",
-                                        "phoneExists"
-                                    );
-                                }
-                                userRepository.delete(existingUser);
-                                userRepository.flush();
-                            });
-                    }
+                if (user.getPhone() != null && !user.getPhone().isBlank() && !chunkPhones.add(user.getPhone())) {
+                    errors.add(row.error("Số điện thoại '" + user.getPhone() + "' bị lặp lại trong file."));
+                    continue;
+                }
+                if (sameEmail != null) {
+                    usersToDelete.put(sameEmail.getId(), sameEmail);
                 }
-                usersToSave.add(user);
-                rowNumber++;
+                if (samePhone != null) {
+                    usersToDelete.put(samePhone.getId(), samePhone);
+                }
+            }
+            accepted.add(row);
+        }
+        List<CompletableFuture<String>> passwordHashes = accepted
+            .stream()
+            .map(row -> passwordHashingPool.encode(row.entity().password()))
+            .toList();
+        if (!usersToDelete.isEmpty()) {
+            for (User user : usersToDelete.values()) {
+                currentUserResolver.evict(user.getEmail());
+                userService.revokeTokensAfterCommit(user.getId());
             }
-            userRepository.saveAll(usersToSave);
+            userRepository.deleteAll(usersToDelete.values());
+            // Xóa trước khi insert để không vi phạm unique email/phone
+            userRepository.flush();
+        }
+
+        List<User> usersToSave = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            User user = accepted.get(i).entity().user();
+            user.setPassword(passwordHashes.get(i).join());
+            usersToSave.add(user);
         }
+        // Email mới có thể đang được cache là "không tồn tại"
+        currentUserResolver.evict(usersToSave.stream().map(User::getEmail).toArray(String[]::new));
+        userRepository.saveAll(usersToSave);
+        return new ImportChunkResult(usersToSave.size(), errors);
     }
 
-    private String getCellValue(Cell cell) {
-        if (cell == null) {
-            return null;
+    private PendingUser readUser(XlsxRow row, Authority userAuthority) {
+        User user = new User();
+        Double id = row.getNumber(0);
+        if (id != null) {
+            user.setId(id.longValue());
         }
-        if (cell.getCellType() == CellType.STRING) {
-            return cell.getStringCellValue();
-        } else if (cell.getCellType() == CellType.NUMERIC) {
-            return String.valueOf((long) cell.getNumericCellValue());
-        } else if (cell.getCellType() == CellType.BOOLEAN) {
-            return String.valueOf(cell.getBooleanCellValue());
-        } else {
-            return null;
+
+        String password = row.getString(2);
+        if (password == null || password.isBlank()) {
+            throw new IllegalArgumentException("Mật khẩu không được để trống");
+        }
+
+        user.setFirstName(row.getString(3));
+        user.setLastName(row.getString(4));
+
+        String email = row.getString(5);
+        if (email == null || email.isBlank()) {
+            throw new IllegalArgumentException("Email không được để trống");
+        }
+        user.setEmail(email.toLowerCase());
+
+        user.setPhone(row.getString(6));
+        user.setActivated(true);
+        user.setAuthority(userAuthority);
+
+        // Mật khẩu chỉ được băm sau khi dòng qua hết các bước kiểm tra trùng, xem importUserRows
+        validate(user, "password");
+        return new PendingUser(user, password);
+    }
+
+    /**
+     * Kiểm tra ràng buộc của entity ngay khi đọc dòng: vi phạm chỉ làm hỏng dòng đó, không làm rollback cả phần
+     * khi flush (và không làm job lỗi lại đúng chỗ đó mỗi lần chạy tiếp).
+     */
+    private <T> void validate(T entity, String... ignoredProperties) {
+        Set<String> ignored = Set.of(ignoredProperties);
+        String message = validator
+            .validate(entity)
+            .stream()
+            .filter(violation -> !ignored.contains(violation.getPropertyPath().toString()))
+            .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+            .sorted()
+            .collect(Collectors.joining("; "));
+        if (!message.isEmpty()) {
+            throw new IllegalArgumentException("Dữ liệu không hợp lệ - " + message);
         }
     }
+
+    /**
+     * Một dòng đã đọc từ file, giữ lại số dòng để báo lỗi.
+     */
+    private record ImportRow<T>(int rowNum, T entity) {
+        ImportRowError error(String message) {
+            return new ImportRowError(rowNum + 1, message);
+        }
+    }
+
+    /**
+     * Người dùng đã đọc từ file cùng mật khẩu chưa băm.
+     */
+    private record PendingUser(User user, String password) {}
 }
@@ -1,6 +1,7 @@
 package com.mycompany.myapp.service;
 
 import java.time.Instant;
+import org.springframework.security.oauth2.jwt.Jwt;
 
 /**
  * Service Interface cho Token Blacklist operations
@@ -8,12 +9,17 @@ import java.time.Instant;
  */
 public interface ITokenBlacklistService {
     /**
-     * Thêm token vào blacklist với TTL
+     * Thêm token vào blacklist (theo claim {@code jti}) với TTL đến khi token hết hạn
      */
-    void blacklistToken(String token, Instant expiryDate);
+    void blacklistToken(Jwt jwt);
 
     /**
-     * Kiểm tra token có bị blacklist không
+     * Thu hồi mọi token của user được cấp trước {@code issuedBefore}, chỉ ghi một key cho user
      */
-    boolean isBlacklisted(String token);
+    void revokeAllTokens(Long userId, Instant issuedBefore);
+
+    /**
+     * Kiểm tra token có bị blacklist (hoặc bị thu hồi hàng loạt) không
+     */
+    boolean isBlacklisted(Jwt jwt);
 }
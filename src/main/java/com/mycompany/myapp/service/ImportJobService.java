@@ -0,0 +1,483 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.domain.ImportJob;
+import com.mycompany.myapp.domain.ImportJobError;
+import com.mycompany.myapp.domain.enumeration.ImportJobStatus;
+import com.mycompany.myapp.domain.enumeration.ImportJobType;
+import com.mycompany.myapp.repository.ImportJobErrorRepository;
+import com.mycompany.myapp.repository.ImportJobRepository;
+import com.mycompany.myapp.security.SecurityUtils;
+import com.mycompany.myapp.service.dto.ImportJobDTO;
+import com.mycompany.myapp.service.importer.ImportChunkResult;
+import com.mycompany.myapp.service.importer.ImportFileDownloader;
+import com.mycompany.myapp.service.importer.ImportRowError;
+import com.mycompany.myapp.service.importer.XlsxRow;
+import com.mycompany.myapp.service.importer.XlsxRowReader;
+import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Chạy import xlsx trong nền. File được lưu lại, đọc bằng {@link XlsxRowReader} và ghi theo từng phần,
+ * mỗi phần một transaction cùng với checkpoint của job: lỗi giữa chừng chỉ mất phần đang ghi,
+ * và job bị gián đoạn (node dừng, lỗi database) chạy tiếp được từ dòng sau checkpoint.
+ * <p>
+ * Trong lúc chạy, heartbeat được ghi theo timer (không chỉ sau mỗi phần), nên lần tải URL chậm hay một phần băm mật khẩu
+ * lâu không làm job trông như bị bỏ dở. Node chỉ nhận job khi đọc được file của nó (thư mục lưu riêng của node thì
+ * chỉ node đã nhận file), riêng job từ URL thì tải lại được ở node khác.
+ */
+@Service
+public class ImportJobService implements DisposableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ImportJobService.class);
+
+    private static final Set<ImportJobStatus> UNFINISHED = EnumSet.of(ImportJobStatus.QUEUED, ImportJobStatus.RUNNING);
+
+    private final ImportJobRepository importJobRepository;
+    private final ImportJobErrorRepository importJobErrorRepository;
+    private final FileImportService fileImportService;
+    private final ImportFileDownloader importFileDownloader;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationProperties.Import properties;
+    private final ExecutorService executor;
+    private final ScheduledExecutorService heartbeat;
+
+    public ImportJobService(
+        ImportJobRepository importJobRepository,
+        ImportJobErrorRepository importJobErrorRepository,
+        FileImportService fileImportService,
+        ImportFileDownloader importFileDownloader,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties
+    ) {
+        this.importJobRepository = importJobRepository;
+        this.importJobErrorRepository = importJobErrorRepository;
+        this.fileImportService = fileImportService;
+        this.importFileDownloader = importFileDownloader;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = applicationProperties.getImport();
+        this.executor = Executors.newFixedThreadPool(properties.getJobThreads(), new CustomizableThreadFactory("import-job-"));
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("import-heartbeat-"));
+    }
+
+    /**
+     * Lưu file tải lên và tạo job; job bắt đầu chạy sau khi transaction commit.
+     */
+    @Transactional
+    public ImportJobDTO submitFile(ImportJobType type, MultipartFile file) throws IOException {
+        String fileName = file.getOriginalFilename();
+        if (fileName == null || !fileName.toLowerCase(Locale.ROOT).endsWith(".xlsx")) {
+            throw new BadRequestAlertException("Chỉ chấp nhận file Excel định dạng .xlsx", "fileImport", "invalidFileFormat");
+        }
+        Path target = newStorageFile();
+        file.transferTo(target);
+
+        ImportJob job = newJob(type, fileName);
+        job.setFilePath(target.toString());
+        return queue(job);
+    }
+
+    /**
+     * Tạo job import từ URL; file được tải về trong luồng của job, không chiếm luồng request.
+     */
+    @Transactional
+    public ImportJobDTO submitUrl(ImportJobType type, String url) {
+        String trimmed = url == null ? "" : url.trim();
+        String scheme;
+        try {
+            scheme = URI.create(trimmed).getScheme();
+        } catch (IllegalArgumentException e) {
+            scheme = null;
+        }
+        if (scheme == null || !(scheme.equalsIgnoreCase("http") || scheme.equalsIgnoreCase("https"))) {
+            throw new BadRequestAlertException("URL phải sử dụng giao thức HTTP hoặc HTTPS", "fileImport", "invalidUrl");
+        }
+        return queue(newJob(type, trimmed));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<ImportJobDTO> findOne(Long id) {
+        return importJobRepository.findById(id).map(this::toDto);
+    }
+
+    /**
+     * Chạy lại job FAILED từ dòng sau checkpoint.
+     */
+    @Transactional
+    public Optional<ImportJobDTO> resume(Long id) {
+        return importJobRepository
+            .findById(id)
+            .map(job -> {
+                if (job.getStatus() != ImportJobStatus.FAILED) {
+                    throw new BadRequestAlertException("Chỉ chạy lại được job bị lỗi", "importJob", "jobnotfailed");
+                }
+                job.setStatus(ImportJobStatus.QUEUED);
+                job.setLastError(null);
+                job.setFinishedDate(null);
+                return queue(job);
+            });
+    }
+
+    /**
+     * Nhận lại các job mà node đang chạy đã dừng (hoặc chưa node nào nhận) và chạy tiếp từ checkpoint.
+     */
+    @Scheduled(fixedDelayString = "${application.import.stale-after:PT10M}")
+    public void resumeStaleJobs() {
+        Instant before = Instant.now().minus(properties.getStaleAfter());
+        for (ImportJob job : importJobRepository.findAllByStatusInAndHeartbeatDateBefore(UNFINISHED, before)) {
+            LOG.info("Resuming interrupted import job {} after row {}", job.getId(), job.getCheckpointRow() + 1);
+            executor.execute(() -> run(job.getId()));
+        }
+    }
+
+    @Override
+    public void destroy() {
+        // Phần đang ghi bị rollback, job được node khác (hoặc lần khởi động sau) chạy tiếp từ checkpoint
+        executor.shutdownNow();
+        heartbeat.shutdownNow();
+    }
+
+    private ImportJob newJob(ImportJobType type, String source) {
+        ImportJob job = new ImportJob();
+        job.setType(type);
+        job.setStatus(ImportJobStatus.QUEUED);
+        job.setSource(source);
+        job.setCreatedBy(SecurityUtils.getCurrentUserLogin().orElse(null));
+        job.setCreatedDate(Instant.now());
+        return job;
+    }
+
+    private ImportJobDTO queue(ImportJob job) {
+        job.setHeartbeatDate(Instant.now());
+        ImportJob saved = importJobRepository.save(job);
+        Long id = saved.getId();
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    executor.execute(() -> run(id));
+                }
+            }
+        );
+        return toDto(saved);
+    }
+
+    private Path newStorageFile() throws IOException {
+        Path dir = Path.of(properties.getStorageDir());
+        Files.createDirectories(dir);
+        return dir.resolve(UUID.randomUUID() + ".xlsx");
+    }
+
+    private void run(Long id) {
+        Optional<ImportJob> claimed = claim(id);
+        if (claimed.isEmpty()) {
+            return;
+        }
+        JobRun jobRun = new JobRun(claimed.orElseThrow());
+        long interval = Math.max(1000, properties.getStaleAfter().toMillis() / 4);
+        ScheduledFuture<?> beat = heartbeat.scheduleWithFixedDelay(jobRun::beat, interval, interval, TimeUnit.MILLISECONDS);
+        try {
+            jobRun.execute();
+        } catch (JobLostException e) {
+            LOG.info("Import job {} was taken over by another node", id);
+        } catch (Exception e) {
+            LOG.error("Import job {} failed after row {}: {}", id, jobRun.checkpointRow + 1, e.getMessage(), e);
+            jobRun.fail(e);
+        } finally {
+            beat.cancel(false);
+        }
+    }
+
+    /**
+     * Nhận job nếu nó đang chờ, hoặc đang chạy nhưng đã mất heartbeat. Hai node cùng nhận thì @Version chỉ cho một node thắng.
+     */
+    private Optional<ImportJob> claim(Long id) {
+        try {
+            return transactionTemplate.execute(status ->
+                importJobRepository
+                    .findById(id)
+                    .filter(this::isClaimable)
+                    .map(job -> {
+                        Instant now = Instant.now();
+                        job.setStatus(ImportJobStatus.RUNNING);
+                        job.setStartedDate(now);
+                        job.setRunStartRows(job.getProcessedRows());
+                        job.setHeartbeatDate(now);
+                        return importJobRepository.saveAndFlush(job);
+                    })
+            );
+        } catch (OptimisticLockingFailureException e) {
+            return Optional.empty();
+        }
+    }
+
+    private boolean isClaimable(ImportJob job) {
+        if (!hasReadableFile(job)) {
+            return false;
+        }
+        if (job.getStatus() == ImportJobStatus.QUEUED) {
+            return true;
+        }
+        Instant staleBefore = Instant.now().minus(properties.getStaleAfter());
+        return job.getStatus() == ImportJobStatus.RUNNING && job.getHeartbeatDate().isBefore(staleBefore);
+    }
+
+    /**
+     * File đã lưu nằm trên node này (hoặc thư mục dùng chung), hoặc job từ URL có thể tải lại.
+     */
+    private static boolean hasReadableFile(ImportJob job) {
+        return isUrl(job.getSource()) || (job.getFilePath() != null && Files.isReadable(Path.of(job.getFilePath())));
+    }
+
+    private static boolean isUrl(String source) {
+        String lower = source.toLowerCase(Locale.ROOT);
+        return lower.startsWith("http://") || lower.startsWith("https://");
+    }
+
+    private ImportJobDTO toDto(ImportJob job) {
+        ImportJobDTO dto = new ImportJobDTO();
+        dto.setId(job.getId());
+        dto.setType(job.getType());
+        dto.setStatus(job.getStatus());
+        dto.setSource(job.getSource());
+        dto.setTotalRows(job.getTotalRows());
+        dto.setProcessedRows(job.getProcessedRows());
+        dto.setImportedRows(job.getImportedRows());
+        dto.setFailedRows(job.getFailedRows());
+        dto.setLastError(job.getLastError());
+        dto.setCreatedDate(job.getCreatedDate());
+        dto.setStartedDate(job.getStartedDate());
+        dto.setFinishedDate(job.getFinishedDate());
+
+        // Tốc độ của lần chạy hiện tại (hoặc lần chạy cuối), không tính các dòng đã ghi trước khi chạy tiếp
+        if (job.getStartedDate() != null) {
+            Instant end = job.getFinishedDate() != null ? job.getFinishedDate() : Instant.now();
+            double seconds = Duration.between(job.getStartedDate(), end).toMillis() / 1000.0;
+            int rows = job.getProcessedRows() - job.getRunStartRows();
+            if (seconds > 0 && rows > 0) {
+                double rowsPerSecond = rows / seconds;
+                dto.setRowsPerSecond(rowsPerSecond);
+                if (job.getStatus() == ImportJobStatus.RUNNING && job.getTotalRows() != null) {
+                    dto.setEtaSeconds(Math.round(Math.max(0, job.getTotalRows() - job.getProcessedRows()) / rowsPerSecond));
+                }
+            }
+        }
+        if (job.getId() != null && job.getFailedRows() > 0) {
+            dto.setErrors(
+                importJobErrorRepository
+                    .findAllByJobIdOrderByRowNumber(job.getId())
+                    .stream()
+                    .map(error -> new ImportRowError(error.getRowNumber(), error.getMessage()))
+                    .toList()
+            );
+        }
+        return dto;
+    }
+
+    /**
+     * Job đã bị node khác nhận lại trong lúc node này đang chạy.
+     */
+    private static final class JobLostException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+    }
+
+    /**
+     * Trạng thái của một lần chạy job trên node này.
+     */
+    private final class JobRun {
+
+        private final Long jobId;
+        private final ImportJobType type;
+        private final String source;
+        private final List<XlsxRow> buffer;
+        private String filePath;
+        private Integer totalRows;
+        /**
+         * Đọc cả từ luồng heartbeat.
+         */
+        private volatile Integer version;
+        private int checkpointRow;
+
+        private JobRun(ImportJob job) {
+            this.jobId = job.getId();
+            this.type = job.getType();
+            this.source = job.getSource();
+            this.filePath = job.getFilePath();
+            this.totalRows = job.getTotalRows();
+            this.version = job.getVersion();
+            this.checkpointRow = job.getCheckpointRow();
+            this.buffer = new ArrayList<>(properties.getChunkSize());
+        }
+
+        private void execute() throws IOException {
+            // File tải về ở node khác không có trên node này: tải lại
+            if (filePath == null || !Files.isReadable(Path.of(filePath))) {
+                Path downloaded = download();
+                try {
+                    update(job -> job.setFilePath(downloaded.toString()));
+                } catch (RuntimeException e) {
+                    Files.deleteIfExists(downloaded);
+                    throw e;
+                }
+                filePath = downloaded.toString();
+            }
+            Path file = Path.of(filePath);
+            if (totalRows == null) {
+                Integer rows = XlsxRowReader.countRows(file);
+                if (rows != null) {
+                    // Không tính dòng tiêu đề
+                    update(job -> job.setTotalRows(Math.max(0, rows - 1)));
+                }
+            }
+
+            if (checkpointRow > 0) {
+                LOG.info("Import job {} continues after row {}", jobId, checkpointRow + 1);
+            }
+            XlsxRowReader.readFirstSheet(file, true, row -> {
+                // Các dòng đến checkpoint đã được ghi ở lần chạy trước
+                if (row.getRowNum() <= checkpointRow) {
+                    return;
+                }
+                buffer.add(row);
+                if (buffer.size() >= properties.getChunkSize()) {
+                    commitChunk();
+                }
+            });
+            commitChunk();
+
+            update(job -> {
+                job.setStatus(ImportJobStatus.COMPLETED);
+                job.setFinishedDate(Instant.now());
+            });
+            Files.deleteIfExists(file);
+        }
+
+        private Path download() throws IOException {
+            Path target = newStorageFile();
+            importFileDownloader.download(URI.create(source), target);
+            return target;
+        }
+
+        /**
+         * Ghi phần đang đệm và checkpoint trong cùng một transaction.
+         */
+        private void commitChunk() {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            int lastRow = buffer.get(buffer.size() - 1).getRowNum();
+            version = transactionTemplate.execute(status -> {
+                ImportJob job = ownedJob();
+                ImportChunkResult result = type == ImportJobType.PRODUCTS
+                    ? fileImportService.importProductRows(buffer)
+                    : fileImportService.importUserRows(buffer);
+
+                int room = properties.getMaxStoredErrors() - job.getFailedRows();
+                if (room > 0 && !result.errors().isEmpty()) {
+                    importJobErrorRepository.saveAll(
+                        result
+                            .errors()
+                            .stream()
+                            .limit(room)
+                            .map(error -> new ImportJobError(jobId, error.rowNumber(), truncate(error.message())))
+                            .toList()
+                    );
+                }
+                job.setProcessedRows(job.getProcessedRows() + buffer.size());
+                job.setImportedRows(job.getImportedRows() + result.imported());
+                job.setFailedRows(job.getFailedRows() + result.errors().size());
+                job.setCheckpointRow(lastRow);
+                job.setHeartbeatDate(Instant.now());
+                return importJobRepository.saveAndFlush(job).getVersion();
+            });
+            checkpointRow = lastRow;
+            buffer.clear();
+            LOG.debug("Import job {} committed up to row {}", jobId, lastRow + 1);
+        }
+
+        private void update(Consumer<ImportJob> change) {
+            version = transactionTemplate.execute(status -> {
+                ImportJob job = ownedJob();
+                change.accept(job);
+                job.setHeartbeatDate(Instant.now());
+                return importJobRepository.saveAndFlush(job).getVersion();
+            });
+        }
+
+        /**
+         * Chạy trên luồng heartbeat; mất job thì luồng chính phát hiện ở lần ghi tiếp theo.
+         */
+        private void beat() {
+            try {
+                Integer updated = transactionTemplate.execute(status -> importJobRepository.touchHeartbeat(jobId, version, Instant.now()));
+                if (updated == null || updated == 0) {
+                    LOG.debug("Import job {} is no longer owned by this node", jobId);
+                }
+            } catch (RuntimeException e) {
+                LOG.warn("Could not write heartbeat of import job {}: {}", jobId, e.getMessage());
+            }
+        }
+
+        private void fail(Exception e) {
+            try {
+                update(job -> {
+                    job.setStatus(ImportJobStatus.FAILED);
+                    job.setLastError(truncate(e.getMessage()));
+                    job.setFinishedDate(Instant.now());
+                });
+            } catch (RuntimeException updateError) {
+                LOG.warn("Could not mark import job {} as failed: {}", jobId, updateError.getMessage());
+            }
+        }
+
+        /**
+         * Đọc lại job và kiểm tra node này vẫn giữ nó (version không đổi từ lần ghi trước).
+         */
+        private ImportJob ownedJob() {
+            ImportJob job = importJobRepository.findById(jobId).orElseThrow(JobLostException::new);
+            if (!job.getVersion().equals(version) || job.getStatus() != ImportJobStatus.RUNNING) {
+                throw new JobLostException();
+            }
+            return job;
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return "Lỗi không xác định";
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
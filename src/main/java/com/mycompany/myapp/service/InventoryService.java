@@ -0,0 +1,114 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.domain.Product;
+import com.mycompany.myapp.repository.ProductRepository;
+import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Giữ hàng cho đơn hàng bằng lệnh UPDATE có điều kiện thay vì đọc-sửa-ghi trong Java,
+ * nên nhiều người mua cùng lúc không thể bán vượt tồn kho.
+ */
+@Service
+@Transactional
+public class InventoryService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(InventoryService.class);
+
+    public static final String RESERVATIONS_METER_NAME = "inventory.reservations";
+
+    private final ProductRepository productRepository;
+    private final ProductService productService;
+    private final ProductStockShardService stockShardService;
+    private final ProductSearchService productSearchService;
+
+    private final Counter reservedCounter;
+    private final Counter insufficientStockCounter;
+    private final Counter conflictCounter;
+
+    public InventoryService(
+        ProductRepository productRepository,
+        ProductService productService,
+        ProductStockShardService stockShardService,
+        ProductSearchService productSearchService,
+        MeterRegistry meterRegistry
+    ) {
+        this.productRepository = productRepository;
+        this.productService = productService;
+        this.stockShardService = stockShardService;
+        this.productSearchService = productSearchService;
+        this.reservedCounter = reservationsCounter(meterRegistry, "reserved");
+        this.insufficientStockCounter = reservationsCounter(meterRegistry, "insufficient-stock");
+        this.conflictCounter = reservationsCounter(meterRegistry, "conflict");
+    }
+
+    private static Counter reservationsCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(RESERVATIONS_METER_NAME)
+            .description("Stock reservations by outcome; conflict means stock ran out between the read and the update")
+            .tag("result", result)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Trừ tồn kho cho tất cả sản phẩm của một đơn, hoặc không trừ gì cả.
+     *
+     * @param quantities số lượng cần giữ theo id sản phẩm.
+     * @throws BadRequestAlertException nếu sản phẩm không tồn tại hoặc không còn đủ hàng;
+     *         transaction bị rollback nên các dòng đã trừ trong batch cũng được hoàn lại.
+     */
+    public void reserve(Map<Long, Integer> quantities) {
+        // Luôn khóa các dòng theo thứ tự id tăng dần để hai đơn chéo nhau không deadlock
+        Map<Long, Integer> sorted = new TreeMap<>(quantities);
+
+        // Kiểm tra sớm để trả lỗi rõ ràng; lệnh UPDATE bên dưới mới là nơi quyết định
+        Map<Long, Product> products = productRepository
+            .findAllById(sorted.keySet())
+            .stream()
+            .collect(Collectors.toMap(Product::getId, Function.identity()));
+        sorted.forEach((productId, quantity) -> {
+            Product product = products.get(productId);
+            if (product == null) {
+                throw new BadRequestAlertException("Product not found", "order", "productNotFound");
+            }
+            if (product.getQuantity() < quantity) {
+                insufficientStockCounter.increment();
+                throw notEnoughStock(product.getName() + ". Available: " + product.getQuantity());
+            }
+        });
+
+        // Sản phẩm hot trừ trên shard, các sản phẩm còn lại trừ thẳng trên jhi_product trong một batch
+        Map<Long, Integer> shardCounts = stockShardService.findShardCounts(sorted.keySet());
+        Map<Long, Integer> unsharded = new TreeMap<>(sorted);
+        unsharded.keySet().removeAll(shardCounts.keySet());
+        List<Long> rejected = new ArrayList<>(productRepository.reserveStock(unsharded));
+        shardCounts.forEach((productId, shardCount) -> {
+            if (!stockShardService.reserve(productId, sorted.get(productId), shardCount)) {
+                rejected.add(productId);
+            }
+        });
+        if (!rejected.isEmpty()) {
+            conflictCounter.increment();
+            LOG.debug("Stock reservation lost the race for products {}", rejected);
+            throw notEnoughStock(products.get(rejected.get(0)).getName());
+        }
+        reservedCounter.increment();
+        // Sản phẩm hot không đổi dòng jhi_product, cache và index tìm kiếm được cập nhật khi đối soát
+        productService.evictFromCache(unsharded.keySet());
+        productSearchService.refreshAfterCommit(unsharded.keySet());
+    }
+
+    private static BadRequestAlertException notEnoughStock(String detail) {
+        return new BadRequestAlertException("Not enough stock for product: " + detail, "order", "notEnoughStock");
+    }
+}
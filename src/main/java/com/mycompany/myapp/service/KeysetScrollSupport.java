@@ -0,0 +1,40 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
+import java.util.HashSet;
+import java.util.Set;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Kiểm tra sort và cursor trước khi scroll theo keyset.
+ * <p>
+ * Chỉ cho phép sắp xếp theo các cột NOT NULL có index (id luôn được thêm vào cuối làm khóa phụ), và cursor phải
+ * mang đúng các cột của sort hiện tại, nếu không thì seek sẽ trả sai trang.
+ */
+final class KeysetScrollSupport {
+
+    static final String ID = "id";
+
+    private KeysetScrollSupport() {}
+
+    static Sort validate(Sort sort, KeysetScrollPosition position, Set<String> sortable, String entityName) {
+        Sort sortToUse = sort.isSorted() ? sort : Sort.by(ID);
+        Set<String> properties = new HashSet<>();
+        for (Sort.Order order : sortToUse) {
+            if (!sortable.contains(order.getProperty())) {
+                throw new BadRequestAlertException(
+                    "Không thể phân trang theo cursor với sort " + order.getProperty(),
+                    entityName,
+                    "sortnotsupported"
+                );
+            }
+            properties.add(order.getProperty());
+        }
+        properties.add(ID);
+        if (!position.isInitial() && !position.getKeys().keySet().equals(properties)) {
+            throw new BadRequestAlertException("Cursor không khớp với sort hiện tại", entityName, "invalidcursor");
+        }
+        return sortToUse;
+    }
+}
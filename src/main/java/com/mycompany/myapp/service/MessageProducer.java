@@ -1,38 +1,74 @@
 package com.mycompany.myapp.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mycompany.myapp.config.RabbitMQConfig;
+import com.mycompany.myapp.domain.OutboxEvent;
+import com.mycompany.myapp.repository.OutboxEventRepository;
 import com.mycompany.myapp.service.dto.OrderEventDTO;
+import com.mycompany.myapp.service.dto.OrderIntentDTO;
 import com.mycompany.myapp.service.dto.UserRegistrationEventDTO;
+import java.time.Instant;
+import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class MessageProducer {
 
     private final Logger log = LoggerFactory.getLogger(MessageProducer.class);
     private final RabbitTemplate rabbitTemplate;
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
 
-    public MessageProducer(RabbitTemplate rabbitTemplate) {
+    public MessageProducer(RabbitTemplate rabbitTemplate, OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
         this.rabbitTemplate = rabbitTemplate;
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
     }
 
+    /**
+     * Ghi sự kiện vào outbox trong transaction của đơn hàng; {@link OutboxRelay} gửi lên RabbitMQ sau khi commit.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
     public void sendOrderCreatedEvent(OrderEventDTO event) {
-        try {
-            rabbitTemplate.convertAndSend(RabbitMQConfig.APP_EXCHANGE, RabbitMQConfig.ORDER_CREATED_KEY, event);
-            log.info("Sent order created event for order: {}", event.getOrderCode());
-        } catch (Exception e) {
-            log.error("Failed to send order created event: {}", e.getMessage());
-        }
+        saveToOutbox(RabbitMQConfig.ORDER_CREATED_KEY, event);
+        log.info("Stored order created event for order: {}", event.getOrderCode());
     }
 
+    @Transactional(propagation = Propagation.MANDATORY)
     public void sendUserRegisteredEvent(UserRegistrationEventDTO event) {
+        saveToOutbox(RabbitMQConfig.USER_REGISTERED_KEY, event);
+        log.info("Stored user registered event for user: {}", event.getEmail());
+    }
+
+    /**
+     * Không nuốt lỗi: caller cần biết message chưa vào hàng đợi để xử lý đồng bộ thay thế.
+     * Không đi qua outbox vì chính message này là hàng đợi công việc, đơn QUEUED đã được commit trước đó.
+     */
+    public void sendOrderIntent(OrderIntentDTO intent) {
+        rabbitTemplate.convertAndSend(RabbitMQConfig.APP_EXCHANGE, RabbitMQConfig.ORDER_INTENT_KEY, intent);
+        log.debug("Queued order intent for order: {}", intent.getOrderId());
+    }
+
+    private void saveToOutbox(String routingKey, Object payload) {
+        Instant now = Instant.now();
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setEventId(UUID.randomUUID().toString());
+        outboxEvent.setExchange(RabbitMQConfig.APP_EXCHANGE);
+        outboxEvent.setEventType(routingKey);
+        outboxEvent.setPayloadType(payload.getClass().getName());
         try {
-            rabbitTemplate.convertAndSend(RabbitMQConfig.APP_EXCHANGE, RabbitMQConfig.USER_REGISTERED_KEY, event);
-            log.info("Sent user registered event for user: {}", event.getEmail());
-        } catch (Exception e) {
-            log.error("Failed to send user registered event: {}", e.getMessage());
+            outboxEvent.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + routingKey + " event", e);
         }
+        outboxEvent.setCreatedDate(now);
+        outboxEvent.setNextAttemptDate(now);
+        outboxEventRepository.save(outboxEvent);
     }
 }
@@ -0,0 +1,41 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.config.RabbitMQConfig;
+import com.mycompany.myapp.service.dto.OrderIntentDTO;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Service;
+
+@Service
+public class OrderIntentConsumer {
+
+    private final Logger log = LoggerFactory.getLogger(OrderIntentConsumer.class);
+    private final CheckoutService checkoutService;
+
+    public OrderIntentConsumer(CheckoutService checkoutService) {
+        this.checkoutService = checkoutService;
+    }
+
+    /**
+     * Mỗi đơn chạy trong transaction riêng, một đơn hết hàng không làm hỏng cả lô.
+     * <p>
+     * Đơn lỗi vì lý do khác được đánh dấu REJECTED ngay tại đây thay vì ném ra container: nếu ném ra, cả lô bị
+     * requeue và đơn lỗi được giao lại mãi. Chỉ khi không ghi được REJECTED (database lỗi) thì lô mới bị ném ra và
+     * đi thẳng vào {@link RabbitMQConfig#ORDER_INTENT_DLQ}; các đơn đã xử lý trong lô sẽ bị bỏ qua khi replay vì không
+     * còn QUEUED.
+     */
+    @RabbitListener(queues = RabbitMQConfig.ORDER_INTENT_QUEUE, containerFactory = RabbitMQConfig.ORDER_INTENT_CONTAINER_FACTORY)
+    public void handleOrderIntents(List<OrderIntentDTO> intents) {
+        log.debug("Received {} queued orders", intents.size());
+        for (OrderIntentDTO intent : intents) {
+            try {
+                checkoutService.process(intent);
+            } catch (RuntimeException e) {
+                log.error("Queued order {} failed, marking it rejected", intent.getOrderId(), e);
+                checkoutService.reject(intent.getOrderId());
+            }
+        }
+    }
+}
@@ -3,29 +3,41 @@ package com.mycompany.myapp.service;
 import com.mycompany.myapp.domain.Cart;
 import com.mycompany.myapp.domain.Order;
 import com.mycompany.myapp.domain.OrderItem;
-import com.mycompany.myapp.domain.Product;
 import com.mycompany.myapp.domain.User;
 import com.mycompany.myapp.domain.enumeration.OrderStatus;
 import com.mycompany.myapp.repository.CartRepository;
 import com.mycompany.myapp.repository.OrderItemRepository;
 import com.mycompany.myapp.repository.OrderRepository;
-import com.mycompany.myapp.repository.ProductRepository;
 import com.mycompany.myapp.repository.UserRepository;
+import com.mycompany.myapp.security.CurrentUserResolver;
 import com.mycompany.myapp.security.SecurityUtils;
 import com.mycompany.myapp.service.dto.OrderDTO;
 import com.mycompany.myapp.service.dto.OrderEventDTO;
 import com.mycompany.myapp.service.dto.OrderItemDTO;
+import com.mycompany.myapp.web.rest.dto.OrderSearchDTO;
 import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
 import java.time.Instant;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.EscapeCharacter;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -33,29 +45,44 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class OrderService {
 
+    private static final String ENTITY_NAME = "order";
+
+    /**
+     * Cột NOT NULL có index, dùng được cho cursor keyset.
+     */
+    private static final Set<String> KEYSET_SORTABLE = Set.of("id", "orderDate");
+
+    /**
+     * Tìm kiếm đơn luôn sắp xếp theo (orderDate, id) giảm dần, cursor phải mang đúng hai khóa này.
+     */
+    private static final Set<String> SEARCH_CURSOR_KEYS = Set.of("orderDate", "id");
+
     private final Logger log = LoggerFactory.getLogger(OrderService.class);
 
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
-    private final ProductRepository productRepository;
     private final UserRepository userRepository;
     private final CartRepository cartRepository;
     private final MessageProducer messageProducer;
+    private final InventoryService inventoryService;
+    private final CurrentUserResolver currentUserResolver;
 
     public OrderService(
         OrderRepository orderRepository,
         OrderItemRepository orderItemRepository,
-        ProductRepository productRepository,
         UserRepository userRepository,
         CartRepository cartRepository,
-        MessageProducer messageProducer
+        MessageProducer messageProducer,
+        InventoryService inventoryService,
+        CurrentUserResolver currentUserResolver
     ) {
         this.orderRepository = orderRepository;
         this.orderItemRepository = orderItemRepository;
-        this.productRepository = productRepository;
         this.userRepository = userRepository;
         this.cartRepository = cartRepository;
         this.messageProducer = messageProducer;
+        this.inventoryService = inventoryService;
+        this.currentUserResolver = currentUserResolver;
     }
 
     /**
@@ -70,15 +97,54 @@ public class OrderService {
     }
 
     public Order create(OrderDTO orderDTO) {
+        Order order = newOrder(orderDTO, currentCustomer(), OrderStatus.PENDING);
+        return placeOrder(order, orderDTO);
+    }
+
+    /**
+     * Chế độ checkout bất đồng bộ: chỉ ghi phần đầu đơn hàng với trạng thái {@link OrderStatus#QUEUED},
+     * việc giữ hàng và ghi các dòng được {@link #processQueued(Long, OrderDTO)} làm sau.
+     */
+    public Order enqueue(OrderDTO orderDTO) {
+        return orderRepository.save(newOrder(orderDTO, currentCustomer(), OrderStatus.QUEUED));
+    }
+
+    /**
+     * Proxy của user đang đăng nhập (chỉ có id, không truy vấn bảng user), {@code null} với khách vãng lai.
+     */
+    private User currentCustomer() {
+        return currentUserResolver.getCurrentUserId().map(userRepository::getReferenceById).orElse(null);
+    }
+
+    /**
+     * Xử lý một đơn đang chờ bằng đúng logic của {@link #create(OrderDTO)}.
+     * <p>
+     * Outbox giao message ít nhất một lần, nên đơn được nhận (QUEUED → PENDING bằng một lệnh UPDATE có điều kiện)
+     * trước khi giữ hàng: bản sao thứ hai của message chờ khóa dòng rồi thấy đơn không còn QUEUED và bỏ qua.
+     *
+     * @throws BadRequestAlertException nếu hết hàng; transaction rollback (đơn trở lại QUEUED), caller gọi {@link #reject(Long)}.
+     */
+    public Optional<Order> processQueued(Long orderId, OrderDTO orderDTO) {
+        if (orderRepository.transitionStatus(orderId, OrderStatus.QUEUED, OrderStatus.PENDING) == 0) {
+            log.debug("Order {} is no longer queued, skipping", orderId);
+            return Optional.empty();
+        }
+        Order order = orderRepository.findById(orderId).orElseThrow();
+        return Optional.of(placeOrder(order, orderDTO));
+    }
+
+    public void reject(Long orderId) {
+        orderRepository.transitionStatus(orderId, OrderStatus.QUEUED, OrderStatus.REJECTED);
+    }
+
+    private Order newOrder(OrderDTO orderDTO, User customer, OrderStatus status) {
         Order order = new Order();
         order.setOrderDate(Instant.now());
         order.setTotalAmount(orderDTO.getTotalAmount());
-        order.setStatus(OrderStatus.PENDING);
+        order.setStatus(status);
         order.setOrderCode("ORD-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
         order.setNotes(orderDTO.getNotes());
-
-        Optional<User> currentUser = SecurityUtils.getCurrentUserLogin().flatMap(userRepository::findOneWithAuthoritiesByEmailOrPhone);
-        currentUser.ifPresent(order::setCustomer);
+        order.setCustomer(customer);
 
         if (orderDTO.getCustomerInfo() != null) {
             order.setCustomerFullName(orderDTO.getCustomerInfo().getFullName());
@@ -87,47 +153,40 @@ public class OrderService {
             order.setDeliveryAddress(orderDTO.getCustomerInfo().getAddress());
             order.setPaymentMethod(orderDTO.getCustomerInfo().getPaymentMethod());
         }
+        return order;
+    }
+
+    private Order placeOrder(Order order, OrderDTO orderDTO) {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (OrderItemDTO itemDTO : orderDTO.getItems()) {
+            quantities.merge(itemDTO.getProductId(), itemDTO.getQuantity(), Integer::sum);
+        }
+        // Giữ hàng trước khi ghi đơn: lỗi hết hàng không để lại đơn dở dang
+        inventoryService.reserve(quantities);
 
         Order savedOrder = orderRepository.save(order);
 
-        Set<OrderItem> orderItems = new HashSet<>();
+        List<OrderItem> orderItems = new ArrayList<>();
         for (OrderItemDTO itemDTO : orderDTO.getItems()) {
-            Product product = productRepository
-                .findById(itemDTO.getProductId())
-                .orElseThrow(() -> new BadRequestAlertException("Product not found", "order", "productNotFound"));
-
-            if (product.getQuantity() < itemDTO.getQuantity()) {
-                throw new BadRequestAlertException(
-                    "Not enough stock for product: " + product.getName() + ". Available: " + product.getQuantity(),
-                    "order",
-                    "notEnoughStock"
-                );
-            }
-
             OrderItem orderItem = new OrderItem();
             orderItem.setProductId(itemDTO.getProductId());
             orderItem.setProductName(itemDTO.getProductName());
             orderItem.setQuantity(itemDTO.getQuantity());
             orderItem.setPrice(itemDTO.getPrice());
-            orderItem.setOrder(savedOrder);
             orderItems.add(orderItem);
-
-            product.setQuantity(product.getQuantity() - itemDTO.getQuantity());
-            product.setSalesCount(product.getSalesCount() + itemDTO.getQuantity());
-            productRepository.save(product);
         }
-        orderItemRepository.saveAll(orderItems);
-        savedOrder.setItems(orderItems);
+        orderItemRepository.insertAll(savedOrder, orderItems);
 
         // Clear the user's cart
-        currentUser.ifPresent(user -> {
+        User customer = savedOrder.getCustomer();
+        if (customer != null) {
             cartRepository
-                .findOneByUser_Email(user.getEmail())
+                .findOneByUser_Id(customer.getId())
                 .ifPresent(cart -> {
-                    log.debug("Deleting cart {} for user {}", cart.getId(), user.getEmail());
+                    log.debug("Deleting cart {} for user {}", cart.getId(), customer.getId());
                     cartRepository.delete(cart);
                 });
-        });
+        }
 
         String customerName = savedOrder.getCustomerFullName() != null ? savedOrder.getCustomerFullName() : "Khách hàng";
 
@@ -143,15 +202,90 @@ public class OrderService {
         return savedOrder;
     }
 
+    /**
+     * Trang đơn hàng kèm customer và items: phân trang id trước, sau đó nạp đồ thị của đúng các id đó,
+     * nên chi phí theo kích thước trang chứ không theo kích thước bảng.
+     */
     @Transactional(readOnly = true)
     public Page<Order> findAll(Pageable pageable) {
-        return orderRepository.findAllOrders(pageable);
+        Page<Long> ids = orderRepository.findAllIds(pageable);
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, ids.getTotalElements());
+        }
+        Map<Long, Order> orders = new HashMap<>();
+        for (Order order : orderRepository.findAllWithCustomerAndItemsByIdIn(ids.getContent())) {
+            orders.put(order.getId(), order);
+        }
+        // Giữ thứ tự của trang id; đơn bị xóa giữa hai query thì bỏ qua
+        List<Order> content = ids.getContent().stream().map(orders::get).filter(Objects::nonNull).toList();
+        return new PageImpl<>(content, pageable, ids.getTotalElements());
+    }
+
+    /**
+     * Đơn hàng sau {@code position} theo keyset, không đếm tổng và không OFFSET.
+     * Trang id được seek trước, sau đó customer và items của cả trang nạp bằng một query.
+     */
+    @Transactional(readOnly = true)
+    public Window<Order> scroll(KeysetScrollPosition position, Sort sort, int size, String orderCode) {
+        log.debug("Request to scroll Orders after {} with orderCode: {}", position, orderCode);
+        Sort sortToUse = KeysetScrollSupport.validate(sort, position, KEYSET_SORTABLE, ENTITY_NAME);
+        Specification<Order> specification = (root, query, criteriaBuilder) -> {
+            if (orderCode == null || orderCode.isEmpty()) {
+                return null;
+            }
+            String pattern = "%" + EscapeCharacter.DEFAULT.escape(orderCode.toLowerCase(Locale.ROOT)) + "%";
+            char escape = EscapeCharacter.DEFAULT.getEscapeCharacter();
+            return criteriaBuilder.like(criteriaBuilder.lower(root.get("orderCode")), pattern, escape);
+        };
+        Window<Order> window = orderRepository.findBy(specification, query -> query.sortBy(sortToUse).limit(size).scroll(position));
+        if (!window.isEmpty()) {
+            orderRepository.findAllWithCustomerAndItemsByIdIn(window.stream().map(Order::getId).toList());
+        }
+        return window;
     }
 
     @Transactional(readOnly = true)
     public Page<Order> findByOrderCodeContaining(String orderCode, Pageable pageable) {
         log.debug("Request to find Orders by orderCode containing: {}", orderCode);
-        return orderRepository.findByOrderCodeContainingIgnoreCase(orderCode, pageable);
+        Page<Order> page = orderRepository.findByOrderCodeContainingIgnoreCase(orderCode, pageable);
+        if (page.hasContent()) {
+            // Khởi tạo customer/items của cả trang bằng một query thay vì lazy load từng đơn khi serialize
+            orderRepository.findAllWithCustomerAndItemsByIdIn(page.map(Order::getId).getContent());
+        }
+        return page;
+    }
+
+    /**
+     * Tìm đơn theo tiền tố mã đơn, tên khách hoặc email, phân trang theo cursor (orderDate, id) giảm dần.
+     */
+    @Transactional(readOnly = true)
+    public Window<OrderSearchDTO> searchOrders(String searchTerm, KeysetScrollPosition position, int size) {
+        log.debug("Request to search Orders by term: {} after {}", searchTerm, position);
+        if (!position.isInitial() && !position.getKeys().keySet().equals(SEARCH_CURSOR_KEYS)) {
+            throw new BadRequestAlertException("Cursor không khớp với sort hiện tại", ENTITY_NAME, "invalidcursor");
+        }
+        Instant afterDate = null;
+        Long afterId = null;
+        if (!position.isInitial()) {
+            try {
+                afterDate = (Instant) position.getKeys().get("orderDate");
+                afterId = (Long) position.getKeys().get(KeysetScrollSupport.ID);
+            } catch (ClassCastException e) {
+                throw new BadRequestAlertException("Cursor không hợp lệ", ENTITY_NAME, "invalidcursor");
+            }
+        }
+        // Lấy dư một dòng để biết còn trang sau hay không
+        List<OrderSearchDTO> rows = orderRepository.searchOrders(searchTerm, afterDate, afterId, size + 1);
+        boolean hasNext = rows.size() > size;
+        List<OrderSearchDTO> content = hasNext ? rows.subList(0, size) : rows;
+        return Window.from(
+            content,
+            index ->
+                ScrollPosition.forward(
+                    Map.of("orderDate", content.get(index).getOrderDate(), KeysetScrollSupport.ID, content.get(index).getId())
+                ),
+            hasNext
+        );
     }
 
     public Optional<Order> findOne(Long id) {
@@ -0,0 +1,201 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.domain.OutboxEvent;
+import com.mycompany.myapp.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Gửi các sự kiện trong outbox lên RabbitMQ theo lô và chỉ đánh dấu đã gửi khi broker xác nhận.
+ * <p>
+ * Mỗi lần chạy dùng hai transaction ngắn: transaction đầu khóa lô và dời {@code nextAttemptDate} qua hết thời gian
+ * chờ xác nhận để node khác bỏ qua, transaction sau ghi kết quả. Việc chờ broker xác nhận nằm ngoài transaction
+ * nên không giữ kết nối DB hay khóa dòng trong lúc chờ.
+ * <p>
+ * Gửi ít nhất một lần: nếu node chết sau khi gửi nhưng trước khi ghi kết quả, lô đó được gửi lại khi hết hạn giữ.
+ * Consumer bỏ qua bản trùng theo message id (= {@code eventId}), xem {@link ProcessedEventService}.
+ */
+@Service
+public class OutboxRelay {
+
+    private static final Logger LOG = LoggerFactory.getLogger(OutboxRelay.class);
+
+    /**
+     * Thời gian giữ lô thêm sau {@code confirmTimeout}, đủ cho transaction ghi kết quả commit trước khi node khác lấy lại.
+     */
+    static final Duration CLAIM_MARGIN = Duration.ofMinutes(1);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final RabbitTemplate rabbitTemplate;
+    private final ApplicationProperties.Outbox properties;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final MultiGauge pendingGauge;
+    private final MultiGauge oldestPendingAgeGauge;
+
+    public OutboxRelay(
+        OutboxEventRepository outboxEventRepository,
+        RabbitTemplate rabbitTemplate,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.rabbitTemplate = rabbitTemplate;
+        this.properties = applicationProperties.getOutbox();
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pendingGauge = MultiGauge.builder("outbox.pending").description("Outbox events not yet confirmed by the broker").register(
+            meterRegistry
+        );
+        this.oldestPendingAgeGauge = MultiGauge.builder("outbox.oldest.pending.age")
+            .description("Age of the oldest unpublished outbox event")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${application.outbox.relay-interval:PT1S}")
+    public void relay() {
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> claimNextBatch());
+        if (!batch.isEmpty()) {
+            publish(batch);
+            transactionTemplate.executeWithoutResult(status -> outboxEventRepository.saveAll(batch));
+        }
+        recordPending();
+    }
+
+    private List<OutboxEvent> claimNextBatch() {
+        Instant now = Instant.now();
+        List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(now, properties.getBatchSize());
+        Instant claimedUntil = now.plus(properties.getConfirmTimeout()).plus(CLAIM_MARGIN);
+        batch.forEach(event -> event.setNextAttemptDate(claimedUntil));
+        return batch;
+    }
+
+    private void publish(List<OutboxEvent> batch) {
+        Map<OutboxEvent, CorrelationData> inFlight = new LinkedHashMap<>();
+        for (OutboxEvent event : batch) {
+            CorrelationData correlationData = new CorrelationData(event.getEventId());
+            try {
+                rabbitTemplate.send(event.getExchange(), event.getEventType(), toMessage(event), correlationData);
+                inFlight.put(event, correlationData);
+            } catch (AmqpException e) {
+                failed(event, e.getMessage());
+            }
+        }
+
+        long deadline = System.nanoTime() + properties.getConfirmTimeout().toNanos();
+        for (Map.Entry<OutboxEvent, CorrelationData> entry : inFlight.entrySet()) {
+            OutboxEvent event = entry.getKey();
+            try {
+                CorrelationData.Confirm confirm = entry
+                    .getValue()
+                    .getFuture()
+                    .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (confirm.isAck()) {
+                    published(event);
+                } else {
+                    failed(event, "nack: " + confirm.getReason());
+                }
+            } catch (TimeoutException e) {
+                failed(event, "no publisher confirm within " + properties.getConfirmTimeout());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed(event, "interrupted");
+            } catch (Exception e) {
+                failed(event, e.getMessage());
+            }
+        }
+    }
+
+    private Message toMessage(OutboxEvent event) {
+        return MessageBuilder.withBody(event.getPayload().getBytes(StandardCharsets.UTF_8))
+            .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+            .setContentEncoding(StandardCharsets.UTF_8.name())
+            .setMessageId(event.getEventId())
+            .setDeliveryMode(MessageDeliveryMode.PERSISTENT)
+            .setHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, event.getPayloadType())
+            .build();
+    }
+
+    private void published(OutboxEvent event) {
+        Instant now = Instant.now();
+        event.setPublishedDate(now);
+        event.setLastError(null);
+        Timer.builder("outbox.publish.lag")
+            .description("Time from outbox write to broker confirm")
+            .tag("type", event.getEventType())
+            .register(meterRegistry)
+            .record(Duration.between(event.getCreatedDate(), now));
+    }
+
+    private void failed(OutboxEvent event, String error) {
+        int attempts = event.getAttempts() + 1;
+        Duration backoff = properties.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+        if (backoff.compareTo(properties.getMaxBackoff()) > 0) {
+            backoff = properties.getMaxBackoff();
+        }
+        event.setAttempts(attempts);
+        event.setNextAttemptDate(Instant.now().plus(backoff));
+        event.setLastError(error != null && error.length() > 500 ? error.substring(0, 500) : error);
+        Counter.builder("outbox.publish.failures").tag("type", event.getEventType()).register(meterRegistry).increment();
+        LOG.warn(
+            "Could not publish outbox event {} ({}), attempt {}, retrying in {}: {}",
+            event.getEventId(),
+            event.getEventType(),
+            attempts,
+            backoff,
+            error
+        );
+    }
+
+    private void recordPending() {
+        Instant now = Instant.now();
+        List<Object[]> summary = outboxEventRepository.summarizePending();
+        pendingGauge.register(
+            summary.stream().map(row -> MultiGauge.Row.of(Tags.of("type", (String) row[0]), ((Number) row[1]).longValue())).toList(),
+            true
+        );
+        oldestPendingAgeGauge.register(
+            summary
+                .stream()
+                .map(row -> MultiGauge.Row.of(Tags.of("type", (String) row[0]), Duration.between((Instant) row[2], now).toSeconds()))
+                .toList(),
+            true
+        );
+    }
+
+    @Scheduled(cron = "0 30 2 * * ?")
+    @Transactional
+    public void removePublishedEvents() {
+        int removed = outboxEventRepository.deletePublishedBefore(Instant.now().minus(properties.getRetention()));
+        LOG.debug("Removed {} published outbox events", removed);
+    }
+}
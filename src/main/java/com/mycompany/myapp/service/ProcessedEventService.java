@@ -0,0 +1,46 @@
+package com.mycompany.myapp.service;
+
+import java.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Ghi nhớ id các sự kiện đã xử lý để consumer bỏ qua message bị gửi trùng từ outbox.
+ */
+@Service
+public class ProcessedEventService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProcessedEventService.class);
+
+    private static final String KEY_PREFIX = "processed-event:";
+
+    /**
+     * Lâu hơn thời gian tối đa một sự kiện có thể bị gửi lại.
+     */
+    private static final Duration RETENTION = Duration.ofDays(7);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public ProcessedEventService(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * @return {@code true} nếu đây là lần đầu gặp {@code eventId} (hoặc message không có id).
+     */
+    public boolean markProcessed(String consumer, String eventId) {
+        if (eventId == null) {
+            return true;
+        }
+        try {
+            Boolean first = redisTemplate.opsForValue().setIfAbsent(KEY_PREFIX + consumer + ":" + eventId, "1", RETENTION);
+            return !Boolean.FALSE.equals(first);
+        } catch (RuntimeException e) {
+            // Redis lỗi thì thà xử lý trùng còn hơn bỏ sót
+            LOG.warn("Could not check processed event {}: {}", eventId, e.getMessage());
+            return true;
+        }
+    }
+}
@@ -1,63 +1,107 @@
 package com.mycompany.myapp.service;
 
-import com.mycompany.myapp.domain.Product;
+import com.mycompany.myapp.repository.ProductProjection;
 import com.mycompany.myapp.repository.ProductRepository;
-import java.io.ByteArrayOutputStream;
+import com.mycompany.myapp.service.export.ExportColumn;
+import com.mycompany.myapp.service.export.ExportFormat;
+import com.mycompany.myapp.service.export.ExportWriter;
+import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import java.util.Map;
+import java.util.stream.Stream;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 @Service
 @Transactional(readOnly = true)
 public class ProductExportService {
 
+    private static final String ENTITY_NAME = "product";
+
+    /**
+     * Các cột có thể export, theo thứ tự mặc định khi không truyền {@code columns=}.
+     */
+    private static final Map<String, ExportColumn<ProductProjection>> COLUMNS = new LinkedHashMap<>();
+
+    static {
+        addColumn(new ExportColumn<>("id", "ID", 10, ProductProjection::id));
+        addColumn(new ExportColumn<>("name", "Name", 40, ProductProjection::name));
+        addColumn(new ExportColumn<>("description", "Description", 60, ProductProjection::description));
+        addColumn(new ExportColumn<>("price", "Price", 14, ProductProjection::price));
+        addColumn(new ExportColumn<>("quantity", "Quantity", 12, ProductProjection::quantity));
+        addColumn(new ExportColumn<>("imageUrl", "ImageUrl", 50, ProductProjection::imageUrl));
+        addColumn(new ExportColumn<>("salesCount", "SalesCount", 12, ProductProjection::salesCount));
+        addColumn(new ExportColumn<>("category", "Category", 20, ProductProjection::categorySlug));
+    }
+
+    // Mặc định giữ đúng các cột của file Excel cũ
+    private static final List<String> DEFAULT_COLUMNS = List.of("id", "name", "description", "price", "quantity", "imageUrl", "salesCount");
+
     private final ProductRepository productRepository;
 
-    public ProductExportService(ProductRepository productRepository) {
+    private final ExportWriter exportWriter;
+
+    public ProductExportService(ProductRepository productRepository, ExportWriter exportWriter) {
         this.productRepository = productRepository;
+        this.exportWriter = exportWriter;
     }
 
-    public ByteArrayOutputStream exportProductsToExcel() throws IOException {
-        List<Product> products = productRepository.findAll(); // Lấy tất cả sản phẩm
-
-        Workbook workbook = new XSSFWorkbook();
-        Sheet sheet = workbook.createSheet("Products");
+    private static void addColumn(ExportColumn<ProductProjection> column) {
+        COLUMNS.put(column.name(), column);
+    }
 
-        // Tạo hàng tiêu đề
-        Row headerRow = sheet.createRow(0);
-        String[] headers = { "ID", "Name", "Description", "Price", "Quantity", "ImageUrl", "SalesCount" };
-        for (int i = 0; i < headers.length; i++) {
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(headers[i]);
+    /**
+     * Chuyển tham số {@code columns=} (danh sách tên cột cách nhau bởi dấu phẩy) thành các cột export.
+     * Kiểm tra trước khi bắt đầu ghi response để lỗi vẫn trả về được 400.
+     */
+    public List<ExportColumn<ProductProjection>> resolveColumns(String columns) {
+        List<String> names = StringUtils.hasText(columns) ? List.of(StringUtils.tokenizeToStringArray(columns, ",")) : DEFAULT_COLUMNS;
+        List<ExportColumn<ProductProjection>> resolved = new ArrayList<>(names.size());
+        for (String name : names) {
+            ExportColumn<ProductProjection> column = COLUMNS.get(name);
+            if (column == null) {
+                throw new BadRequestAlertException(
+                    "Unknown export column '" + name + "', expected one of " + COLUMNS.keySet(),
+                    ENTITY_NAME,
+                    "unknowncolumn"
+                );
+            }
+            resolved.add(column);
         }
-
-        // Điền dữ liệu sản phẩm
-        int rowNum = 1;
-        for (Product product : products) {
-            Row row = sheet.createRow(rowNum++);
-            row.createCell(0).setCellValue(product.getId());
-            row.createCell(1).setCellValue(product.getName());
-            row.createCell(2).setCellValue(product.getDescription());
-            row.createCell(3).setCellValue(product.getPrice());
-            row.createCell(4).setCellValue(product.getQuantity());
-            row.createCell(5).setCellValue(product.getImageUrl());
-            row.createCell(6).setCellValue(product.getSalesCount());
+        if (resolved.isEmpty()) {
+            throw new BadRequestAlertException("No export column selected", ENTITY_NAME, "nocolumn");
         }
+        return resolved;
+    }
 
-        // Tự động điều chỉnh độ rộng cột
-        for (int i = 0; i < headers.length; i++) {
-            sheet.autoSizeColumn(i);
+    /**
+     * Ghi các sản phẩm thỏa bộ lọc (giống {@link ProductService#findAllWithFilters}) ra {@code out}.
+     * <p>
+     * Dữ liệu được đọc bằng một query duy nhất dưới dạng projection và ghi ngay từng dòng,
+     * không tạo entity nên persistence context không lớn dần theo số sản phẩm.
+     */
+    public void exportProducts(
+        ExportFormat format,
+        List<ExportColumn<ProductProjection>> columns,
+        String categorySlug,
+        String nameContains,
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        Boolean inStock,
+        OutputStream out
+    ) throws IOException {
+        try (
+            Stream<ProductProjection> rows = productRepository.streamProjections(
+                ProductSpecifications.matching(categorySlug, nameContains, minPrice, maxPrice, inStock)
+            )
+        ) {
+            exportWriter.write(rows, columns, format, "Products", out);
         }
-
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        workbook.write(outputStream);
-        workbook.close();
-        return outputStream;
     }
 }
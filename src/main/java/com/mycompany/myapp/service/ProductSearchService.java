@@ -0,0 +1,335 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.domain.Product;
+import com.mycompany.myapp.repository.CategoryRepository;
+import com.mycompany.myapp.repository.ProductProjection;
+import com.mycompany.myapp.repository.ProductRepository;
+import com.mycompany.myapp.service.dto.ProductSearchResultDTO;
+import com.mycompany.myapp.service.search.ProductSearchIndex;
+import com.mycompany.myapp.service.search.SuggestionTrie;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Tìm kiếm và gợi ý khi gõ cho sản phẩm trên index trong bộ nhớ của từng node, không truy vấn SQL Server.
+ * <p>
+ * Index được dựng lại toàn bộ lúc khởi động và định kỳ ({@code application.search.rebuild-interval}); giữa hai lần
+ * đó, các thay đổi qua {@link ProductService}, import, giữ hàng khi đặt đơn và đối soát shard được cập nhật ngay sau
+ * khi transaction commit. Id các sản phẩm đã đổi được phát trên kênh invalidation của cache
+ * ({@code nodeId \n search:products \n id,id,...}, {@code TwoLevelCacheManager} bỏ qua vì không có cache tên đó);
+ * các node khác gom lại và đọc lại mỗi {@code application.search.peer-refresh-interval}.
+ */
+@Service
+public class ProductSearchService implements MessageListener {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProductSearchService.class);
+
+    /**
+     * Số id tối đa trong một câu IN (SQL Server giới hạn 2100 tham số).
+     */
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    /**
+     * Số gợi ý tối đa cho một tiền tố, tính sẵn trên từng nút của trie.
+     */
+    private static final int MAX_SUGGESTIONS = 10;
+
+    static final String REFRESH_MESSAGE = "search:products";
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final StringRedisTemplate redisTemplate;
+    private final String invalidationChannel;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Set<Long> changedOnPeers = ConcurrentHashMap.newKeySet();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Các trường dưới đây được bảo vệ bởi lock
+    private ProductSearchIndex index = new ProductSearchIndex();
+    private SuggestionTrie suggestions = new SuggestionTrie(MAX_SUGGESTIONS);
+    private Map<String, String> categoryNames = new HashMap<>();
+    private Map<String, Long> categorySales = new HashMap<>();
+    private boolean rebuilding;
+    private final Set<Long> changedDuringRebuild = new HashSet<>();
+
+    public ProductSearchService(
+        ProductRepository productRepository,
+        CategoryRepository categoryRepository,
+        PlatformTransactionManager transactionManager,
+        StringRedisTemplate redisTemplate,
+        ApplicationProperties applicationProperties
+    ) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.redisTemplate = redisTemplate;
+        this.invalidationChannel = applicationProperties.getCache().getInvalidationChannel();
+    }
+
+    public List<ProductSearchResultDTO> search(String query, int limit) {
+        List<ProductSearchIndex.Hit> hits;
+        lock.readLock().lock();
+        try {
+            hits = index.search(query, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return hits.stream().map(hit -> new ProductSearchResultDTO(hit.product(), hit.score())).toList();
+    }
+
+    /**
+     * Tên sản phẩm và danh mục bắt đầu bằng {@code prefix} (ở đầu bất kỳ từ nào), xếp theo số lượng đã bán.
+     * Trả thẳng danh sách đã tính sẵn trong trie.
+     */
+    public List<SuggestionTrie.Suggestion> suggest(String prefix) {
+        lock.readLock().lock();
+        try {
+            return suggestions.suggest(prefix);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Đọc lại các sản phẩm từ database sau khi transaction hiện tại commit (ngay lập tức nếu không có transaction)
+     * và báo cho các node khác; sản phẩm không còn thì bị xóa khỏi index.
+     */
+    public void refreshAfterCommit(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Long> copy = List.copyOf(ids);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refreshAndPublish(copy);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refreshAndPublish(copy);
+                }
+            }
+        );
+    }
+
+    private void refreshAndPublish(List<Long> ids) {
+        try {
+            refresh(ids);
+        } catch (RuntimeException e) {
+            // Index chỉ lệch đến lần dựng lại kế tiếp, không làm hỏng thao tác ghi đã commit
+            LOG.warn("Could not refresh search index for products {}: {}", ids, e.getMessage());
+        }
+        String message = nodeId + "\n" + REFRESH_MESSAGE + "\n" + ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+        try {
+            redisTemplate.convertAndSend(invalidationChannel, message);
+        } catch (DataAccessException e) {
+            // Node khác sẽ thấy thay đổi ở lần dựng lại kế tiếp
+            LOG.warn("Could not publish search index refresh for products {}: {}", ids, e.getMessage());
+        }
+    }
+
+    /**
+     * Nhận id sản phẩm node khác đã đổi; các message khác trên kênh invalidation (của cache) bị bỏ qua.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\n", 3);
+        if (parts.length < 3 || nodeId.equals(parts[0]) || !REFRESH_MESSAGE.equals(parts[1])) {
+            return;
+        }
+        try {
+            for (String id : parts[2].split(",")) {
+                changedOnPeers.add(Long.valueOf(id));
+            }
+        } catch (NumberFormatException e) {
+            LOG.warn("Ignoring malformed search index refresh message: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.search.peer-refresh-interval:PT1S}")
+    public void refreshChangedOnPeers() {
+        if (changedOnPeers.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(changedOnPeers);
+        changedOnPeers.removeAll(ids);
+        try {
+            refresh(ids);
+        } catch (RuntimeException e) {
+            // Đưa lại vào hàng chờ, lần sau thử tiếp
+            changedOnPeers.addAll(ids);
+            LOG.warn("Could not refresh search index for products changed on other nodes: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.search.rebuild-interval:PT10M}")
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            rebuilding = true;
+            changedDuringRebuild.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        ProductSearchIndex rebuiltIndex = new ProductSearchIndex();
+        SuggestionTrie rebuiltSuggestions = new SuggestionTrie(MAX_SUGGESTIONS);
+        Map<String, String> rebuiltCategoryNames = new HashMap<>();
+        Map<String, Long> rebuiltCategorySales = new HashMap<>();
+        boolean built = false;
+        Set<Long> changed;
+        try {
+            Map<String, SuggestionTrie.Suggestion> entries = new HashMap<>();
+            readOnlyTransaction.executeWithoutResult(status -> {
+                categoryRepository.findAll().forEach(category -> rebuiltCategoryNames.put(category.getSlug(), category.getName()));
+                try (Stream<ProductProjection> products = productRepository.streamProjections(all())) {
+                    products.forEach(product -> {
+                        rebuiltIndex.put(product);
+                        entries.put(productKey(product.id()), productSuggestion(product));
+                        if (product.categorySlug() != null) {
+                            rebuiltCategorySales.merge(product.categorySlug(), salesCount(product), Long::sum);
+                        }
+                    });
+                }
+            });
+            rebuiltCategoryNames.forEach((slug, name) ->
+                entries.put(categoryKey(slug), categorySuggestion(slug, name, rebuiltCategorySales.getOrDefault(slug, 0L)))
+            );
+            rebuiltSuggestions.putAll(entries);
+            built = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                // Lỗi giữa chừng thì giữ index cũ (vẫn được cập nhật trong lúc dựng)
+                if (built) {
+                    index = rebuiltIndex;
+                    suggestions = rebuiltSuggestions;
+                    categoryNames = rebuiltCategoryNames;
+                    categorySales = rebuiltCategorySales;
+                }
+                rebuilding = false;
+                changed = new HashSet<>(changedDuringRebuild);
+                changedDuringRebuild.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        // Bản snapshot có thể đã cũ với các sản phẩm được sửa trong lúc dựng
+        refresh(changed);
+        LOG.debug("Rebuilt product search index with {} products", rebuiltIndex.size());
+    }
+
+    private void refresh(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Long> idList = new ArrayList<>(ids);
+        for (int from = 0; from < idList.size(); from += LOAD_BATCH_SIZE) {
+            List<Long> batch = idList.subList(from, Math.min(idList.size(), from + LOAD_BATCH_SIZE));
+            List<ProductProjection> products = readOnlyTransaction.execute(status -> {
+                try (Stream<ProductProjection> stream = productRepository.streamProjections(idIn(batch))) {
+                    return stream.toList();
+                }
+            });
+            lock.writeLock().lock();
+            try {
+                Set<Long> missing = new HashSet<>(batch);
+                Set<String> touchedCategories = new HashSet<>();
+                for (ProductProjection product : products) {
+                    untrackSales(index.get(product.id()), touchedCategories);
+                    index.put(product);
+                    suggestions.put(productKey(product.id()), productSuggestion(product));
+                    trackSales(product, touchedCategories);
+                    missing.remove(product.id());
+                }
+                for (Long id : missing) {
+                    untrackSales(index.get(id), touchedCategories);
+                    index.remove(id);
+                    suggestions.remove(productKey(id));
+                }
+                // Danh mục mới chưa có tên đến lần dựng lại kế tiếp
+                for (String slug : touchedCategories) {
+                    String name = categoryNames.get(slug);
+                    if (name != null) {
+                        suggestions.put(categoryKey(slug), categorySuggestion(slug, name, categorySales.getOrDefault(slug, 0L)));
+                    }
+                }
+                if (rebuilding) {
+                    changedDuringRebuild.addAll(batch);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void trackSales(ProductProjection product, Set<String> touchedCategories) {
+        if (product != null && product.categorySlug() != null) {
+            categorySales.merge(product.categorySlug(), salesCount(product), Long::sum);
+            touchedCategories.add(product.categorySlug());
+        }
+    }
+
+    private void untrackSales(ProductProjection product, Set<String> touchedCategories) {
+        if (product != null && product.categorySlug() != null) {
+            categorySales.merge(product.categorySlug(), -salesCount(product), Long::sum);
+            touchedCategories.add(product.categorySlug());
+        }
+    }
+
+    private static long salesCount(ProductProjection product) {
+        return product.salesCount() == null ? 0 : product.salesCount();
+    }
+
+    private static String productKey(Long id) {
+        return "product:" + id;
+    }
+
+    private static String categoryKey(String slug) {
+        return "category:" + slug;
+    }
+
+    private static SuggestionTrie.Suggestion productSuggestion(ProductProjection product) {
+        return new SuggestionTrie.Suggestion(product.name(), product.id(), product.categorySlug(), salesCount(product));
+    }
+
+    private static SuggestionTrie.Suggestion categorySuggestion(String slug, String name, long salesCount) {
+        return new SuggestionTrie.Suggestion(name, null, slug, salesCount);
+    }
+
+    private static Specification<Product> all() {
+        return (root, query, criteriaBuilder) -> null;
+    }
+
+    private static Specification<Product> idIn(Collection<Long> ids) {
+        return (root, query, criteriaBuilder) -> root.get("id").in(ids);
+    }
+}
@@ -2,42 +2,86 @@ package com.mycompany.myapp.service;
 
 import com.mycompany.myapp.domain.Product;
 import com.mycompany.myapp.repository.ProductRepository;
-import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.JoinType;
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.KeysetScrollPosition;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.StringUtils;
 
 @Service
 @Transactional
 public class ProductService {
 
+    private static final String ENTITY_NAME = "product";
+
+    /**
+     * NOT NULL and indexed columns (see demo.sql), the only ones a keyset cursor can seek on.
+     */
+    private static final Set<String> KEYSET_SORTABLE = Set.of("id", "name", "price", "quantity", "salesCount", "createdDate");
+
     private final Logger log = LoggerFactory.getLogger(ProductService.class);
 
     private final ProductRepository productRepository;
 
-    public ProductService(ProductRepository productRepository) {
+    private final CacheManager cacheManager;
+
+    private final ProductSearchService productSearchService;
+
+    public ProductService(ProductRepository productRepository, CacheManager cacheManager, ProductSearchService productSearchService) {
         this.productRepository = productRepository;
+        this.cacheManager = cacheManager;
+        this.productSearchService = productSearchService;
     }
 
+    /**
+     * Save a new product. Every cached listing may now be missing it, so the page cache is cleared. The id may also
+     * have been looked up before it existed: {@link #findOne(Long)} caches that miss as {@code null}, so it is evicted too.
+     */
+    @Caching(
+        evict = {
+            @CacheEvict(cacheNames = ProductRepository.PRODUCT_PAGES_CACHE, allEntries = true),
+            @CacheEvict(cacheNames = ProductRepository.PRODUCTS_BY_ID_CACHE, key = "#result.id"),
+        }
+    )
     public Product save(Product product) {
         log.debug("Request to save Product : {}", product);
-        return productRepository.save(product);
+        Product result = productRepository.save(product);
+        productSearchService.refreshAfterCommit(List.of(result.getId()));
+        return result;
     }
 
+    /**
+     * Update a product. Only its own cache entry is evicted; cached listings hold ids and pick up the new values.
+     */
+    @CacheEvict(cacheNames = ProductRepository.PRODUCTS_BY_ID_CACHE, key = "#product.id")
     public Product update(Product product) {
         log.debug("Request to update Product : {}", product);
-        return productRepository.save(product);
+        Product result = productRepository.save(product);
+        productSearchService.refreshAfterCommit(List.of(result.getId()));
+        return result;
     }
 
+    @CacheEvict(cacheNames = ProductRepository.PRODUCTS_BY_ID_CACHE, key = "#product.id")
     public Optional<Product> partialUpdate(Product product) {
         log.debug("Request to partially update Product : {}", product);
         return productRepository
@@ -61,6 +105,7 @@ public class ProductService {
                 if (product.getCategory() != null) {
                     existingProduct.setCategory(product.getCategory());
                 }
+                productSearchService.refreshAfterCommit(List.of(existingProduct.getId()));
                 return existingProduct;
             })
             .map(productRepository::save);
@@ -72,6 +117,12 @@ public class ProductService {
         return productRepository.findAll(pageable);
     }
 
+    /**
+     * Get a page of products matching the filters.
+     * <p>
+     * The page itself is cached as a list of ids (short TTL), and the products are resolved through the per-product
+     * cache, so editing a product never has to flush the cached listings.
+     */
     @Transactional(readOnly = true)
     public Page<Product> findAllWithFilters(
         Pageable pageable,
@@ -83,43 +134,190 @@ public class ProductService {
     ) {
         log.debug("Request to get a page of Products with dynamic filters");
 
-        Specification<Product> spec = (root, query, criteriaBuilder) -> {
-            List<Predicate> predicates = new ArrayList<>();
+        Cache pageCache = cacheManager.getCache(ProductRepository.PRODUCT_PAGES_CACHE);
+        String pageKey = pageCacheKey(pageable, categorySlug, nameContains, minPrice, maxPrice, inStock);
+        ProductPageIds cachedPage = getCached(pageCache, pageKey, ProductPageIds.class);
+        if (cachedPage != null) {
+            return new PageImpl<>(findAllByIdsCached(cachedPage.ids()), pageable, cachedPage.totalElements());
+        }
 
-            if (StringUtils.hasText(categorySlug)) {
-                predicates.add(criteriaBuilder.equal(root.get("category").get("slug"), categorySlug));
-            }
-            if (StringUtils.hasText(nameContains)) {
-                predicates.add(criteriaBuilder.like(criteriaBuilder.lower(root.get("name")), "%" + nameContains.toLowerCase() + "%"));
-            }
-            if (minPrice != null) {
-                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("price"), minPrice));
-            }
-            if (maxPrice != null) {
-                predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("price"), maxPrice));
-            }
-            if (inStock != null) {
-                if (inStock) {
-                    predicates.add(criteriaBuilder.greaterThan(root.get("quantity"), 0));
-                } else {
-                    predicates.add(criteriaBuilder.equal(root.get("quantity"), 0));
-                }
-            }
+        Page<Product> page = productRepository.findAll(filterSpecification(categorySlug, nameContains, minPrice, maxPrice, inStock), pageable);
 
-            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
-        };
+        Cache productCache = cacheManager.getCache(ProductRepository.PRODUCTS_BY_ID_CACHE);
+        List<Long> ids = new ArrayList<>(page.getNumberOfElements());
+        for (Product product : page) {
+            ids.add(product.getId());
+            putCached(productCache, product.getId(), product);
+        }
+        putCached(pageCache, pageKey, new ProductPageIds(ids, page.getTotalElements()));
+        return page;
+    }
 
-        return productRepository.findAll(spec, pageable);
+    /**
+     * Get the products after {@code position} in keyset order, for deep paging without {@code COUNT(*)} or {@code OFFSET}.
+     * <p>
+     * Each page seeks on the sort columns plus id, so page 5000 costs the same as page 1. Not cached: cursors are
+     * mostly followed once (crawlers, exports), caching them would only push useful pages out of the cache.
+     */
+    @Transactional(readOnly = true)
+    public Window<Product> scrollWithFilters(
+        KeysetScrollPosition position,
+        Sort sort,
+        int size,
+        String categorySlug,
+        String nameContains,
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        Boolean inStock
+    ) {
+        log.debug("Request to scroll Products after {}", position);
+        Sort sortToUse = KeysetScrollSupport.validate(sort, position, KEYSET_SORTABLE, ENTITY_NAME);
+        return productRepository.findBy(filterSpecification(categorySlug, nameContains, minPrice, maxPrice, inStock), query ->
+            query.sortBy(sortToUse).limit(size).scroll(position)
+        );
+    }
+
+    /**
+     * The listing filters, plus a fetch join on category so the products can go straight into the cache
+     * (not for the count query).
+     */
+    private Specification<Product> filterSpecification(
+        String categorySlug,
+        String nameContains,
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        Boolean inStock
+    ) {
+        Specification<Product> fetchCategory = (root, query, criteriaBuilder) -> {
+            if (query.getResultType() != Long.class && query.getResultType() != long.class) {
+                root.fetch("category", JoinType.LEFT);
+            }
+            return null;
+        };
+        return fetchCategory.and(ProductSpecifications.matching(categorySlug, nameContains, minPrice, maxPrice, inStock));
     }
 
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = ProductRepository.PRODUCTS_BY_ID_CACHE, key = "#id", sync = true)
     public Optional<Product> findOne(Long id) {
         log.debug("Request to get Product : {}", id);
-        return productRepository.findById(id);
+        return productRepository.findOneWithCategoryById(id);
     }
 
+    @Caching(
+        evict = {
+            @CacheEvict(cacheNames = ProductRepository.PRODUCTS_BY_ID_CACHE, key = "#id"),
+            @CacheEvict(cacheNames = ProductRepository.PRODUCT_PAGES_CACHE, allEntries = true),
+        }
+    )
     public void delete(Long id) {
         log.debug("Request to delete Product : {}", id);
         productRepository.deleteById(id);
+        productSearchService.refreshAfterCommit(List.of(id));
     }
+
+    /**
+     * Evict products whose stock or sales count was changed outside of this service (e.g. by checkout).
+     *
+     * @param ids the ids of the changed products.
+     */
+    public void evictFromCache(Collection<Long> ids) {
+        Cache productCache = cacheManager.getCache(ProductRepository.PRODUCTS_BY_ID_CACHE);
+        if (productCache == null) {
+            return;
+        }
+        for (Long id : ids) {
+            try {
+                productCache.evict(id);
+            } catch (RuntimeException e) {
+                log.warn("Could not evict Product {} from cache: {}", id, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Resolve products through the per-product cache, loading all misses with a single query. Keeps the given order
+     * and skips ids that no longer exist.
+     */
+    private List<Product> findAllByIdsCached(List<Long> ids) {
+        Cache productCache = cacheManager.getCache(ProductRepository.PRODUCTS_BY_ID_CACHE);
+        Map<Long, Product> resolved = new LinkedHashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long id : ids) {
+            Product product = getCached(productCache, id, Product.class);
+            if (product == null) {
+                misses.add(id);
+            }
+            resolved.put(id, product);
+        }
+        if (!misses.isEmpty()) {
+            for (Product product : productRepository.findAllWithCategoryByIdIn(misses)) {
+                resolved.put(product.getId(), product);
+                putCached(productCache, product.getId(), product);
+            }
+        }
+        List<Product> products = new ArrayList<>(ids.size());
+        for (Product product : resolved.values()) {
+            if (product != null) {
+                products.add(product);
+            }
+        }
+        return products;
+    }
+
+    private static String pageCacheKey(
+        Pageable pageable,
+        String categorySlug,
+        String nameContains,
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        Boolean inStock
+    ) {
+        return (
+            (pageable.isPaged() ? pageable.getPageNumber() + ":" + pageable.getPageSize() : "unpaged") +
+            ":" +
+            pageable.getSort() +
+            ":" +
+            categorySlug +
+            ":" +
+            (nameContains == null ? null : nameContains.toLowerCase()) +
+            ":" +
+            minPrice +
+            ":" +
+            maxPrice +
+            ":" +
+            inStock
+        );
+    }
+
+    private <T> T getCached(Cache cache, Object key, Class<T> type) {
+        if (cache == null) {
+            return null;
+        }
+        try {
+            return cache.get(key, type);
+        } catch (RuntimeException e) {
+            log.warn("Cache read failed for key {} in {}: {}", key, cache.getName(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Read-through population: putIfAbsent does not broadcast an L1 invalidation to other nodes.
+     */
+    private void putCached(Cache cache, Object key, Object value) {
+        if (cache == null) {
+            return;
+        }
+        try {
+            cache.putIfAbsent(key, value);
+        } catch (RuntimeException e) {
+            log.warn("Cache write failed for key {} in {}: {}", key, cache.getName(), e.getMessage());
+        }
+    }
+
+    /**
+     * Cached form of a product listing page: only the ids, in page order, and the total count.
+     */
+    record ProductPageIds(List<Long> ids, long totalElements) {}
 }
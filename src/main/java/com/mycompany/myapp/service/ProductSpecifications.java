@@ -0,0 +1,51 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.domain.Product;
+import jakarta.persistence.criteria.Predicate;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+/**
+ * Bộ lọc sản phẩm dùng chung cho trang danh sách ({@link ProductService#findAllWithFilters}) và export.
+ */
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {}
+
+    public static Specification<Product> matching(
+        String categorySlug,
+        String nameContains,
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        Boolean inStock
+    ) {
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (StringUtils.hasText(categorySlug)) {
+                predicates.add(criteriaBuilder.equal(root.get("category").get("slug"), categorySlug));
+            }
+            if (StringUtils.hasText(nameContains)) {
+                predicates.add(criteriaBuilder.like(criteriaBuilder.lower(root.get("name")), "%" + nameContains.toLowerCase() + "%"));
+            }
+            if (minPrice != null) {
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("price"), minPrice));
+            }
+            if (maxPrice != null) {
+                predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("price"), maxPrice));
+            }
+            if (inStock != null) {
+                if (inStock) {
+                    predicates.add(criteriaBuilder.greaterThan(root.get("quantity"), 0));
+                } else {
+                    predicates.add(criteriaBuilder.equal(root.get("quantity"), 0));
+                }
+            }
+
+            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
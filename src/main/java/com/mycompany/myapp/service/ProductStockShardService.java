@@ -0,0 +1,227 @@
+package com.mycompany.myapp.service;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.domain.Product;
+import com.mycompany.myapp.domain.ProductStockShard;
+import com.mycompany.myapp.repository.ProductRepository;
+import com.mycompany.myapp.repository.ProductStockShardRepository;
+import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Tồn kho chia shard cho sản phẩm hot.
+ * <p>
+ * Khi bật, tồn kho của sản phẩm được chia đều vào N dòng {@link ProductStockShard}; mỗi đơn hàng
+ * trừ trên một shard chọn ngẫu nhiên nên N đơn có thể ghi song song thay vì chờ khóa dòng {@code jhi_product}.
+ * {@link #reconcileAll()} định kỳ gộp số đã bán về {@code Product.quantity}/{@code salesCount}
+ * và chia lại phần còn lại cho các shard. Giữa hai lần đối soát, {@code Product.quantity} là số của lần đối soát trước.
+ * <p>
+ * Thứ tự khóa luôn là các shard rồi mới đến dòng sản phẩm.
+ */
+@Service
+@Transactional
+public class ProductStockShardService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ProductStockShardService.class);
+
+    private final ProductStockShardRepository shardRepository;
+    private final ProductRepository productRepository;
+    private final ProductService productService;
+    private final ProductSearchService productSearchService;
+    private final ApplicationProperties applicationProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter oversold;
+
+    public ProductStockShardService(
+        ProductStockShardRepository shardRepository,
+        ProductRepository productRepository,
+        ProductService productService,
+        ProductSearchService productSearchService,
+        ApplicationProperties applicationProperties,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry
+    ) {
+        this.shardRepository = shardRepository;
+        this.productRepository = productRepository;
+        this.productService = productService;
+        this.productSearchService = productSearchService;
+        this.applicationProperties = applicationProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.oversold = Counter.builder("inventory.shard.oversold")
+            .description("Units sold through stock shards beyond the product quantity")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Bật (hoặc đổi số shard) cho một sản phẩm; số đã bán trên các shard cũ được gộp trước khi chia lại.
+     */
+    public List<ProductStockShard> enable(Long productId, int shardCount) {
+        int maxShards = applicationProperties.getInventory().getMaxShards();
+        if (shardCount < 2 || shardCount > maxShards) {
+            throw new BadRequestAlertException("Shard count must be between 2 and " + maxShards, "product", "invalidShardCount");
+        }
+        List<ProductStockShard> shards = shardRepository.findAllByProductIdOrderByShardNo(productId);
+        Product product = productRepository
+            .findOneForUpdateById(productId)
+            .orElseThrow(() -> new BadRequestAlertException("Product not found", "product", "idnotfound"));
+        fold(product, shards);
+        shardRepository.deleteAll(shards);
+        shardRepository.flush();
+
+        List<ProductStockShard> created = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            ProductStockShard shard = new ProductStockShard();
+            shard.setProductId(productId);
+            shard.setShardNo(i);
+            shard.setSalesCount(0);
+            created.add(shard);
+        }
+        split(product.getQuantity(), created);
+        LOG.info("Stock of product {} split into {} shards", productId, shardCount);
+        return shardRepository.saveAll(created);
+    }
+
+    /**
+     * Tắt chia shard: gộp số đã bán về sản phẩm rồi xóa các shard.
+     */
+    public void disable(Long productId) {
+        List<ProductStockShard> shards = shardRepository.findAllByProductIdOrderByShardNo(productId);
+        if (shards.isEmpty()) {
+            return;
+        }
+        productRepository.findOneForUpdateById(productId).ifPresent(product -> fold(product, shards));
+        shardRepository.deleteAll(shards);
+        LOG.info("Stock shards of product {} removed", productId);
+    }
+
+    /**
+     * @return số shard theo id, chỉ cho các sản phẩm đang chia shard.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Integer> findShardCounts(Collection<Long> productIds) {
+        Map<Long, Integer> shardCounts = new HashMap<>();
+        for (Object[] row : shardRepository.countShardsByProductIds(productIds)) {
+            shardCounts.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+        return shardCounts;
+    }
+
+    /**
+     * Trừ {@code quantity} trên một shard còn đủ hàng, bắt đầu từ một shard ngẫu nhiên.
+     * Nếu không shard nào đủ một mình, khóa tất cả shard và trừ dần qua nhiều shard.
+     *
+     * @return {@code false} nếu tổng các shard không còn đủ hàng.
+     */
+    public boolean reserve(Long productId, int quantity, int shardCount) {
+        int start = ThreadLocalRandom.current().nextInt(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            if (shardRepository.reserve(productId, (start + i) % shardCount, quantity) == 1) {
+                return true;
+            }
+        }
+
+        List<ProductStockShard> shards = shardRepository.findAllByProductIdOrderByShardNo(productId);
+        int available = shards.stream().mapToInt(ProductStockShard::getQuantity).sum();
+        if (available < quantity) {
+            return false;
+        }
+        int remaining = quantity;
+        for (ProductStockShard shard : shards) {
+            int taken = Math.min(remaining, shard.getQuantity());
+            shard.setQuantity(shard.getQuantity() - taken);
+            shard.setSalesCount(shard.getSalesCount() + taken);
+            remaining -= taken;
+            if (remaining == 0) {
+                break;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Mỗi sản phẩm đối soát trong transaction riêng: khóa shard của một sản phẩm được nhả ngay sau khi xong,
+     * và một sản phẩm lỗi không làm rollback các sản phẩm khác.
+     */
+    @Scheduled(fixedDelayString = "${application.inventory.reconcile-interval:PT10S}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void reconcileAll() {
+        for (Long productId : shardRepository.findAllShardedProductIds()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> reconcile(productId));
+            } catch (RuntimeException e) {
+                LOG.warn("Could not reconcile stock shards of product {}: {}", productId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Gộp số đã bán của các shard về sản phẩm và chia đều lại phần tồn kho còn lại.
+     */
+    public void reconcile(Long productId) {
+        List<ProductStockShard> shards = shardRepository.findAllByProductIdOrderByShardNo(productId);
+        if (shards.isEmpty()) {
+            return;
+        }
+        Product product = productRepository.findOneForUpdateById(productId).orElse(null);
+        if (product == null) {
+            return;
+        }
+        int sold = fold(product, shards);
+        split(product.getQuantity(), shards);
+        if (sold > 0) {
+            LOG.debug("Reconciled {} units sold through shards of product {}", sold, productId);
+        }
+    }
+
+    /**
+     * Chuyển số đã bán trên các shard sang sản phẩm. Dùng {@code quantity - sold} thay vì tổng các shard
+     * để giữ lại thay đổi tồn kho mà admin sửa trực tiếp trên sản phẩm.
+     * <p>
+     * Bán vượt tồn kho (admin giảm {@code quantity} trong lúc các shard vẫn còn hàng) không thể hoàn tác ở đây:
+     * tồn kho về 0, phần vượt được ghi log và đếm vào {@code inventory.shard.oversold}.
+     */
+    private int fold(Product product, List<ProductStockShard> shards) {
+        int sold = shards.stream().mapToInt(ProductStockShard::getSalesCount).sum();
+        if (sold > 0) {
+            int remaining = product.getQuantity() - sold;
+            if (remaining < 0) {
+                oversold.increment(-remaining);
+                LOG.warn(
+                    "Product {} oversold by {} units through stock shards (quantity {}, sold {})",
+                    product.getId(),
+                    -remaining,
+                    product.getQuantity(),
+                    sold
+                );
+            }
+            product.setQuantity(Math.max(0, remaining));
+            product.setSalesCount(product.getSalesCount() + sold);
+            productService.evictFromCache(List.of(product.getId()));
+            productSearchService.refreshAfterCommit(List.of(product.getId()));
+        }
+        shards.forEach(shard -> shard.setSalesCount(0));
+        return sold;
+    }
+
+    private static void split(int quantity, List<ProductStockShard> shards) {
+        int size = shards.size();
+        for (int i = 0; i < size; i++) {
+            shards.get(i).setQuantity(quantity / size + (i < quantity % size ? 1 : 0));
+        }
+    }
+}
@@ -3,7 +3,6 @@ package com.mycompany.myapp.service;
 import com.mycompany.myapp.domain.RefreshToken;
 import com.mycompany.myapp.domain.User;
 import com.mycompany.myapp.repository.RefreshTokenRepository;
-import com.mycompany.myapp.repository.UserRepository;
 import com.mycompany.myapp.service.errors.TokenRefreshException;
 import java.time.Instant;
 import java.util.Optional;
@@ -23,11 +22,8 @@ public class RefreshTokenService implements IRefreshTokenService {
     private static final Long REFRESH_TOKEN_VALIDITY_SECONDS = 2592000L;
 
     private final RefreshTokenRepository refreshTokenRepository;
-    private final UserRepository userRepository;
-
-    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, UserRepository userRepository) {
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository) {
         this.refreshTokenRepository = refreshTokenRepository;
-        this.userRepository = userRepository;
     }
 
     @Override
@@ -65,7 +61,8 @@ public class RefreshTokenService implements IRefreshTokenService {
 
     @Override
     public void deleteByUserId(Long userId) {
-        refreshTokenRepository.deleteByUser(userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found")));
+        // Xóa thẳng theo id: dùng được cả khi user sắp bị xóa trong cùng transaction
+        refreshTokenRepository.deleteAllByUserId(userId);
     }
 
     @Override
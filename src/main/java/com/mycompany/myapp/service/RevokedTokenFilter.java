@@ -0,0 +1,117 @@
+package com.mycompany.myapp.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter các token đã bị thu hồi, chia theo thời điểm hết hạn của token.
+ * <p>
+ * Mỗi phân vùng chứa các token hết hạn trong cùng một khoảng {@code partitionWidth}; phân vùng đã qua được bỏ nguyên
+ * khối nên filter không đầy dần theo thời gian. {@link #mightContain(String, Instant)} trả {@code false} thì chắc chắn
+ * token chưa bị thu hồi, trả {@code true} thì có thể sai (theo {@code falsePositiveRate}) và phải hỏi lại Redis.
+ * <p>
+ * Thread-safe: các bit được set bằng {@link AtomicLongArray}, không cần khóa khi đọc.
+ */
+public class RevokedTokenFilter {
+
+    private final long partitionMillis;
+    private final int bits;
+    private final int hashes;
+
+    /**
+     * Số thứ tự phân vùng ({@code expiresAt / partitionWidth}) → bit set.
+     */
+    private final Map<Long, AtomicLongArray> partitions = new ConcurrentHashMap<>();
+
+    public RevokedTokenFilter(Duration partitionWidth, int expectedInsertions, double falsePositiveRate) {
+        if (partitionWidth.isNegative() || partitionWidth.isZero()) {
+            throw new IllegalArgumentException("partitionWidth must be positive");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate must be in (0, 1)");
+        }
+        this.partitionMillis = partitionWidth.toMillis();
+        // m = -n ln p / (ln 2)^2, k = m/n ln 2
+        int n = Math.max(expectedInsertions, 1);
+        long optimalBits = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bits = (int) Math.min(Math.max(Long.SIZE, optimalBits), Integer.MAX_VALUE - Long.SIZE);
+        this.hashes = Math.max(1, (int) Math.round((double) bits / n * Math.log(2)));
+    }
+
+    public void put(String tokenId, Instant expiresAt) {
+        long partition = Math.floorDiv(expiresAt.toEpochMilli(), partitionMillis);
+        AtomicLongArray words = partitions.computeIfAbsent(partition, key -> new AtomicLongArray((bits + Long.SIZE - 1) / Long.SIZE));
+        long hash = hash(tokenId);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashes; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bits);
+            long mask = 1L << bit;
+            int word = bit >>> 6;
+            long current;
+            do {
+                current = words.get(word);
+            } while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(String tokenId, Instant now) {
+        if (partitions.isEmpty()) {
+            return false;
+        }
+        long hash = hash(tokenId);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        // Token trong các phân vùng đã hết hạn không còn qua được bước kiểm tra chữ ký/hạn của JWT
+        long currentPartition = Math.floorDiv(now.toEpochMilli(), partitionMillis);
+        for (Map.Entry<Long, AtomicLongArray> entry : partitions.entrySet()) {
+            if (entry.getKey() >= currentPartition && containsAll(entry.getValue(), h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Bỏ các phân vùng mà mọi token trong đó đã hết hạn.
+     */
+    public void evictExpired(Instant now) {
+        long currentPartition = Math.floorDiv(now.toEpochMilli(), partitionMillis);
+        partitions.keySet().removeIf(partition -> partition < currentPartition);
+    }
+
+    public int partitionCount() {
+        return partitions.size();
+    }
+
+    private boolean containsAll(AtomicLongArray words, int h1, int h2) {
+        for (int i = 0; i < hashes; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bits);
+            if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * FNV-1a 64 bit (theo từng char, không cấp phát) rồi trộn bằng bước cuối của MurmurHash3;
+     * hai nửa 32 bit dùng làm h1/h2 (Kirsch–Mitzenmacher).
+     */
+    static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -1,53 +1,353 @@
 package com.mycompany.myapp.service;
 
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.security.SecurityUtils;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
 
 /**
  * Service để quản lý JWT token blacklist trong Redis
  * Dùng để vô hiệu hóa token khi user logout
  * Implements ITokenBlacklistService interface (SOLID principles)
+ * <p>
+ * Key là claim {@code jti} của token ({@code token:blacklist:<jti>}), không phải cả chuỗi JWT. Thu hồi hàng loạt
+ * dùng một epoch cho mỗi user ({@code token:epoch:<userId>}): token có {@code iat} trước epoch coi như đã bị thu hồi.
+ * <p>
+ * Mỗi node giữ một {@link RevokedTokenFilter} các jti đã thu hồi và bản sao các epoch, nên request thường chỉ tốn vài
+ * phép băm trong bộ nhớ; Redis chỉ được hỏi khi filter báo có. Cả hai được cập nhật qua pub/sub (và keyspace event
+ * nếu Redis bật {@code notify-keyspace-events}), và nạp lại toàn bộ theo chu kỳ để bù các message bị mất.
  */
 @Service
-public class TokenBlacklistService implements ITokenBlacklistService {
+public class TokenBlacklistService implements ITokenBlacklistService, MessageListener {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TokenBlacklistService.class);
+
+    public static final String BLACKLIST_PREFIX = "token:blacklist:";
+
+    public static final String EPOCH_PREFIX = "token:epoch:";
+
+    /**
+     * Tiền tố message trên channel: token đơn lẻ ({@code t:<epochSecondHếtHạn>:<jti>}) và epoch
+     * ({@code u:<userId>:<epochSecond>}).
+     */
+    private static final String TOKEN_MESSAGE = "t:";
+    private static final String EPOCH_MESSAGE = "u:";
+
+    /**
+     * Số phân vùng của filter trải trên thời gian sống dài nhất của token.
+     */
+    private static final int FILTER_PARTITIONS = 16;
+
+    private static final int SCAN_BATCH_SIZE = 1000;
 
-    private static final String BLACKLIST_PREFIX = "token:blacklist:";
     private final RedisTemplate<String, String> redisTemplate;
+    private final ApplicationProperties.TokenBlacklist properties;
+    private final Duration maxTokenLifetime;
+    private final Duration partitionWidth;
 
-    public TokenBlacklistService(RedisTemplate<String, String> redisTemplate) {
+    private final Object filterLock = new Object();
+
+    private volatile RevokedTokenFilter filter;
+
+    /**
+     * userId → epoch (giây): token cấp trước thời điểm này đã bị thu hồi.
+     */
+    private volatile Map<Long, Long> epochs = new ConcurrentHashMap<>();
+
+    /**
+     * Filter/epoch đang được {@link #resync()} dựng, nhận cả các thu hồi xảy ra trong lúc dựng. Truy cập trong {@code filterLock}.
+     */
+    private RevokedTokenFilter rebuilding;
+    private Map<Long, Long> rebuildingEpochs;
+
+    /**
+     * {@code false} khi chưa nạp được từ Redis hoặc lần nạp gần nhất lỗi: filter có thể thiếu token nên phải hỏi Redis.
+     */
+    private volatile boolean synced;
+
+    public TokenBlacklistService(
+        RedisTemplate<String, String> redisTemplate,
+        ApplicationProperties applicationProperties,
+        @Value("${jhipster.security.authentication.jwt.token-validity-in-seconds:0}") long tokenValidityInSeconds,
+        @Value("${jhipster.security.authentication.jwt.token-validity-in-seconds-for-remember-me:0}") long tokenValidityInSecondsForRememberMe
+    ) {
         this.redisTemplate = redisTemplate;
+        this.properties = applicationProperties.getTokenBlacklist();
+        long maxLifetime = Math.max(tokenValidityInSeconds, tokenValidityInSecondsForRememberMe);
+        this.maxTokenLifetime = Duration.ofSeconds(Math.max(maxLifetime, Duration.ofHours(1).toSeconds()));
+        this.partitionWidth = Duration.ofSeconds((maxTokenLifetime.toSeconds() + FILTER_PARTITIONS - 1) / FILTER_PARTITIONS);
+        this.filter = newFilter();
     }
 
     /**
      * Thêm token vào blacklist
      * Token sẽ tự động bị xóa khỏi Redis khi hết hạn (dùng Redis TTL)
      *
-     * @param token JWT token cần blacklist
-     * @param expiryDate Thời gian hết hạn của token
+     * @param jwt JWT token cần blacklist
      */
     @Override
-    public void blacklistToken(String token, Instant expiryDate) {
-        String key = BLACKLIST_PREFIX + token;
+    public void blacklistToken(Jwt jwt) {
+        Instant expiryDate = jwt.getExpiresAt();
+        if (expiryDate == null) {
+            return;
+        }
+        String tokenId = tokenId(jwt);
         long ttl = Duration.between(Instant.now(), expiryDate).getSeconds();
 
         if (ttl > 0) {
             // Lưu vào Redis với TTL = thời gian còn lại đến khi token hết hạn
             // Redis sẽ tự động xóa key khi hết TTL
-            redisTemplate.opsForValue().set(key, "blacklisted", Duration.ofSeconds(ttl));
+            redisTemplate.opsForValue().set(BLACKLIST_PREFIX + tokenId, "blacklisted", Duration.ofSeconds(ttl));
+            rememberToken(tokenId, expiryDate);
+            publish(TOKEN_MESSAGE + expiryDate.getEpochSecond() + ":" + tokenId);
         }
     }
 
+    /**
+     * Thu hồi mọi token của user cấp trước {@code issuedBefore}. Claim {@code iat} chỉ tính theo giây nên epoch được
+     * làm tròn lên: token cấp trong cùng giây với lúc thu hồi cũng bị thu hồi.
+     * Key epoch sống bằng thời gian sống dài nhất của token, sau đó mọi token cũ đều đã hết hạn.
+     */
+    @Override
+    public void revokeAllTokens(Long userId, Instant issuedBefore) {
+        long epoch = issuedBefore.getNano() == 0 ? issuedBefore.getEpochSecond() : issuedBefore.getEpochSecond() + 1;
+        redisTemplate.opsForValue().set(EPOCH_PREFIX + userId, String.valueOf(epoch), maxTokenLifetime);
+        rememberEpoch(userId, epoch);
+        publish(EPOCH_MESSAGE + userId + ":" + epoch);
+    }
+
     /**
      * Kiểm tra token có trong blacklist không
      *
-     * @param token JWT token cần kiểm tra
-     * @return true nếu token đã bị blacklist (logout), false nếu vẫn còn hợp lệ
+     * @param jwt JWT token cần kiểm tra
+     * @return true nếu token đã bị blacklist (logout) hoặc bị thu hồi hàng loạt, false nếu vẫn còn hợp lệ
+     */
+    @Override
+    public boolean isBlacklisted(Jwt jwt) {
+        Long userId = userId(jwt);
+        Instant issuedAt = jwt.getIssuedAt();
+        if (userId != null && issuedAt != null) {
+            Long epoch = epochs.get(userId);
+            if (epoch != null && issuedAt.getEpochSecond() < epoch) {
+                return true;
+            }
+        }
+        String tokenId = tokenId(jwt);
+        boolean mightBeRevoked = filter.mightContain(tokenId, Instant.now());
+        if (synced && !mightBeRevoked) {
+            return false;
+        }
+        try {
+            if (Boolean.TRUE.equals(redisTemplate.hasKey(BLACKLIST_PREFIX + tokenId))) {
+                return true;
+            }
+            if (!synced && userId != null && issuedAt != null) {
+                // Bản sao epoch trên node có thể thiếu khi chưa nạp được từ Redis
+                String epoch = redisTemplate.opsForValue().get(EPOCH_PREFIX + userId);
+                return epoch != null && issuedAt.getEpochSecond() < Long.parseLong(epoch);
+            }
+            return false;
+        } catch (DataAccessException e) {
+            LOG.warn("Không kiểm tra được token blacklist trên Redis: {}", e.getMessage());
+            return properties.isFailClosed() || mightBeRevoked;
+        }
+    }
+
+    /**
+     * Nhận thông báo thu hồi từ channel {@link ApplicationProperties.TokenBlacklist#getChannel()}, hoặc keyspace event
+     * của các key blacklist/epoch ghi từ ngoài ứng dụng.
      */
     @Override
-    public boolean isBlacklisted(String token) {
-        String key = BLACKLIST_PREFIX + token;
-        return Boolean.TRUE.equals(redisTemplate.hasKey(key));
+    public void onMessage(Message message, byte[] pattern) {
+        String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            if (channel.equals(properties.getChannel())) {
+                String[] parts = body.split(":", 3);
+                if (body.startsWith(TOKEN_MESSAGE)) {
+                    rememberToken(parts[2], Instant.ofEpochSecond(Long.parseLong(parts[1])));
+                } else if (body.startsWith(EPOCH_MESSAGE)) {
+                    rememberEpoch(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+                }
+            } else if ("set".equals(body) || "expire".equals(body)) {
+                // __keyspace@<db>__:<key>
+                String key = channel.substring(channel.indexOf(':') + 1);
+                if (key.startsWith(BLACKLIST_PREFIX)) {
+                    Long ttl = redisTemplate.getExpire(key, TimeUnit.MILLISECONDS);
+                    if (ttl != null && ttl > 0) {
+                        rememberToken(key.substring(BLACKLIST_PREFIX.length()), Instant.now().plusMillis(ttl));
+                    }
+                } else if (key.startsWith(EPOCH_PREFIX)) {
+                    String epoch = redisTemplate.opsForValue().get(key);
+                    if (epoch != null) {
+                        rememberEpoch(Long.parseLong(key.substring(EPOCH_PREFIX.length())), Long.parseLong(epoch));
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("Bỏ qua thông báo thu hồi token không hợp lệ trên {}: {}", channel, e.getMessage());
+        }
+    }
+
+    /**
+     * Dựng lại filter và epoch từ các key còn trong Redis: bù message pub/sub bị mất và bỏ bit của token đã hết hạn.
+     */
+    @Scheduled(fixedDelayString = "${application.token-blacklist.resync-interval:PT1M}")
+    public void resync() {
+        RevokedTokenFilter freshFilter = newFilter();
+        Map<Long, Long> freshEpochs = new ConcurrentHashMap<>();
+        synchronized (filterLock) {
+            rebuilding = freshFilter;
+            rebuildingEpochs = freshEpochs;
+        }
+        try {
+            scan(BLACKLIST_PREFIX, keys -> loadTokens(freshFilter, keys));
+            scan(EPOCH_PREFIX, keys -> loadEpochs(freshEpochs, keys));
+            synchronized (filterLock) {
+                filter = freshFilter;
+                epochs = freshEpochs;
+                rebuilding = null;
+                rebuildingEpochs = null;
+            }
+            synced = true;
+        } catch (DataAccessException e) {
+            synchronized (filterLock) {
+                rebuilding = null;
+                rebuildingEpochs = null;
+            }
+            synced = false;
+            filter.evictExpired(Instant.now());
+            LOG.warn("Không nạp lại được token blacklist từ Redis: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Id dùng làm key: claim {@code jti}, hoặc 128 bit đầu của SHA-256 chuỗi token với token cấp trước khi có jti.
+     */
+    static String tokenId(Jwt jwt) {
+        return jwt.getId() != null ? jwt.getId() : digest(jwt.getTokenValue());
+    }
+
+    private static Long userId(Jwt jwt) {
+        return jwt.getClaim(SecurityUtils.USER_ID_CLAIM) instanceof Number userId ? userId.longValue() : null;
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void publish(String message) {
+        try {
+            redisTemplate.convertAndSend(properties.getChannel(), message);
+        } catch (DataAccessException e) {
+            // Node khác sẽ thấy thay đổi ở lần nạp lại kế tiếp
+            LOG.warn("Không gửi được thông báo thu hồi token: {}", e.getMessage());
+        }
+    }
+
+    private void scan(String prefix, Consumer<List<String>> batchConsumer) {
+        List<String> keys = new ArrayList<>(SCAN_BATCH_SIZE);
+        ScanOptions options = ScanOptions.scanOptions().match(prefix + "*").count(SCAN_BATCH_SIZE).build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                keys.add(cursor.next());
+                if (keys.size() == SCAN_BATCH_SIZE) {
+                    batchConsumer.accept(keys);
+                    keys.clear();
+                }
+            }
+        }
+        if (!keys.isEmpty()) {
+            batchConsumer.accept(keys);
+        }
+    }
+
+    private void loadTokens(RevokedTokenFilter target, List<String> keys) {
+        Instant now = Instant.now();
+        List<Object> ttls = redisTemplate.executePipelined(
+            (RedisCallback<Object>) connection -> {
+                for (String key : keys) {
+                    connection.keyCommands().pTtl(key.getBytes(StandardCharsets.UTF_8));
+                }
+                return null;
+            }
+        );
+        for (int i = 0; i < keys.size(); i++) {
+            if (!(ttls.get(i) instanceof Long ttl) || ttl <= 0) {
+                continue;
+            }
+            String key = keys.get(i);
+            String tokenId = key.substring(BLACKLIST_PREFIX.length());
+            if (tokenId.indexOf('.') >= 0) {
+                // Key cũ lưu cả chuỗi JWT: chuyển sang key theo digest, giữ nguyên TTL
+                tokenId = digest(tokenId);
+                redisTemplate.opsForValue().set(BLACKLIST_PREFIX + tokenId, "blacklisted", Duration.ofMillis(ttl));
+                redisTemplate.delete(key);
+            }
+            target.put(tokenId, now.plusMillis(ttl));
+        }
+    }
+
+    private void loadEpochs(Map<Long, Long> target, List<String> keys) {
+        List<String> values = redisTemplate.opsForValue().multiGet(keys);
+        if (values == null) {
+            return;
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            if (values.get(i) != null) {
+                target.merge(Long.parseLong(keys.get(i).substring(EPOCH_PREFIX.length())), Long.parseLong(values.get(i)), Math::max);
+            }
+        }
+    }
+
+    private void rememberToken(String tokenId, Instant expiresAt) {
+        synchronized (filterLock) {
+            filter.put(tokenId, expiresAt);
+            if (rebuilding != null) {
+                rebuilding.put(tokenId, expiresAt);
+            }
+        }
+    }
+
+    private void rememberEpoch(Long userId, long epoch) {
+        synchronized (filterLock) {
+            epochs.merge(userId, epoch, Math::max);
+            if (rebuildingEpochs != null) {
+                rebuildingEpochs.merge(userId, epoch, Math::max);
+            }
+        }
+    }
+
+    private RevokedTokenFilter newFilter() {
+        return new RevokedTokenFilter(partitionWidth, properties.getExpectedRevocations(), properties.getFalsePositiveRate());
     }
 }
@@ -6,6 +6,7 @@ import com.mycompany.myapp.domain.User;
 import com.mycompany.myapp.repository.AuthorityRepository;
 import com.mycompany.myapp.repository.UserRepository;
 import com.mycompany.myapp.security.AuthoritiesConstants;
+import com.mycompany.myapp.security.CurrentUserResolver;
 import com.mycompany.myapp.security.SecurityUtils;
 import com.mycompany.myapp.service.dto.AdminUserDTO;
 import com.mycompany.myapp.service.dto.UserDTO;
@@ -22,6 +23,8 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import tech.jhipster.security.RandomUtil;
 
 @Service
@@ -33,17 +36,26 @@ public class UserService {
     private final PasswordEncoder passwordEncoder;
     private final AuthorityRepository authorityRepository;
     private final MessageProducer messageProducer;
+    private final TokenBlacklistService tokenBlacklistService;
+    private final CurrentUserResolver currentUserResolver;
+    private final RefreshTokenService refreshTokenService;
 
     public UserService(
         UserRepository userRepository,
         PasswordEncoder passwordEncoder,
         AuthorityRepository authorityRepository,
-        MessageProducer messageProducer
+        MessageProducer messageProducer,
+        TokenBlacklistService tokenBlacklistService,
+        CurrentUserResolver currentUserResolver,
+        RefreshTokenService refreshTokenService
     ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authorityRepository = authorityRepository;
         this.messageProducer = messageProducer;
+        this.tokenBlacklistService = tokenBlacklistService;
+        this.currentUserResolver = currentUserResolver;
+        this.refreshTokenService = refreshTokenService;
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -53,6 +65,7 @@ public class UserService {
             .map(user -> {
                 user.setActivated(true);
                 user.setActivationKey(null);
+                clearUserCaches(user.getEmail());
                 log.debug("Activated user: {}", user);
                 return user;
             });
@@ -67,6 +80,8 @@ public class UserService {
                 user.setPassword(passwordEncoder.encode(newPassword));
                 user.setResetKey(null);
                 user.setResetDate(null);
+                clearUserCaches(user.getEmail());
+                revokeTokensAfterCommit(user.getId());
                 return user;
             });
     }
@@ -78,6 +93,7 @@ public class UserService {
             .map(user -> {
                 user.setResetKey(RandomUtil.generateResetKey());
                 user.setResetDate(Instant.now());
+                clearUserCaches(user.getEmail());
                 return user;
             });
     }
@@ -118,6 +134,7 @@ public class UserService {
         newUser.setActivationKey(null);
         authorityRepository.findById(AuthoritiesConstants.USER).ifPresent(newUser::setAuthority);
         userRepository.save(newUser);
+        clearUserCaches(newUser.getEmail());
         log.debug("Created Information for User: {}", newUser);
 
         UserRegistrationEventDTO registrationEvent = new UserRegistrationEventDTO(
@@ -137,6 +154,7 @@ public class UserService {
         }
         userRepository.delete(existingUser);
         userRepository.flush();
+        clearUserCaches(existingUser.getEmail());
         return true;
     }
 
@@ -165,6 +183,7 @@ public class UserService {
             authorityRepository.findById(AuthoritiesConstants.USER).ifPresent(user::setAuthority);
         }
         userRepository.save(user);
+        clearUserCaches(user.getEmail());
         log.debug("Created Information for User: {}", user);
         return user;
     }
@@ -174,6 +193,7 @@ public class UserService {
             .filter(Optional::isPresent)
             .map(Optional::get)
             .map(user -> {
+                String previousEmail = user.getEmail();
                 user.setFirstName(userDTO.getFirstName());
                 user.setLastName(userDTO.getLastName());
                 if (userDTO.getEmail() != null) {
@@ -181,11 +201,19 @@ public class UserService {
                 }
                 user.setPhone(userDTO.getPhone());
                 user.setImageUrl(userDTO.getImageUrl());
+                boolean wasActivated = user.isActivated();
+                String previousAuthority = user.getAuthority() != null ? user.getAuthority().getName() : null;
                 user.setActivated(userDTO.isActivated());
                 user.setLangKey(userDTO.getLangKey());
                 if (userDTO.getAuthorities() != null && !userDTO.getAuthorities().isEmpty()) {
                     authorityRepository.findById(userDTO.getAuthorities().iterator().next()).ifPresent(user::setAuthority);
                 }
+                // Token cũ vẫn mang claim quyền cũ: khóa tài khoản hoặc đổi quyền thì thu hồi hết
+                String authority = user.getAuthority() != null ? user.getAuthority().getName() : null;
+                if ((wasActivated && !user.isActivated()) || !Objects.equals(previousAuthority, authority)) {
+                    revokeTokensAfterCommit(user.getId());
+                }
+                clearUserCaches(previousEmail, user.getEmail());
                 log.debug("Changed Information for User: {}", user);
                 return user;
             })
@@ -196,15 +224,20 @@ public class UserService {
         userRepository
             .findOneByEmailIgnoreCase(email)
             .ifPresent(user -> {
+                // Xóa refresh token trước khi xóa user (khóa ngoại)
+                revokeTokensAfterCommit(user.getId());
                 userRepository.delete(user);
+                clearUserCaches(user.getEmail());
                 log.debug("Deleted User: {}", user);
             });
     }
 
     public void updateUser(String firstName, String lastName, String email, String langKey, String imageUrl) {
-        SecurityUtils.getCurrentUserLogin()
-            .flatMap(userRepository::findOneByEmailIgnoreCase)
+        currentUserResolver
+            .getCurrentUserId()
+            .flatMap(userRepository::findById)
             .ifPresent(user -> {
+                clearUserCaches(user.getEmail(), email);
                 user.setFirstName(firstName);
                 user.setLastName(lastName);
                 if (email != null) {
@@ -218,8 +251,9 @@ public class UserService {
 
     @Transactional
     public void changePassword(String currentClearTextPassword, String newPassword) {
-        SecurityUtils.getCurrentUserLogin()
-            .flatMap(userRepository::findOneByEmailIgnoreCase)
+        currentUserResolver
+            .getCurrentUserId()
+            .flatMap(userRepository::findById)
             .ifPresent(user -> {
                 String currentEncryptedPassword = user.getPassword();
                 if (!passwordEncoder.matches(currentClearTextPassword, currentEncryptedPassword)) {
@@ -227,10 +261,43 @@ public class UserService {
                 }
                 String encryptedPassword = passwordEncoder.encode(newPassword);
                 user.setPassword(encryptedPassword);
+                clearUserCaches(user.getEmail());
                 log.debug("Changed password for User: {}", user);
             });
     }
 
+    /**
+     * Xóa thông tin user đã cache trong {@link CurrentUserResolver}; cache transaction-aware nên chạy sau commit.
+     */
+    private void clearUserCaches(String... emails) {
+        currentUserResolver.evict(emails);
+    }
+
+    /**
+     * Thu hồi mọi token đã cấp cho user: refresh token bị xóa ngay trong transaction hiện tại (rollback thì còn nguyên),
+     * epoch cho access token được ghi vào Redis sau khi commit. Gọi trước khi xóa user (khóa ngoại của refresh token).
+     */
+    public void revokeTokensAfterCommit(Long userId) {
+        refreshTokenService.deleteByUserId(userId);
+        Instant revokedAt = Instant.now();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            tokenBlacklistService.revokeAllTokens(userId, revokedAt);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+            new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    try {
+                        tokenBlacklistService.revokeAllTokens(userId, revokedAt);
+                    } catch (RuntimeException e) {
+                        log.error("Could not revoke tokens of user {}: {}", userId, e.getMessage());
+                    }
+                }
+            }
+        );
+    }
+
     @Transactional(readOnly = true)
     public Page<AdminUserDTO> getAllManagedUsers(Pageable pageable) {
         return userRepository.findAll(pageable).map(AdminUserDTO::new);
@@ -258,6 +325,7 @@ public class UserService {
             .forEach(user -> {
                 log.debug("Deleting not activated user {}", user.getEmail());
                 userRepository.delete(user);
+                clearUserCaches(user.getEmail());
             });
     }
 
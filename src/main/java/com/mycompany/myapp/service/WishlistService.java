@@ -1,18 +1,18 @@
 package com.mycompany.myapp.service;
 
 import com.mycompany.myapp.domain.Product;
-import com.mycompany.myapp.domain.User;
 import com.mycompany.myapp.domain.WishlistItem;
 import com.mycompany.myapp.repository.ProductRepository;
 import com.mycompany.myapp.repository.UserRepository;
+import com.mycompany.myapp.repository.UserProjection;
 import com.mycompany.myapp.repository.WishlistItemRepository;
+import com.mycompany.myapp.security.CurrentUserResolver;
 import com.mycompany.myapp.security.SecurityUtils;
 import java.time.Instant;
 import java.util.List;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,15 +25,18 @@ public class WishlistService {
     private final WishlistItemRepository wishlistItemRepository;
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
+    private final CurrentUserResolver currentUserResolver;
 
     public WishlistService(
         WishlistItemRepository wishlistItemRepository,
         UserRepository userRepository,
-        ProductRepository productRepository
+        ProductRepository productRepository,
+        CurrentUserResolver currentUserResolver
     ) {
         this.wishlistItemRepository = wishlistItemRepository;
         this.userRepository = userRepository;
         this.productRepository = productRepository;
+        this.currentUserResolver = currentUserResolver;
     }
 
     @Transactional(readOnly = true)
@@ -42,10 +45,9 @@ public class WishlistService {
         return wishlistItemRepository.findByUser_Email(userEmail).stream().map(WishlistItem::getProduct).collect(Collectors.toList());
     }
 
-    @CacheEvict(value = { "com.mycompany.myapp.domain.Product.products" }, allEntries = true)
     public void addToWishlist(Long productId) {
-        String userEmail = SecurityUtils.getCurrentUserLogin().orElseThrow(() -> new IllegalStateException("Current user not found"));
-        User user = userRepository.findOneByEmailIgnoreCase(userEmail).orElseThrow(() -> new IllegalStateException("User not found"));
+        UserProjection user = currentUserResolver.getCurrentUser().orElseThrow(() -> new IllegalStateException("Current user not found"));
+        String userEmail = user.email();
         Product product = productRepository.findById(productId).orElseThrow(() -> new RuntimeException("Product not found"));
 
         if (wishlistItemRepository.findOneByUser_EmailAndProductId(userEmail, productId).isPresent()) {
@@ -54,14 +56,13 @@ public class WishlistService {
         }
 
         WishlistItem wishlistItem = new WishlistItem();
-        wishlistItem.setUser(user);
+        wishlistItem.setUser(userRepository.getReferenceById(user.id()));
         wishlistItem.setProduct(product);
         wishlistItem.setAddedDate(Instant.now());
         wishlistItemRepository.save(wishlistItem);
         log.debug("Added product {} to wishlist for user {}", productId, userEmail);
     }
 
-    @CacheEvict(value = { "com.mycompany.myapp.domain.Product.products" }, allEntries = true)
     public void removeFromWishlist(Long productId) {
         String userEmail = SecurityUtils.getCurrentUserLogin().orElseThrow(() -> new IllegalStateException("Current user not found"));
         wishlistItemRepository.deleteByUser_EmailAndProductId(userEmail, productId);
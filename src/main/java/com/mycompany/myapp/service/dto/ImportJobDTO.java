@@ -0,0 +1,156 @@
+package com.mycompany.myapp.service.dto;
+
+import com.mycompany.myapp.domain.enumeration.ImportJobStatus;
+import com.mycompany.myapp.domain.enumeration.ImportJobType;
+import com.mycompany.myapp.service.importer.ImportRowError;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Trạng thái một job import: tiến độ, tốc độ, thời gian còn lại ước tính và các dòng lỗi.
+ */
+public class ImportJobDTO implements Serializable {
+
+    private Long id;
+    private ImportJobType type;
+    private ImportJobStatus status;
+    private String source;
+    private Integer totalRows;
+    private Integer processedRows;
+    private Integer importedRows;
+    private Integer failedRows;
+    private Double rowsPerSecond;
+    private Long etaSeconds;
+    private String lastError;
+    private Instant createdDate;
+    private Instant startedDate;
+    private Instant finishedDate;
+    private List<ImportRowError> errors = new ArrayList<>();
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public ImportJobType getType() {
+        return type;
+    }
+
+    public void setType(ImportJobType type) {
+        this.type = type;
+    }
+
+    public ImportJobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ImportJobStatus status) {
+        this.status = status;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public Integer getTotalRows() {
+        return totalRows;
+    }
+
+    public void setTotalRows(Integer totalRows) {
+        this.totalRows = totalRows;
+    }
+
+    public Integer getProcessedRows() {
+        return processedRows;
+    }
+
+    public void setProcessedRows(Integer processedRows) {
+        this.processedRows = processedRows;
+    }
+
+    public Integer getImportedRows() {
+        return importedRows;
+    }
+
+    public void setImportedRows(Integer importedRows) {
+        this.importedRows = importedRows;
+    }
+
+    public Integer getFailedRows() {
+        return failedRows;
+    }
+
+    public void setFailedRows(Integer failedRows) {
+        this.failedRows = failedRows;
+    }
+
+    public Double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(Double rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    public Long getEtaSeconds() {
+        return etaSeconds;
+    }
+
+    public void setEtaSeconds(Long etaSeconds) {
+        this.etaSeconds = etaSeconds;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public Instant getStartedDate() {
+        return startedDate;
+    }
+
+    public void setStartedDate(Instant startedDate) {
+        this.startedDate = startedDate;
+    }
+
+    public Instant getFinishedDate() {
+        return finishedDate;
+    }
+
+    public void setFinishedDate(Instant finishedDate) {
+        this.finishedDate = finishedDate;
+    }
+
+    public List<ImportRowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<ImportRowError> errors) {
+        this.errors = errors;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportJobDTO{" + "id=" + id + ", type=" + type + ", status=" + status + ", processedRows=" + processedRows + "}";
+    }
+}
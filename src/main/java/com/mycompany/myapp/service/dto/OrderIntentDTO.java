@@ -0,0 +1,40 @@
+package com.mycompany.myapp.service.dto;
+
+import java.io.Serializable;
+
+/**
+ * Message của chế độ checkout bất đồng bộ: id đơn QUEUED và giỏ hàng khách gửi lên.
+ */
+public class OrderIntentDTO implements Serializable {
+
+    private Long orderId;
+    private OrderDTO order;
+
+    public OrderIntentDTO() {}
+
+    public OrderIntentDTO(Long orderId, OrderDTO order) {
+        this.orderId = orderId;
+        this.order = order;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public OrderDTO getOrder() {
+        return order;
+    }
+
+    public void setOrder(OrderDTO order) {
+        this.order = order;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderIntentDTO{" + "orderId=" + orderId + "}";
+    }
+}
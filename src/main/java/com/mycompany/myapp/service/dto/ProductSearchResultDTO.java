@@ -0,0 +1,83 @@
+package com.mycompany.myapp.service.dto;
+
+import com.mycompany.myapp.repository.ProductProjection;
+import java.io.Serializable;
+
+/**
+ * Một kết quả tìm kiếm sản phẩm, lấy từ index trong bộ nhớ (không đọc database).
+ */
+public class ProductSearchResultDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long id;
+    private String name;
+    private Double price;
+    private String imageUrl;
+    private String categorySlug;
+    private double score;
+
+    public ProductSearchResultDTO() {}
+
+    public ProductSearchResultDTO(ProductProjection product, double score) {
+        this.id = product.id();
+        this.name = product.name();
+        this.price = product.price();
+        this.imageUrl = product.imageUrl();
+        this.categorySlug = product.categorySlug();
+        this.score = score;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public void setPrice(Double price) {
+        this.price = price;
+    }
+
+    public String getImageUrl() {
+        return imageUrl;
+    }
+
+    public void setImageUrl(String imageUrl) {
+        this.imageUrl = imageUrl;
+    }
+
+    public String getCategorySlug() {
+        return categorySlug;
+    }
+
+    public void setCategorySlug(String categorySlug) {
+        this.categorySlug = categorySlug;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductSearchResultDTO{" + "id=" + id + ", name='" + name + '\'' + ", score=" + score + '}';
+    }
+}
@@ -0,0 +1,13 @@
+package com.mycompany.myapp.service.export;
+
+import java.util.function.Function;
+
+/**
+ * Một cột export.
+ *
+ * @param name  tên dùng trong tham số {@code columns=} và làm key NDJSON.
+ * @param header tiêu đề cột trong CSV/xlsx.
+ * @param width độ rộng cột xlsx (số ký tự).
+ * @param value lấy giá trị của cột từ một dòng dữ liệu.
+ */
+public record ExportColumn<T>(String name, String header, int width, Function<T, ?> value) {}
@@ -0,0 +1,170 @@
+package com.mycompany.myapp.service.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.stereotype.Component;
+
+/**
+ * Ghi một luồng dòng dữ liệu ra CSV, NDJSON hoặc xlsx, dùng chung cho các export (sản phẩm, đơn hàng, người dùng...).
+ * <p>
+ * Mỗi dòng được ghi ngay khi đọc ra nên bộ nhớ dùng không phụ thuộc số dòng.
+ * {@code out} không bị đóng, chỉ được flush khi ghi xong.
+ */
+@Component
+public class ExportWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Số dòng SXSSF giữ trong bộ nhớ, các dòng cũ hơn được ghi ra file tạm.
+     */
+    private static final int ROW_ACCESS_WINDOW = 100;
+
+    private final ObjectMapper objectMapper;
+
+    public ExportWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public <T> void write(Stream<T> rows, List<ExportColumn<T>> columns, ExportFormat format, String sheetName, OutputStream out)
+        throws IOException {
+        switch (format) {
+            case CSV -> writeCsv(rows, columns, out);
+            case NDJSON -> writeNdjson(rows, columns, out);
+            case XLSX -> writeXlsx(rows, columns, sheetName, out);
+        }
+    }
+
+    private <T> void writeCsv(Stream<T> rows, List<ExportColumn<T>> columns, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeCsvField(writer, columns.get(i).header());
+        }
+        writer.write("\r\n");
+
+        Iterator<T> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            T row = iterator.next();
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = columns.get(i).value().apply(row);
+                if (value != null) {
+                    writeCsvField(writer, toText(value));
+                }
+            }
+            writer.write("\r\n");
+        }
+        writer.flush();
+    }
+
+    /**
+     * Theo RFC 4180: bọc trong dấu nháy kép khi có dấu phẩy, nháy kép hoặc xuống dòng.
+     */
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private <T> void writeNdjson(Stream<T> rows, List<ExportColumn<T>> columns, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(new BufferedOutputStream(out, BUFFER_SIZE));
+        // Không để generator đóng response stream
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Mỗi object một dòng thay cho dấu cách mặc định giữa các giá trị gốc
+        generator.setRootValueSeparator(null);
+
+        Iterator<T> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            T row = iterator.next();
+            generator.writeStartObject();
+            for (ExportColumn<T> column : columns) {
+                generator.writeFieldName(column.name());
+                generator.writeObject(column.value().apply(row));
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+        generator.close();
+    }
+
+    private <T> void writeXlsx(Stream<T> rows, List<ExportColumn<T>> columns, String sheetName, OutputStream out) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
+            Sheet sheet = workbook.createSheet(sheetName);
+
+            // Độ rộng cố định thay cho autoSizeColumn, vốn phải đọc lại toàn bộ dữ liệu
+            Row headerRow = sheet.createRow(0);
+            for (int i = 0; i < columns.size(); i++) {
+                headerRow.createCell(i).setCellValue(columns.get(i).header());
+                sheet.setColumnWidth(i, columns.get(i).width() * 256);
+            }
+
+            int rowNum = 1;
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                T item = iterator.next();
+                Row row = sheet.createRow(rowNum++);
+                for (int i = 0; i < columns.size(); i++) {
+                    Object value = columns.get(i).value().apply(item);
+                    if (value == null) {
+                        continue;
+                    }
+                    Cell cell = row.createCell(i);
+                    if (value instanceof Number number) {
+                        cell.setCellValue(number.doubleValue());
+                    } else if (value instanceof Boolean bool) {
+                        cell.setCellValue(bool);
+                    } else {
+                        cell.setCellValue(toText(value));
+                    }
+                }
+            }
+
+            BufferedOutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+            workbook.write(buffered);
+            buffered.flush();
+        } finally {
+            // Xóa các file tạm của SXSSF
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private static String toText(Object value) {
+        // Tránh dạng 1.5E7 của Double.toString
+        if (value instanceof Double || value instanceof Float) {
+            return BigDecimal.valueOf(((Number) value).doubleValue()).toPlainString();
+        }
+        return value.toString();
+    }
+}
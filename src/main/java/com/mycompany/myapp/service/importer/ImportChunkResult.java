@@ -0,0 +1,8 @@
+package com.mycompany.myapp.service.importer;
+
+import java.util.List;
+
+/**
+ * Kết quả ghi một phần của file import: số dòng đã ghi và các dòng bị bỏ qua.
+ */
+public record ImportChunkResult(int imported, List<ImportRowError> errors) {}
@@ -0,0 +1,207 @@
+package com.mycompany.myapp.service.importer;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tải file import từ URL về đĩa bằng {@link HttpClient} bất đồng bộ, có giới hạn thời gian kết nối, thời gian tải
+ * và dung lượng. Dữ liệu được ghi thẳng ra file theo từng buffer, không giữ cả file trong bộ nhớ;
+ * vượt giới hạn dung lượng thì hủy ngay, không đọc hết phần còn lại.
+ */
+@Component
+public class ImportFileDownloader {
+
+    private final HttpClient httpClient;
+
+    private final ApplicationProperties.Import properties;
+
+    public ImportFileDownloader(ApplicationProperties applicationProperties) {
+        this.properties = applicationProperties.getImport();
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(properties.getConnectTimeout())
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+    }
+
+    /**
+     * Tải {@code uri} vào {@code target}. Lỗi (HTTP khác 2xx, quá thời gian, quá dung lượng) thì xóa file đang ghi dở.
+     */
+    public void download(URI uri, Path target) throws IOException {
+        long maxBytes = properties.getMaxDownloadSize().toBytes();
+        // timeout của request chỉ tính đến lúc nhận header, thời gian đọc body do downloadTimeout giới hạn
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(properties.getResponseTimeout()).GET().build();
+
+        CompletableFuture<HttpResponse<Path>> response = httpClient.sendAsync(request, info -> {
+            if (info.statusCode() / 100 != 2) {
+                return new CancellingSubscriber();
+            }
+            long contentLength = info.headers().firstValueAsLong("Content-Length").orElse(-1);
+            if (contentLength > maxBytes) {
+                return new CancellingSubscriber();
+            }
+            return new LimitedFileSubscriber(target, maxBytes);
+        });
+
+        boolean downloaded = false;
+        try {
+            HttpResponse<Path> result = response.get(properties.getDownloadTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            if (result.statusCode() / 100 != 2) {
+                throw new IOException("Máy chủ trả về HTTP " + result.statusCode() + " cho " + uri);
+            }
+            if (result.body() == null) {
+                throw new IOException("File vượt quá giới hạn " + properties.getMaxDownloadSize());
+            }
+            downloaded = true;
+        } catch (TimeoutException e) {
+            throw new IOException("Quá thời gian tải file (" + properties.getDownloadTimeout() + ")", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Bị dừng khi đang tải file");
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+        } finally {
+            if (!downloaded) {
+                response.cancel(true);
+                Files.deleteIfExists(target);
+            }
+        }
+    }
+
+    /**
+     * Hủy body ngay khi nhận subscription và trả về {@code null}: {@code BodySubscribers.replacing} vẫn đọc hết body
+     * rồi mới bỏ đi, với file quá lớn hay trang lỗi dài là tải vô ích đến hết {@code downloadTimeout}.
+     */
+    private static final class CancellingSubscriber implements HttpResponse.BodySubscriber<Path> {
+
+        private final CompletableFuture<Path> result = new CompletableFuture<>();
+
+        @Override
+        public CompletionStage<Path> getBody() {
+            return result;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.cancel();
+            result.complete(null);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> buffers) {
+            // Đã hủy, bỏ qua phần dữ liệu đang trên đường tới
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            result.complete(null);
+        }
+
+        @Override
+        public void onComplete() {
+            result.complete(null);
+        }
+    }
+
+    /**
+     * Ghi body ra file, hủy subscription khi vượt {@code maxBytes}.
+     */
+    private static final class LimitedFileSubscriber implements HttpResponse.BodySubscriber<Path> {
+
+        private final Path target;
+        private final long maxBytes;
+        private final CompletableFuture<Path> result = new CompletableFuture<>();
+        private FileChannel channel;
+        private Flow.Subscription subscription;
+        private long written;
+
+        private LimitedFileSubscriber(Path target, long maxBytes) {
+            this.target = target;
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public CompletionStage<Path> getBody() {
+            return result;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            try {
+                channel = FileChannel.open(
+                    target,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.WRITE
+                );
+                subscription.request(1);
+            } catch (IOException e) {
+                subscription.cancel();
+                result.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> buffers) {
+            try {
+                for (ByteBuffer buffer : buffers) {
+                    written += buffer.remaining();
+                    if (written > maxBytes) {
+                        subscription.cancel();
+                        close();
+                        result.complete(null);
+                        return;
+                    }
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                }
+                subscription.request(1);
+            } catch (IOException e) {
+                subscription.cancel();
+                close();
+                result.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            close();
+            result.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            close();
+            result.complete(target);
+        }
+
+        private void close() {
+            try {
+                if (channel != null) {
+                    channel.close();
+                }
+            } catch (IOException e) {
+                // Đã có lỗi hoặc đã ghi xong, không còn gì để làm
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.mycompany.myapp.service.importer;
+
+import java.io.Serializable;
+
+/**
+ * Một dòng bị bỏ qua khi import.
+ *
+ * @param rowNumber số dòng trong Excel (bắt đầu từ 1).
+ * @param message lý do.
+ */
+public record ImportRowError(int rowNumber, String message) implements Serializable {}
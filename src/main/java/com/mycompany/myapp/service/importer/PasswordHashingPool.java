@@ -0,0 +1,41 @@
+package com.mycompany.myapp.service.importer;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Băm mật khẩu trên một pool riêng có số luồng bằng số CPU, để import người dùng không phải băm BCrypt tuần tự trên luồng request.
+ */
+@Component
+public class PasswordHashingPool implements DisposableBean {
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final ExecutorService executor;
+
+    public PasswordHashingPool(PasswordEncoder passwordEncoder, ApplicationProperties applicationProperties) {
+        this.passwordEncoder = passwordEncoder;
+        int threads = applicationProperties.getImport().getPasswordHashThreads();
+        if (threads <= 0) {
+            threads = Runtime.getRuntime().availableProcessors();
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("password-hash-");
+        threadFactory.setDaemon(true);
+        this.executor = Executors.newFixedThreadPool(threads, threadFactory);
+    }
+
+    public CompletableFuture<String> encode(String rawPassword) {
+        return CompletableFuture.supplyAsync(() -> passwordEncoder.encode(rawPassword), executor);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,51 @@
+package com.mycompany.myapp.service.importer;
+
+import java.util.List;
+
+/**
+ * Một dòng đọc từ sheet xlsx. Giá trị ô là {@link String}, {@link Double}, {@link Boolean} hoặc {@code null} nếu ô trống.
+ */
+public final class XlsxRow {
+
+    private final int rowNum;
+
+    private final List<Object> values;
+
+    XlsxRow(int rowNum, List<Object> values) {
+        this.rowNum = rowNum;
+        this.values = values;
+    }
+
+    /**
+     * Chỉ số dòng trong sheet, bắt đầu từ 0 (dòng Excel = rowNum + 1).
+     */
+    public int getRowNum() {
+        return rowNum;
+    }
+
+    public Object get(int column) {
+        return column < values.size() ? values.get(column) : null;
+    }
+
+    /**
+     * Giá trị ô dạng chuỗi, số được đổi thành số nguyên (giống cách đọc ô cũ với {@code XSSFWorkbook}).
+     */
+    public String getString(int column) {
+        Object value = get(column);
+        if (value instanceof Double number) {
+            return String.valueOf(number.longValue());
+        }
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * Giá trị ô kiểu số, {@code null} nếu ô trống hoặc không phải số.
+     */
+    public Double getNumber(int column) {
+        return get(column) instanceof Double number ? number : null;
+    }
+
+    public boolean isEmpty() {
+        return values.stream().allMatch(value -> value == null || (value instanceof String text && text.isBlank()));
+    }
+}
@@ -0,0 +1,208 @@
+package com.mycompany.myapp.service.importer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import javax.xml.parsers.ParserConfigurationException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Đọc sheet đầu tiên của file xlsx theo kiểu SAX (XSSFReader): mỗi dòng được đưa cho {@code rowHandler} ngay khi đọc xong,
+ * không dựng DOM của cả workbook như {@code XSSFWorkbook}. Bộ nhớ dùng chỉ phụ thuộc bảng shared strings, không phụ thuộc số dòng.
+ */
+public final class XlsxRowReader {
+
+    private XlsxRowReader() {}
+
+    /**
+     * @param file file xlsx trên đĩa (OPCPackage đọc file bằng random access, không nạp cả file vào bộ nhớ).
+     * @param skipHeader bỏ qua dòng đầu tiên (tiêu đề).
+     * @param rowHandler nhận lần lượt các dòng dữ liệu, bỏ qua các dòng trống.
+     */
+    public static void readFirstSheet(Path file, boolean skipHeader, Consumer<XlsxRow> rowHandler) throws IOException {
+        parseFirstSheet(file, sharedStrings -> new SheetHandler(sharedStrings, skipHeader, rowHandler));
+    }
+
+    /**
+     * Số dòng của sheet đầu tiên theo thẻ {@code <dimension>} (đứng trước dữ liệu nên chỉ phải đọc phần đầu file),
+     * kể cả dòng tiêu đề. Trả về {@code null} nếu file không ghi thẻ này.
+     */
+    public static Integer countRows(Path file) throws IOException {
+        DimensionHandler handler = new DimensionHandler();
+        try {
+            parseFirstSheet(file, sharedStrings -> handler);
+        } catch (IOException e) {
+            if (!(e.getCause() instanceof StopParsingException)) {
+                throw e;
+            }
+        }
+        return handler.rows;
+    }
+
+    private static void parseFirstSheet(Path file, Function<SharedStrings, DefaultHandler> handlerFactory) throws IOException {
+        OPCPackage pkg;
+        try {
+            pkg = OPCPackage.open(file.toFile(), PackageAccess.READ);
+        } catch (OpenXML4JException | RuntimeException e) {
+            throw new IOException("File không phải định dạng xlsx hợp lệ: " + e.getMessage(), e);
+        }
+        try {
+            XSSFReader reader = new XSSFReader(pkg);
+            SharedStrings sharedStrings = new ReadOnlySharedStringsTable(pkg, false);
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+            try (InputStream sheet = sheets.next()) {
+                XMLReader xmlReader = XMLHelper.newXMLReader();
+                xmlReader.setContentHandler(handlerFactory.apply(sharedStrings));
+                xmlReader.parse(new InputSource(sheet));
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Không đọc được file Excel: " + e.getMessage(), e);
+        } finally {
+            // Mở chỉ đọc: revert() thay cho close() (close() sẽ cố ghi lại package)
+            pkg.revert();
+        }
+    }
+
+    /**
+     * Dừng đọc ngay khi đã có thông tin cần thiết.
+     */
+    private static final class StopParsingException extends SAXException {
+
+        private static final long serialVersionUID = 1L;
+    }
+
+    private static final class DimensionHandler extends DefaultHandler {
+
+        private Integer rows;
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+            if ("dimension".equals(localName)) {
+                String ref = attributes.getValue("ref");
+                if (ref != null) {
+                    // "A1:H1001" hoặc "A1" với sheet một ô
+                    String last = ref.substring(ref.indexOf(':') + 1);
+                    rows = new CellReference(last).getRow() + 1;
+                }
+                throw new StopParsingException();
+            }
+            if ("sheetData".equals(localName)) {
+                throw new StopParsingException();
+            }
+        }
+    }
+
+    private static final class SheetHandler extends DefaultHandler {
+
+        private final SharedStrings sharedStrings;
+
+        private final Consumer<XlsxRow> rowHandler;
+
+        private boolean skipNextRow;
+
+        private final StringBuilder text = new StringBuilder();
+
+        private List<Object> values;
+
+        private int rowNum = -1;
+
+        private int column;
+
+        private String cellType;
+
+        private boolean collecting;
+
+        private SheetHandler(SharedStrings sharedStrings, boolean skipHeader, Consumer<XlsxRow> rowHandler) {
+            this.sharedStrings = sharedStrings;
+            this.skipNextRow = skipHeader;
+            this.rowHandler = rowHandler;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "row" -> {
+                    String ref = attributes.getValue("r");
+                    rowNum = ref != null ? Integer.parseInt(ref) - 1 : rowNum + 1;
+                    values = new ArrayList<>();
+                    column = -1;
+                }
+                case "c" -> {
+                    String ref = attributes.getValue("r");
+                    column = ref != null ? new CellReference(ref).getCol() : column + 1;
+                    cellType = attributes.getValue("t");
+                    text.setLength(0);
+                }
+                // <v> là giá trị thường, <t> nằm trong <is> của chuỗi inline
+                case "v", "t" -> collecting = true;
+                default -> {}
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (collecting) {
+                text.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            switch (localName) {
+                case "v", "t" -> collecting = false;
+                case "c" -> {
+                    while (values.size() < column) {
+                        values.add(null);
+                    }
+                    values.add(cellValue());
+                }
+                case "row" -> endRow();
+                default -> {}
+            }
+        }
+
+        private void endRow() {
+            if (skipNextRow) {
+                skipNextRow = false;
+                return;
+            }
+            XlsxRow row = new XlsxRow(rowNum, values);
+            if (!row.isEmpty()) {
+                rowHandler.accept(row);
+            }
+        }
+
+        private Object cellValue() {
+            if (cellType == null || "n".equals(cellType)) {
+                return text.isEmpty() ? null : Double.valueOf(text.toString());
+            }
+            return switch (cellType) {
+                case "s" -> sharedStrings.getItemAt(Integer.parseInt(text.toString())).getString();
+                case "inlineStr", "str" -> text.toString();
+                case "b" -> "1".equals(text.toString());
+                // Ô lỗi (#N/A, #DIV/0!...) coi như trống
+                default -> null;
+            };
+        }
+    }
+}
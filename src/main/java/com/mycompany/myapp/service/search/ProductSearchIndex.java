@@ -0,0 +1,244 @@
+package com.mycompany.myapp.service.search;
+
+import com.mycompany.myapp.domain.search.SearchText;
+import com.mycompany.myapp.repository.ProductProjection;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Inverted index trong bộ nhớ cho tên, danh mục và mô tả sản phẩm.
+ * <p>
+ * Mỗi token của câu truy vấn khớp theo ba mức: đúng từ, tiền tố ("lap" → "laptop") và sai một ký tự
+ * ("laptp" → "laptop", tra qua bảng các biến thể xóa một ký tự để không phải duyệt cả từ điển). Điểm là tổng
+ * idf × trọng số trường × mức khớp của từng token, nhân với tỉ lệ token khớp được.
+ * <p>
+ * Không thread-safe: {@code ProductSearchService} đọc/ghi dưới khóa.
+ */
+public class ProductSearchIndex {
+
+    static final float NAME_BOOST = 3f;
+    static final float CATEGORY_BOOST = 2f;
+    static final float DESCRIPTION_BOOST = 1f;
+
+    private static final double EXACT_MATCH = 1.0;
+    private static final double PREFIX_MATCH = 0.7;
+    private static final double FUZZY_MATCH = 0.5;
+
+    private static final int PREFIX_MIN_LENGTH = 2;
+    private static final int FUZZY_MIN_LENGTH = 4;
+
+    /**
+     * Số từ tối đa được mở rộng từ một tiền tố, tránh "a" kéo theo nửa từ điển.
+     */
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    private final Map<Long, Document> documents = new HashMap<>();
+
+    /**
+     * term → (id sản phẩm → trọng số), sắp xếp theo term để tra tiền tố.
+     */
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+
+    /**
+     * Biến thể xóa một ký tự (và chính term) → các term, cho tìm kiếm gần đúng.
+     */
+    private final Map<String, Set<String>> deletions = new HashMap<>();
+
+    public void put(ProductProjection product) {
+        remove(product.id());
+        Map<String, Float> weights = new HashMap<>();
+        addField(weights, product.name(), NAME_BOOST);
+        addField(weights, product.categorySlug(), CATEGORY_BOOST);
+        addField(weights, product.description(), DESCRIPTION_BOOST);
+        documents.put(product.id(), new Document(product, weights.keySet()));
+        weights.forEach((term, weight) -> {
+            Map<Long, Float> posting = postings.get(term);
+            if (posting == null) {
+                posting = new HashMap<>();
+                postings.put(term, posting);
+                addDeletions(term);
+            }
+            posting.put(product.id(), weight);
+        });
+    }
+
+    public void remove(Long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms()) {
+            Map<Long, Float> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                    removeDeletions(term);
+                }
+            }
+        }
+    }
+
+    public ProductProjection get(Long id) {
+        Document document = documents.get(id);
+        return document == null ? null : document.product();
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    public List<Hit> search(String query, int limit) {
+        Set<String> tokens = new LinkedHashSet<>(SearchText.tokenize(query));
+        if (tokens.isEmpty() || documents.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Map<Long, double[]> scores = new HashMap<>();
+        for (String token : tokens) {
+            Map<Long, Double> tokenScores = new HashMap<>();
+            expand(token).forEach((term, match) -> {
+                Map<Long, Float> posting = postings.get(term);
+                double idf = idf(posting.size());
+                posting.forEach((id, weight) -> tokenScores.merge(id, idf * weight * match, Math::max));
+            });
+            tokenScores.forEach((id, score) -> {
+                double[] total = scores.computeIfAbsent(id, key -> new double[2]);
+                total[0] += score;
+                total[1]++;
+            });
+        }
+
+        Comparator<Hit> ranking = Comparator.comparingDouble(Hit::score).thenComparing(hit -> -hit.product().id());
+        PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, ranking);
+        scores.forEach((id, total) -> {
+            top.add(new Hit(documents.get(id).product(), total[0] * total[1] / tokens.size()));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        });
+        List<Hit> hits = new ArrayList<>(top);
+        hits.sort(ranking.reversed());
+        return hits;
+    }
+
+    /**
+     * Các term khớp với token cùng mức khớp cao nhất của từng term.
+     */
+    private Map<String, Double> expand(String token) {
+        Map<String, Double> terms = new HashMap<>();
+        if (postings.containsKey(token)) {
+            terms.put(token, EXACT_MATCH);
+        }
+        if (token.length() >= PREFIX_MIN_LENGTH) {
+            int expansions = 0;
+            for (String term : postings.subMap(token, false, token + Character.MAX_VALUE, false).keySet()) {
+                terms.putIfAbsent(term, PREFIX_MATCH);
+                if (++expansions >= MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+            }
+        }
+        if (token.length() >= FUZZY_MIN_LENGTH) {
+            for (String variant : variants(token)) {
+                for (String term : deletions.getOrDefault(variant, Set.of())) {
+                    if (!terms.containsKey(term) && withinOneEdit(token, term)) {
+                        terms.put(term, FUZZY_MATCH);
+                    }
+                }
+            }
+        }
+        return terms;
+    }
+
+    private double idf(int documentFrequency) {
+        return Math.log(1 + (documents.size() - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private static void addField(Map<String, Float> weights, String text, float boost) {
+        for (String term : new HashSet<>(SearchText.tokenize(text))) {
+            weights.merge(term, boost, Float::sum);
+        }
+    }
+
+    private void addDeletions(String term) {
+        if (term.length() < FUZZY_MIN_LENGTH - 1) {
+            return;
+        }
+        for (String variant : variants(term)) {
+            deletions.computeIfAbsent(variant, key -> new HashSet<>(2)).add(term);
+        }
+    }
+
+    private void removeDeletions(String term) {
+        if (term.length() < FUZZY_MIN_LENGTH - 1) {
+            return;
+        }
+        for (String variant : variants(term)) {
+            Set<String> terms = deletions.get(variant);
+            if (terms != null) {
+                terms.remove(term);
+                if (terms.isEmpty()) {
+                    deletions.remove(variant);
+                }
+            }
+        }
+    }
+
+    /**
+     * Chính chuỗi và mọi chuỗi bỏ đi một ký tự.
+     */
+    private static Set<String> variants(String term) {
+        Set<String> variants = new HashSet<>(term.length() + 1);
+        variants.add(term);
+        for (int i = 0; i < term.length(); i++) {
+            variants.add(term.substring(0, i) + term.substring(i + 1));
+        }
+        return variants;
+    }
+
+    /**
+     * Khoảng cách Damerau-Levenshtein không quá 1 (thêm, bớt, thay hoặc đảo hai ký tự liền nhau).
+     */
+    static boolean withinOneEdit(String a, String b) {
+        int lengthDiff = a.length() - b.length();
+        if (Math.abs(lengthDiff) > 1) {
+            return false;
+        }
+        int i = 0;
+        while (i < a.length() && i < b.length() && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        if (lengthDiff > 0) {
+            return a.regionMatches(i + 1, b, i, b.length() - i);
+        }
+        if (lengthDiff < 0) {
+            return b.regionMatches(i + 1, a, i, a.length() - i);
+        }
+        if (i == a.length()) {
+            return true;
+        }
+        if (a.regionMatches(i + 1, b, i + 1, a.length() - i - 1)) {
+            return true;
+        }
+        return (
+            i + 1 < a.length() &&
+            a.charAt(i) == b.charAt(i + 1) &&
+            a.charAt(i + 1) == b.charAt(i) &&
+            a.regionMatches(i + 2, b, i + 2, a.length() - i - 2)
+        );
+    }
+
+    public record Hit(ProductProjection product, double score) {}
+
+    private record Document(ProductProjection product, Set<String> terms) {}
+}
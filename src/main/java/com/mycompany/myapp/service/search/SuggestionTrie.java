@@ -0,0 +1,304 @@
+package com.mycompany.myapp.service.search;
+
+import com.mycompany.myapp.domain.search.SearchText;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Trie tiền tố cho gợi ý khi gõ (typeahead).
+ * <p>
+ * Mỗi mục được đặt vào trie theo văn bản đã chuẩn hóa bắt đầu từ từng từ ("Điện thoại Samsung" có các khóa
+ * "dien thoai samsung", "thoai samsung", "samsung"), và mỗi nút giữ sẵn danh sách bất biến các gợi ý tốt nhất
+ * của cả nhánh. Tra cứu chuẩn hóa tiền tố từng ký tự ngay khi đi xuống trie ({@link SearchText#foldChar(char)})
+ * rồi trả danh sách đó: với tiền tố đến {@link #MAX_DEPTH} ký tự không cấp phát đối tượng nào. Ký tự ngoài bảng
+ * chuẩn hóa (hiếm) thì chuẩn hóa cả chuỗi như lúc thêm. Khi thêm/xóa, chỉ các nút trên đường đi được tính lại.
+ * <p>
+ * Khóa chỉ sâu tối đa {@link #MAX_DEPTH} ký tự để giới hạn số nút: mọi khóa dài hơn bị cắt và nằm trong
+ * {@code terminals} của nút ở độ sâu đó (nút này không có con), kèm khóa đầy đủ. Tiền tố dài hơn được so
+ * {@code startsWith} với khóa đầy đủ của toàn bộ các mục đó chứ không chỉ danh sách top, nên không bỏ sót mục ít bán;
+ * chỉ trường hợp này cấp phát (khóa đã chuẩn hóa và danh sách kết quả). Không thread-safe.
+ */
+public class SuggestionTrie {
+
+    static final int MAX_DEPTH = 24;
+
+    private static final Comparator<Suggestion> RANKING = Comparator.comparingLong(Suggestion::salesCount)
+        .reversed()
+        .thenComparing(Suggestion::text);
+
+    private final int maxSuggestions;
+
+    private final Node root = new Node();
+
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    /**
+     * Đang nạp hàng loạt: chưa tính lại danh sách top sau mỗi lần thêm.
+     */
+    private boolean loading;
+
+    public SuggestionTrie(int maxSuggestions) {
+        this.maxSuggestions = maxSuggestions;
+    }
+
+    /**
+     * Thêm hoặc thay mục có khóa {@code id}.
+     */
+    public void put(String id, Suggestion suggestion) {
+        remove(id);
+        List<String> tokens = SearchText.tokenize(suggestion.text());
+        List<String> keys = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            String key = String.join(" ", tokens.subList(i, tokens.size()));
+            keys.add(key);
+            insert(key, suggestion);
+        }
+        entries.put(id, new Entry(suggestion, keys));
+    }
+
+    /**
+     * Nạp nhiều mục một lần, danh sách top được tính một lượt từ dưới lên ở cuối thay vì sau mỗi khóa.
+     */
+    public void putAll(Map<String, Suggestion> suggestions) {
+        loading = true;
+        try {
+            suggestions.forEach(this::put);
+        } finally {
+            loading = false;
+            recomputeAll(root);
+        }
+    }
+
+    public void remove(String id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        for (String key : entry.keys()) {
+            delete(key, entry.suggestion());
+        }
+    }
+
+    public Suggestion get(String id) {
+        Entry entry = entries.get(id);
+        return entry == null ? null : entry.suggestion();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Các gợi ý tốt nhất cho tiền tố (đã hoặc chưa chuẩn hóa).
+     */
+    public List<Suggestion> suggest(String prefix) {
+        if (prefix == null) {
+            return List.of();
+        }
+        // Tương đương String.join(" ", SearchText.tokenize(prefix)) nhưng chuẩn hóa từng ký tự khi đi xuống
+        Node node = root;
+        int depth = 0;
+        boolean separator = false;
+        for (int i = 0; i < prefix.length(); i++) {
+            char c = SearchText.foldChar(prefix.charAt(i));
+            if (c == SearchText.DROPPED) {
+                continue;
+            }
+            if (!Character.isLetterOrDigit(c) && c != SearchText.UNFOLDABLE) {
+                separator = depth > 0;
+                continue;
+            }
+            // Ký tự hiếm, hoặc tiền tố dài hơn độ sâu của trie: chuẩn hóa cả chuỗi
+            if (c == SearchText.UNFOLDABLE || depth + (separator ? 1 : 0) >= MAX_DEPTH) {
+                return suggestKey(foldKey(prefix));
+            }
+            if (separator) {
+                separator = false;
+                node = node.child(' ');
+                depth++;
+                if (node == null) {
+                    return List.of();
+                }
+            }
+            node = node.child(c);
+            depth++;
+            if (node == null) {
+                return List.of();
+            }
+        }
+        return depth == 0 ? List.of() : node.top;
+    }
+
+    private static String foldKey(String text) {
+        return String.join(" ", SearchText.tokenize(text));
+    }
+
+    private List<Suggestion> suggestKey(String key) {
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        Node node = root;
+        for (int i = 0; i < Math.min(key.length(), MAX_DEPTH); i++) {
+            node = node.child(key.charAt(i));
+            if (node == null) {
+                return List.of();
+            }
+        }
+        return key.length() <= MAX_DEPTH ? node.top : filterTerminals(node, key);
+    }
+
+    /**
+     * Tiền tố dài hơn {@link #MAX_DEPTH}: {@code node} ở độ sâu tối đa, mọi khóa khớp với phần đầu đều nằm trong
+     * {@code terminals} của nó.
+     */
+    private List<Suggestion> filterTerminals(Node node, String key) {
+        List<Suggestion> matches = new ArrayList<>();
+        for (Terminal terminal : node.terminals) {
+            if (terminal.key().startsWith(key) && !containsSame(matches, terminal.suggestion())) {
+                matches.add(terminal.suggestion());
+            }
+        }
+        matches.sort(RANKING);
+        return List.copyOf(matches.subList(0, Math.min(matches.size(), maxSuggestions)));
+    }
+
+    private static boolean containsSame(List<Suggestion> suggestions, Suggestion suggestion) {
+        for (Suggestion candidate : suggestions) {
+            if (candidate == suggestion) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void insert(String key, Suggestion suggestion) {
+        int depth = Math.min(key.length(), MAX_DEPTH);
+        Node[] path = new Node[depth + 1];
+        Node node = root;
+        path[0] = node;
+        for (int i = 0; i < depth; i++) {
+            node = node.getOrCreateChild(key.charAt(i));
+            path[i + 1] = node;
+        }
+        node.terminals.add(new Terminal(key, suggestion));
+        if (loading) {
+            return;
+        }
+        for (int i = path.length - 1; i >= 0; i--) {
+            path[i].top = computeTop(path[i]);
+        }
+    }
+
+    private void delete(String key, Suggestion suggestion) {
+        int depth = Math.min(key.length(), MAX_DEPTH);
+        Node[] path = new Node[depth + 1];
+        Node node = root;
+        path[0] = node;
+        for (int i = 0; i < depth; i++) {
+            node = node.child(key.charAt(i));
+            if (node == null) {
+                return;
+            }
+            path[i + 1] = node;
+        }
+        node.terminals.removeIf(terminal -> terminal.suggestion() == suggestion);
+        for (int i = path.length - 1; i >= 0; i--) {
+            if (i > 0 && path[i].isEmpty()) {
+                path[i - 1].removeChild(key.charAt(i - 1));
+            } else {
+                path[i].top = computeTop(path[i]);
+            }
+        }
+    }
+
+    private void recomputeAll(Node node) {
+        for (Node child : node.children) {
+            recomputeAll(child);
+        }
+        node.top = computeTop(node);
+    }
+
+    /**
+     * Gộp gợi ý của nút và danh sách top của các nút con; một mục có thể xuất hiện ở nhiều nhánh con nên lọc trùng.
+     */
+    private List<Suggestion> computeTop(Node node) {
+        Map<Suggestion, Boolean> candidates = new IdentityHashMap<>();
+        node.terminals.forEach(terminal -> candidates.put(terminal.suggestion(), Boolean.TRUE));
+        for (Node child : node.children) {
+            child.top.forEach(suggestion -> candidates.put(suggestion, Boolean.TRUE));
+        }
+        return candidates.keySet().stream().sorted(RANKING).limit(maxSuggestions).toList();
+    }
+
+    /**
+     * Một gợi ý: sản phẩm ({@code productId} khác null) hoặc danh mục.
+     */
+    public record Suggestion(String text, Long productId, String categorySlug, long salesCount) {}
+
+    private record Entry(Suggestion suggestion, List<String> keys) {}
+
+    /**
+     * Mục kết thúc tại một nút, kèm khóa đầy đủ (chưa cắt ở {@link #MAX_DEPTH}).
+     */
+    private record Terminal(String key, Suggestion suggestion) {}
+
+    private static final class Node {
+
+        private static final char[] NO_LABELS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private char[] labels = NO_LABELS;
+        private Node[] children = NO_CHILDREN;
+        private final List<Terminal> terminals = new ArrayList<>(1);
+        private List<Suggestion> top = List.of();
+
+        Node child(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node getOrCreateChild(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertAt = -index - 1;
+            Node child = new Node();
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newLabels[insertAt] = label;
+            newChildren[insertAt] = child;
+            System.arraycopy(labels, insertAt, newLabels, insertAt + 1, labels.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            labels = newLabels;
+            children = newChildren;
+            return child;
+        }
+
+        void removeChild(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index < 0) {
+                return;
+            }
+            char[] newLabels = new char[labels.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, newLabels, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(labels, index + 1, newLabels, index, labels.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            labels = newLabels;
+            children = newChildren;
+        }
+
+        boolean isEmpty() {
+            return terminals.isEmpty() && children.length == 0;
+        }
+    }
+}
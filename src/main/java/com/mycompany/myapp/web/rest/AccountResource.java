@@ -211,15 +211,12 @@ public class AccountResource {
             String token = authHeader.substring(7);
 
             try {
-                // Parse JWT để lấy expiry date
+                // Parse JWT để lấy jti và expiry date
                 Jwt jwt = jwtDecoder.decode(token);
-                Instant expiryDate = jwt.getExpiresAt();
 
                 // Thêm token vào blacklist
-                if (expiryDate != null) {
-                    tokenBlacklistService.blacklistToken(token, expiryDate);
-                    LOG.debug("Token blacklisted successfully");
-                }
+                tokenBlacklistService.blacklistToken(jwt);
+                LOG.debug("Token blacklisted successfully");
 
                 // Xóa refresh token của user (nếu có)
                 SecurityUtils.getCurrentUserLogin()
@@ -234,4 +231,19 @@ public class AccountResource {
             }
         }
     }
+
+    /**
+     * {@code POST /account/logout-all} : Đăng xuất khỏi mọi thiết bị.
+     * Thu hồi mọi token đã cấp cho user đến thời điểm hiện tại bằng một epoch trong Redis, và xóa refresh token.
+     */
+    @PostMapping("/account/logout-all")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void logoutAll() {
+        User user = SecurityUtils.getCurrentUserLogin()
+            .flatMap(userRepository::findOneByEmailIgnoreCase)
+            .orElseThrow(() -> new AccountResourceException("Current user login not found"));
+        tokenBlacklistService.revokeAllTokens(user.getId(), Instant.now());
+        refreshTokenService.deleteByUserId(user.getId());
+        LOG.debug("Revoked all tokens for user: {}", user.getEmail());
+    }
 }
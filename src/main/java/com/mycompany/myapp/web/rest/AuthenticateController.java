@@ -3,6 +3,7 @@ package com.mycompany.myapp.web.rest;
 import static com.mycompany.myapp.security.SecurityUtils.AUTHORITIES_CLAIM;
 import static com.mycompany.myapp.security.SecurityUtils.JWT_ALGORITHM;
 import static com.mycompany.myapp.security.SecurityUtils.USER_ID_CLAIM;
+import static com.mycompany.myapp.security.SecurityUtils.generateTokenId;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.mycompany.myapp.security.DomainUserDetailsService.UserWithId;
@@ -94,6 +95,7 @@ public class AuthenticateController {
 
         // @formatter:off
         JwtClaimsSet.Builder builder = JwtClaimsSet.builder()
+            .id(generateTokenId())
             .issuedAt(now)
             .expiresAt(validity)
             .subject(authentication.getName())
@@ -1,76 +1,83 @@
 package com.mycompany.myapp.web.rest;
 
+import com.mycompany.myapp.domain.enumeration.ImportJobType;
 import com.mycompany.myapp.security.AuthoritiesConstants;
-import com.mycompany.myapp.service.FileImportService;
-import java.util.Map;
+import com.mycompany.myapp.service.ImportJobService;
+import com.mycompany.myapp.service.dto.ImportJobDTO;
+import java.io.IOException;
+import java.net.URI;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import tech.jhipster.web.util.ResponseUtil;
 
+/**
+ * Import chạy nền: các endpoint tải lên trả về 202 kèm job, theo dõi tiến độ qua {@code GET /jobs/{id}}.
+ */
 @RestController
 @RequestMapping("/api/admin/import")
 public class FileImportResource {
 
     private final Logger log = LoggerFactory.getLogger(FileImportResource.class);
 
-    private final FileImportService fileImportService;
+    private final ImportJobService importJobService;
 
-    public FileImportResource(FileImportService fileImportService) {
-        this.fileImportService = fileImportService;
+    public FileImportResource(ImportJobService importJobService) {
+        this.importJobService = importJobService;
     }
 
     @PostMapping("/products")
     @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
-    public ResponseEntity<?> importProducts(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<ImportJobDTO> importProducts(@RequestParam("file") MultipartFile file) throws IOException {
         log.debug("REST request to import products from file : {}", file.getOriginalFilename());
-        try {
-            fileImportService.importProducts(file);
-            return ResponseEntity.ok().build();
-        } catch (Exception e) {
-            log.error("Error importing products from file: {}", e.getMessage(), e);
-            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
-        }
+        return accepted(importJobService.submitFile(ImportJobType.PRODUCTS, file));
     }
 
     @PostMapping("/products-from-url")
     @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
-    public ResponseEntity<Void> importProductsFromUrl(@RequestBody String url) { // Thêm @RequestBody String url
+    public ResponseEntity<ImportJobDTO> importProductsFromUrl(@RequestBody String url) {
         log.debug("REST request to import products from URL : {}", url);
-        try {
-            fileImportService.importProductsFromUrl(url);
-            return ResponseEntity.ok().build();
-        } catch (Exception e) {
-            log.error("Error importing products from URL", e);
-            return ResponseEntity.badRequest().build();
-        }
+        return accepted(importJobService.submitUrl(ImportJobType.PRODUCTS, url));
     }
 
     @PostMapping("/users")
     @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
-    public ResponseEntity<Void> importUsers(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<ImportJobDTO> importUsers(@RequestParam("file") MultipartFile file) throws IOException {
         log.debug("REST request to import users from file : {}", file.getOriginalFilename());
-        try {
-            fileImportService.importUsers(file);
-            return ResponseEntity.ok().build();
-        } catch (Exception e) {
-            log.error("Error importing users from file", e);
-            return ResponseEntity.badRequest().build();
-        }
+        return accepted(importJobService.submitFile(ImportJobType.USERS, file));
     }
 
     @PostMapping("/users-from-url")
     @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
-    public ResponseEntity<Void> importUsersFromUrl(@RequestBody String url) {
+    public ResponseEntity<ImportJobDTO> importUsersFromUrl(@RequestBody String url) {
         log.debug("REST request to import users from URL : {}", url);
-        try {
-            fileImportService.importUsersFromUrl(url);
-            return ResponseEntity.ok().build();
-        } catch (Exception e) {
-            log.error("Error importing users from URL", e);
-            return ResponseEntity.badRequest().build();
-        }
+        return accepted(importJobService.submitUrl(ImportJobType.USERS, url));
+    }
+
+    /**
+     * {@code GET /jobs/{id}} : tiến độ, tốc độ (dòng/giây), thời gian còn lại ước tính và các dòng lỗi của job.
+     */
+    @GetMapping("/jobs/{id}")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<ImportJobDTO> getJob(@PathVariable Long id) {
+        log.debug("REST request to get import job : {}", id);
+        return ResponseUtil.wrapOrNotFound(importJobService.findOne(id));
+    }
+
+    /**
+     * {@code POST /jobs/{id}/resume} : chạy lại job bị lỗi từ dòng sau checkpoint.
+     */
+    @PostMapping("/jobs/{id}/resume")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<ImportJobDTO> resumeJob(@PathVariable Long id) {
+        log.debug("REST request to resume import job : {}", id);
+        return ResponseUtil.wrapOrNotFound(importJobService.resume(id));
+    }
+
+    private static ResponseEntity<ImportJobDTO> accepted(ImportJobDTO job) {
+        return ResponseEntity.accepted().location(URI.create("/api/admin/import/jobs/" + job.getId())).body(job);
     }
 }
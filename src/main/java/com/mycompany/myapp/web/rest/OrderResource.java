@@ -5,9 +5,12 @@ import com.mycompany.myapp.domain.enumeration.OrderStatus; // Import OrderStatus
 import com.mycompany.myapp.repository.OrderRepository;
 import com.mycompany.myapp.security.AuthoritiesConstants;
 import com.mycompany.myapp.security.SecurityUtils;
+import com.mycompany.myapp.service.CheckoutService;
 import com.mycompany.myapp.service.OrderService;
 import com.mycompany.myapp.service.dto.OrderDTO;
+import com.mycompany.myapp.web.rest.dto.OrderSearchDTO;
 import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
+import com.mycompany.myapp.web.rest.util.KeysetPaginationUtil;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.text.Normalizer;
@@ -19,6 +22,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -39,19 +43,24 @@ public class OrderResource {
 
     private static final String ENTITY_NAME = "order";
 
+    private static final int MAX_SEARCH_SIZE = 100;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final OrderService orderService;
+    private final CheckoutService checkoutService;
     private final OrderRepository orderRepository;
 
     // private final com.mycompany.myapp.service.NotificationService notificationService; // Removed
 
     public OrderResource(
         OrderService orderService,
+        CheckoutService checkoutService,
         OrderRepository orderRepository/*, com.mycompany.myapp.service.NotificationService notificationService*/
     ) { // Removed parameter
         this.orderService = orderService;
+        this.checkoutService = checkoutService;
         this.orderRepository = orderRepository;
         // this.notificationService = notificationService; // Removed
     }
@@ -68,12 +77,19 @@ public class OrderResource {
             throw new BadRequestAlertException("Invalid order data", ENTITY_NAME, "orderInvalidData");
         }
 
-        Order result = orderService.create(orderDTO);
+        Order result = checkoutService.checkout(orderDTO);
 
         // Gửi thông báo WebSocket cho admin // Removed
         // String customerName = orderDTO.getCustomerInfo() != null ? orderDTO.getCustomerInfo().getFullName() : "Khách hàng";
         // notificationService.notifyNewOrder(result.getId(), customerName);
 
+        // Đơn còn QUEUED: trả 202, client hỏi trạng thái qua GET /api/orders/{id}
+        if (result.getStatus() == OrderStatus.QUEUED) {
+            return ResponseEntity.accepted()
+                .location(new URI("/api/orders/" + result.getId()))
+                .headers(HeaderUtil.createAlert(applicationName, ENTITY_NAME + ".queued", result.getOrderCode()))
+                .body(result);
+        }
         return ResponseEntity.created(new URI("/api/orders/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
             .body(result);
@@ -200,9 +216,20 @@ public class OrderResource {
     @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
     public ResponseEntity<List<Order>> getAllOrders(
         @org.springdoc.core.annotations.ParameterObject Pageable pageable,
-        @RequestParam(value = "orderCode", required = false) String orderCode
+        @RequestParam(value = "orderCode", required = false) String orderCode,
+        @RequestParam(value = KeysetPaginationUtil.AFTER_PARAM, required = false) String after
     ) {
         log.debug("REST request to get a page of Orders with orderCode: {}", orderCode);
+        if (after != null) {
+            Window<Order> window = orderService.scroll(
+                KeysetPaginationUtil.decodeCursor(after, ENTITY_NAME),
+                pageable.getSort(),
+                pageable.getPageSize(),
+                orderCode
+            );
+            HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), window);
+            return ResponseEntity.ok().headers(headers).body(window.getContent());
+        }
         Page<Order> page;
         if (orderCode != null && !orderCode.isEmpty()) {
             page = orderService.findByOrderCodeContaining(orderCode, pageable);
@@ -213,6 +240,30 @@ public class OrderResource {
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET /admin/orders/search} : tìm đơn theo tiền tố mã đơn, tên khách (không phân biệt dấu) hoặc email.
+     * Trang sau lấy qua header {@code Link} (rel="next").
+     */
+    @GetMapping("/admin/orders/search")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<List<OrderSearchDTO>> searchOrders(
+        @RequestParam("searchTerm") String searchTerm,
+        @RequestParam(value = KeysetPaginationUtil.AFTER_PARAM, required = false) String after,
+        @RequestParam(value = "size", defaultValue = "20") int size
+    ) {
+        log.debug("REST request to search Orders by term: {}", searchTerm);
+        if (searchTerm.isBlank()) {
+            return ResponseEntity.ok(List.of());
+        }
+        Window<OrderSearchDTO> window = orderService.searchOrders(
+            searchTerm,
+            KeysetPaginationUtil.decodeCursor(after == null ? "" : after, ENTITY_NAME),
+            Math.max(1, Math.min(size, MAX_SEARCH_SIZE))
+        );
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), window);
+        return ResponseEntity.ok().headers(headers).body(window.getContent());
+    }
+
     @GetMapping("/orders/{id}")
     @PreAuthorize("hasAnyAuthority(\"" + AuthoritiesConstants.ADMIN + "\", \"" + AuthoritiesConstants.USER + "\")")
     public ResponseEntity<Order> getOrder(@PathVariable Long id) {
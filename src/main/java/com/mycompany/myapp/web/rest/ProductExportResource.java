@@ -1,20 +1,24 @@
 package com.mycompany.myapp.web.rest;
 
+import com.mycompany.myapp.repository.ProductProjection;
 import com.mycompany.myapp.security.AuthoritiesConstants;
 import com.mycompany.myapp.service.ProductExportService;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import com.mycompany.myapp.service.export.ExportColumn;
+import com.mycompany.myapp.service.export.ExportFormat;
+import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
+import java.math.BigDecimal;
+import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -28,20 +32,33 @@ public class ProductExportResource {
         this.productExportService = productExportService;
     }
 
+    /**
+     * {@code GET /export/products} : export sản phẩm ra {@code format} = xlsx (mặc định), csv hoặc ndjson.
+     * {@code columns} chọn các cột (cách nhau bởi dấu phẩy), các tham số còn lại giống bộ lọc của {@code GET /api/products}.
+     */
     @GetMapping("/export/products")
     @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
-    public ResponseEntity<InputStreamResource> exportProductsToExcel() throws IOException {
-        log.debug("REST request to export products to Excel");
-
-        ByteArrayOutputStream outputStream = productExportService.exportProductsToExcel();
-        ByteArrayInputStream inputStream = new ByteArrayInputStream(outputStream.toByteArray());
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+        @RequestParam(defaultValue = "xlsx") String format,
+        @RequestParam(required = false) String columns,
+        @RequestParam(required = false) String categorySlug,
+        @RequestParam(required = false) String nameContains,
+        @RequestParam(required = false) BigDecimal minPrice,
+        @RequestParam(required = false) BigDecimal maxPrice,
+        @RequestParam(required = false) Boolean inStock
+    ) {
+        log.debug("REST request to export products as {} with columns {}", format, columns);
+        ExportFormat exportFormat = ExportFormat.fromString(format).orElseThrow(() ->
+            new BadRequestAlertException("Unsupported export format '" + format + "'", "product", "unsupportedformat")
+        );
+        List<ExportColumn<ProductProjection>> exportColumns = productExportService.resolveColumns(columns);
 
         HttpHeaders headers = new HttpHeaders();
-        headers.add("Content-Disposition", "attachment; filename=products.xlsx");
+        headers.add("Content-Disposition", "attachment; filename=products." + exportFormat.getExtension());
 
-        return ResponseEntity.ok()
-            .headers(headers)
-            .contentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
-            .body(new InputStreamResource(inputStream));
+        // Ghi thẳng ra response, không giữ file trong bộ nhớ
+        StreamingResponseBody body = out ->
+            productExportService.exportProducts(exportFormat, exportColumns, categorySlug, nameContains, minPrice, maxPrice, inStock, out);
+        return ResponseEntity.ok().headers(headers).contentType(MediaType.parseMediaType(exportFormat.getContentType())).body(body);
     }
 }
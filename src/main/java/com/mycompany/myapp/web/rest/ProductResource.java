@@ -1,10 +1,13 @@
 package com.mycompany.myapp.web.rest;
 
 import com.mycompany.myapp.domain.Product;
+import com.mycompany.myapp.domain.ProductStockShard;
 import com.mycompany.myapp.repository.ProductRepository;
 import com.mycompany.myapp.security.AuthoritiesConstants;
 import com.mycompany.myapp.service.ProductService;
+import com.mycompany.myapp.service.ProductStockShardService;
 import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
+import com.mycompany.myapp.web.rest.util.KeysetPaginationUtil;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.math.BigDecimal;
@@ -19,6 +22,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -41,10 +45,16 @@ public class ProductResource {
 
     private final ProductService productService;
     private final ProductRepository productRepository;
+    private final ProductStockShardService stockShardService;
 
-    public ProductResource(ProductService productService, ProductRepository productRepository) {
+    public ProductResource(
+        ProductService productService,
+        ProductRepository productRepository,
+        ProductStockShardService stockShardService
+    ) {
         this.productService = productService;
         this.productRepository = productRepository;
+        this.stockShardService = stockShardService;
     }
 
     @PostMapping("/products")
@@ -113,6 +123,7 @@ public class ProductResource {
         @RequestParam(required = false) BigDecimal minPrice,
         @RequestParam(required = false) BigDecimal maxPrice,
         @RequestParam(required = false) Boolean inStock,
+        @RequestParam(value = KeysetPaginationUtil.AFTER_PARAM, required = false) String after,
         @RequestParam Map<String, String> allRequestParams
     ) {
         log.debug("REST request to get a page of Products with filters: {}", allRequestParams);
@@ -130,6 +141,22 @@ public class ProductResource {
             }
         }
 
+        if (after != null) {
+            // Phân trang theo cursor: không có X-Total-Count, trang sau lấy từ header Link
+            Window<Product> window = productService.scrollWithFilters(
+                KeysetPaginationUtil.decodeCursor(after, ENTITY_NAME),
+                pageable.getSort(),
+                pageable.getPageSize(),
+                categorySlug,
+                resolvedName,
+                minPrice,
+                maxPrice,
+                inStock
+            );
+            HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), window);
+            return ResponseEntity.ok().headers(headers).body(window.getContent());
+        }
+
         Page<Product> page = productService.findAllWithFilters(pageable, categorySlug, resolvedName, minPrice, maxPrice, inStock);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return ResponseEntity.ok().headers(headers).body(page.getContent());
@@ -166,4 +193,29 @@ public class ProductResource {
             throw new BadRequestAlertException("Lỗi khi xóa sản phẩm: " + e.getMessage(), ENTITY_NAME, "deleteerror");
         }
     }
+
+    /**
+     * {@code PUT  /products/:id/stock-shards} : chia tồn kho của sản phẩm hot thành {@code count} shard.
+     */
+    @PutMapping("/products/{id}/stock-shards")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<List<ProductStockShard>> enableStockShards(@PathVariable Long id, @RequestParam int count) {
+        log.debug("REST request to split stock of Product {} into {} shards", id, count);
+        return ResponseEntity.ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, id.toString()))
+            .body(stockShardService.enable(id, count));
+    }
+
+    /**
+     * {@code DELETE  /products/:id/stock-shards} : gộp các shard về sản phẩm và tắt chia shard.
+     */
+    @DeleteMapping("/products/{id}/stock-shards")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<Void> disableStockShards(@PathVariable Long id) {
+        log.debug("REST request to remove stock shards of Product {}", id);
+        stockShardService.disable(id);
+        return ResponseEntity.noContent()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, id.toString()))
+            .build();
+    }
 }
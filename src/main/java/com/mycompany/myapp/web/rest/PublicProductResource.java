@@ -1,12 +1,17 @@
 package com.mycompany.myapp.web.rest;
 
 import com.mycompany.myapp.domain.Product;
+import com.mycompany.myapp.service.ProductSearchService;
 import com.mycompany.myapp.service.ProductService;
+import com.mycompany.myapp.service.dto.ProductSearchResultDTO;
+import com.mycompany.myapp.service.search.SuggestionTrie;
+import com.mycompany.myapp.web.rest.util.KeysetPaginationUtil;
 import java.util.List;
 import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -25,10 +30,37 @@ public class PublicProductResource {
 
     private final Logger log = LoggerFactory.getLogger(PublicProductResource.class);
 
+    private static final int MAX_SEARCH_RESULTS = 100;
+
     private final ProductService productService;
 
-    public PublicProductResource(ProductService productService) {
+    private final ProductSearchService productSearchService;
+
+    public PublicProductResource(ProductService productService, ProductSearchService productSearchService) {
         this.productService = productService;
+        this.productSearchService = productSearchService;
+    }
+
+    /**
+     * {@code GET /products/search?q=} : tìm theo tên, danh mục và mô tả, xếp theo độ liên quan.
+     * Khớp tiền tố, sai một ký tự và không phân biệt dấu tiếng Việt; đọc từ index trong bộ nhớ, không truy vấn database.
+     */
+    @GetMapping("/products/search")
+    public ResponseEntity<List<ProductSearchResultDTO>> searchProducts(
+        @RequestParam("q") String query,
+        @RequestParam(value = "size", defaultValue = "20") int size
+    ) {
+        log.debug("Public REST request to search Products: {}", query);
+        return ResponseEntity.ok(productSearchService.search(query, Math.max(0, Math.min(size, MAX_SEARCH_RESULTS))));
+    }
+
+    /**
+     * {@code GET /products/suggest?q=} : gợi ý khi gõ, tên sản phẩm và danh mục có một từ bắt đầu bằng {@code q},
+     * xếp theo số lượng đã bán.
+     */
+    @GetMapping("/products/suggest")
+    public ResponseEntity<List<SuggestionTrie.Suggestion>> suggestProducts(@RequestParam("q") String prefix) {
+        return ResponseEntity.ok(productSearchService.suggest(prefix));
     }
 
     @GetMapping("/products")
@@ -36,6 +68,7 @@ public class PublicProductResource {
         @org.springdoc.core.annotations.ParameterObject Pageable pageable,
         @RequestParam(value = "categorySlug", required = false) String categorySlug,
         @RequestParam(value = "nameContains", required = false) String nameContains,
+        @RequestParam(value = KeysetPaginationUtil.AFTER_PARAM, required = false) String after,
         @RequestParam Map<String, String> allRequestParams
     ) {
         log.debug("Public REST request to get a page of Products");
@@ -52,6 +85,20 @@ public class PublicProductResource {
                 resolvedName = p2;
             }
         }
+        if (after != null) {
+            Window<Product> window = productService.scrollWithFilters(
+                KeysetPaginationUtil.decodeCursor(after, "product"),
+                pageable.getSort(),
+                pageable.getPageSize(),
+                categorySlug,
+                resolvedName,
+                null,
+                null,
+                null
+            );
+            HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), window);
+            return ResponseEntity.ok().headers(headers).body(window.getContent());
+        }
         // Call the updated method with null for the new filter parameters
         var page = productService.findAllWithFilters(pageable, categorySlug, resolvedName, null, null, null);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
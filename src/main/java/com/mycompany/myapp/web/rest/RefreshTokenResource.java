@@ -60,6 +60,11 @@ public class RefreshTokenResource {
             .map(refreshTokenService::verifyExpiration)
             .map(RefreshToken::getUser)
             .map(user -> {
+                // Tài khoản bị khóa không được cấp access token mới
+                if (!user.isActivated()) {
+                    throw new TokenRefreshException(requestRefreshToken, "User is not activated");
+                }
+
                 // Convert authority to GrantedAuthority
                 java.util.List<org.springframework.security.core.GrantedAuthority> authorities = java.util.Collections.singletonList(
                     new org.springframework.security.core.authority.SimpleGrantedAuthority(user.getAuthority().getName())
@@ -96,6 +101,7 @@ public class RefreshTokenResource {
 
         // @formatter:off
         JwtClaimsSet.Builder builder = JwtClaimsSet.builder()
+            .id(SecurityUtils.generateTokenId())
             .issuedAt(now)
             .expiresAt(validity)
             .subject(authentication.getName())
@@ -5,7 +5,6 @@ import com.mycompany.myapp.service.WishlistService;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -43,7 +42,6 @@ public class WishlistResource {
      */
     @PostMapping("/wishlist/{productId}")
     @PreAuthorize("isAuthenticated()")
-    @CacheEvict(value = "com.mycompany.myapp.domain.Product", allEntries = true)
     public ResponseEntity<Void> addToWishlist(@PathVariable Long productId) {
         log.debug("REST request to add product to wishlist : {}", productId);
         wishlistService.addToWishlist(productId);
@@ -58,7 +56,6 @@ public class WishlistResource {
      */
     @DeleteMapping("/wishlist/{productId}")
     @PreAuthorize("isAuthenticated()")
-    @CacheEvict(value = "com.mycompany.myapp.domain.Product", allEntries = true)
     public ResponseEntity<Void> removeFromWishlist(@PathVariable Long productId) {
         log.debug("REST request to remove product from wishlist : {}", productId);
         wishlistService.removeFromWishlist(productId);
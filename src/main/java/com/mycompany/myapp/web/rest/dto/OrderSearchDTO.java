@@ -5,7 +5,9 @@ import java.time.Instant;
 public class OrderSearchDTO {
 
     private Long id;
+    private String orderCode;
     private String customerLogin;
+    private String customerFullName;
     private Instant orderDate;
     private Double totalAmount;
     private String status;
@@ -18,6 +20,20 @@ public class OrderSearchDTO {
         this.status = status;
     }
 
+    public OrderSearchDTO(
+        Long id,
+        String orderCode,
+        String customerLogin,
+        String customerFullName,
+        Instant orderDate,
+        Double totalAmount,
+        String status
+    ) {
+        this(id, customerLogin, orderDate, totalAmount, status);
+        this.orderCode = orderCode;
+        this.customerFullName = customerFullName;
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -27,6 +43,22 @@ public class OrderSearchDTO {
         this.id = id;
     }
 
+    public String getOrderCode() {
+        return orderCode;
+    }
+
+    public void setOrderCode(String orderCode) {
+        this.orderCode = orderCode;
+    }
+
+    public String getCustomerFullName() {
+        return customerFullName;
+    }
+
+    public void setCustomerFullName(String customerFullName) {
+        this.customerFullName = customerFullName;
+    }
+
     public String getCustomerLogin() {
         return customerLogin;
     }
@@ -1,5 +1,6 @@
 package com.mycompany.myapp.web.rest.interceptor;
 
+import com.mycompany.myapp.security.PublicPathMatcher;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
@@ -28,6 +29,12 @@ public class RequestLoggingInterceptor implements HandlerInterceptor {
     private static final Pattern FORBIDDEN_SEARCH = Pattern.compile("[<>;\\-]");
     private static final List<String> SKIP_PATHS = Arrays.asList("/management", "/swagger-ui", "/v3/api-docs");
 
+    private final PublicPathMatcher publicPathMatcher;
+
+    public RequestLoggingInterceptor(PublicPathMatcher publicPathMatcher) {
+        this.publicPathMatcher = publicPathMatcher;
+    }
+
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
         long start = Instant.now().toEpochMilli();
@@ -48,8 +55,8 @@ public class RequestLoggingInterceptor implements HandlerInterceptor {
         // 1) Validate Authorization header (simple demo)
         String auth = request.getHeader("Authorization");
         if (auth == null || !auth.startsWith("Bearer ")) {
-            // allow public endpoints under /api/public/** if you have them
-            if (uri.startsWith("/api/public")) {
+            // allow public endpoints (same list as SecurityConfiguration)
+            if (publicPathMatcher.matches(request)) {
                 return true;
             }
             log.warn("Missing or invalid Authorization header for request {} {}", method, uri);
@@ -0,0 +1,124 @@
+package com.mycompany.myapp.web.rest.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Phân trang theo cursor (keyset) cho các endpoint danh sách: {@code ?after=<cursor>}.
+ * <p>
+ * Cursor là giá trị các cột sắp xếp (và id) của phần tử cuối trang trước, mã hóa base64url để client coi như chuỗi
+ * mờ. Không có {@code X-Total-Count}; trang tiếp theo nằm trong header {@code Link} với {@code rel="next"}.
+ */
+public final class KeysetPaginationUtil {
+
+    public static final String AFTER_PARAM = "after";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final TypeReference<LinkedHashMap<String, String>> KEYS_TYPE = new TypeReference<>() {};
+
+    private KeysetPaginationUtil() {}
+
+    /**
+     * Đọc cursor; chuỗi rỗng là trang đầu tiên.
+     */
+    public static KeysetScrollPosition decodeCursor(String cursor, String entityName) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            Map<String, String> encoded = MAPPER.readValue(Base64.getUrlDecoder().decode(cursor), KEYS_TYPE);
+            Map<String, Object> keys = new LinkedHashMap<>();
+            encoded.forEach((property, value) -> keys.put(property, decodeValue(value)));
+            return ScrollPosition.forward(keys);
+        } catch (IOException | IllegalArgumentException | DateTimeException e) {
+            throw new BadRequestAlertException("Cursor không hợp lệ", entityName, "invalidcursor");
+        }
+    }
+
+    public static String encodeCursor(KeysetScrollPosition position) {
+        Map<String, String> encoded = new LinkedHashMap<>();
+        position.getKeys().forEach((property, value) -> encoded.put(property, encodeValue(value)));
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(encoded));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Header {@code Link} với trang đầu ({@code rel="first"}) và, nếu còn, trang tiếp theo ({@code rel="next"}).
+     */
+    public static <T> HttpHeaders generateKeysetHttpHeaders(UriComponentsBuilder uriBuilder, Window<T> window) {
+        StringBuilder link = new StringBuilder();
+        if (window.hasNext() && !window.isEmpty()) {
+            String next = encodeCursor((KeysetScrollPosition) window.positionAt(window.size() - 1));
+            link.append(prepareLink(uriBuilder, next, "next")).append(',');
+        }
+        link.append(prepareLink(uriBuilder, "", "first"));
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.LINK, link.toString());
+        return headers;
+    }
+
+    private static String prepareLink(UriComponentsBuilder uriBuilder, String cursor, String relType) {
+        String uri = uriBuilder.cloneBuilder().replaceQueryParam("page").replaceQueryParam(AFTER_PARAM, cursor).toUriString();
+        return "<" + uri + ">; rel=\"" + relType + "\"";
+    }
+
+    /**
+     * Giá trị kèm kiểu ({@code l:42}, {@code t:2025-01-01T00:00:00Z}...) để đọc lại đúng kiểu của thuộc tính.
+     */
+    private static String encodeValue(Object value) {
+        if (value == null) {
+            throw new IllegalStateException("Cột sắp xếp theo keyset không được null");
+        }
+        if (value instanceof Long) {
+            return "l:" + value;
+        }
+        if (value instanceof Integer) {
+            return "i:" + value;
+        }
+        if (value instanceof Double) {
+            return "d:" + value;
+        }
+        if (value instanceof BigDecimal decimal) {
+            return "b:" + decimal.toPlainString();
+        }
+        if (value instanceof Instant || value instanceof String) {
+            return (value instanceof Instant ? "t:" : "s:") + value;
+        }
+        throw new IllegalStateException("Không hỗ trợ cursor cho kiểu " + value.getClass().getName());
+    }
+
+    private static Object decodeValue(String value) {
+        if (value == null || value.length() < 2 || value.charAt(1) != ':') {
+            throw new IllegalArgumentException("Giá trị cursor không hợp lệ");
+        }
+        String raw = value.substring(2);
+        return switch (value.charAt(0)) {
+            case 'l' -> Long.valueOf(raw);
+            case 'i' -> Integer.valueOf(raw);
+            case 'd' -> Double.valueOf(raw);
+            case 'b' -> new BigDecimal(raw);
+            case 't' -> Instant.parse(raw);
+            case 's' -> raw;
+            default -> throw new IllegalArgumentException("Giá trị cursor không hợp lệ");
+        };
+    }
+}
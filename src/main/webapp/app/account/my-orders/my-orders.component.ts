@@ -84,6 +84,8 @@ export class MyOrdersComponent implements OnInit {
       COMPLETED: 'Đã hoàn thành',
       'ĐÃ HOÀN THÀNH': 'Đã hoàn thành',
       CANCELLED: 'Đã hủy',
+      QUEUED: 'Đang tiếp nhận',
+      REJECTED: 'Hết hàng',
     };
     return statusMap[status || ''] || status || 'N/A';
   }
@@ -9,6 +9,9 @@ import { Account } from 'app/core/auth/account.model';
 import SharedModule from 'app/shared/shared.module';
 import { ApplicationConfigService } from 'app/core/config/application-config.service';
 
+// Số liệu được giữ sẵn ở server nên có thể làm mới thường xuyên
+const STATS_REFRESH_INTERVAL_MS = 30_000;
+
 export interface DashboardStats {
   totalRevenue: number;
   totalOrders: number;
@@ -32,16 +35,18 @@ export default class AdminHomeComponent implements OnInit, OnDestroy {
   private readonly http = inject(HttpClient);
   private readonly applicationConfigService = inject(ApplicationConfigService);
   private readonly currencyPipe = inject(CurrencyPipe);
+  private refreshTimer?: ReturnType<typeof setInterval>;
 
   ngOnInit(): void {
     this.accountService.getAuthenticationState().subscribe((account) => {
       this.account.set(account);
     });
     this.loadStats();
+    this.refreshTimer = setInterval(() => this.loadStats(), STATS_REFRESH_INTERVAL_MS);
   }
 
   ngOnDestroy(): void {
-    // No-op
+    clearInterval(this.refreshTimer);
   }
 
   loadStats(): void {
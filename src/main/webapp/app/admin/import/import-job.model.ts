@@ -0,0 +1,21 @@
+export type ImportJobStatus = 'QUEUED' | 'RUNNING' | 'COMPLETED' | 'FAILED';
+
+export interface IImportRowError {
+  rowNumber: number;
+  message: string;
+}
+
+export interface IImportJob {
+  id: number;
+  type: 'PRODUCTS' | 'USERS';
+  status: ImportJobStatus;
+  source: string;
+  totalRows?: number | null;
+  processedRows: number;
+  importedRows: number;
+  failedRows: number;
+  rowsPerSecond?: number | null;
+  etaSeconds?: number | null;
+  lastError?: string | null;
+  errors: IImportRowError[];
+}
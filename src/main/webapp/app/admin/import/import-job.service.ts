@@ -0,0 +1,40 @@
+import { Injectable, inject } from '@angular/core';
+import { HttpClient } from '@angular/common/http';
+import { Observable, switchMap, takeWhile, timer } from 'rxjs';
+
+import { ApplicationConfigService } from 'app/core/config/application-config.service';
+import { IImportJob } from './import-job.model';
+
+@Injectable({ providedIn: 'root' })
+export class ImportJobService {
+  private http = inject(HttpClient);
+  private applicationConfigService = inject(ApplicationConfigService);
+
+  private resourceUrl = this.applicationConfigService.getEndpointFor(
+    'api/admin/import/jobs',
+  );
+
+  find(id: number): Observable<IImportJob> {
+    return this.http.get<IImportJob>(`${this.resourceUrl}/${id}`);
+  }
+
+  /**
+   * Hỏi trạng thái job mỗi 2 giây, phát cả trạng thái cuối cùng (COMPLETED/FAILED) rồi dừng.
+   */
+  watch(id: number): Observable<IImportJob> {
+    return timer(0, 2000).pipe(
+      switchMap(() => this.find(id)),
+      takeWhile(
+        (job) => job.status === 'QUEUED' || job.status === 'RUNNING',
+        true,
+      ),
+    );
+  }
+
+  summary(job: IImportJob): string {
+    if (job.status === 'FAILED') {
+      return `Import thất bại sau ${job.processedRows} dòng: ${job.lastError ?? ''}`;
+    }
+    return `Import xong: ${job.importedRows} dòng, ${job.failedRows} dòng lỗi.`;
+  }
+}
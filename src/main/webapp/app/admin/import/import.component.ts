@@ -3,6 +3,8 @@ import { CommonModule } from '@angular/common';
 import { HttpClient, HttpErrorResponse } from '@angular/common/http';
 import { NotificationService } from 'app/shared/notification/notification.service';
 import { FormsModule } from '@angular/forms'; // Import FormsModule
+import { IImportJob } from './import-job.model';
+import { ImportJobService } from './import-job.service';
 
 @Component({
   selector: 'jhi-import',
@@ -14,6 +16,7 @@ import { FormsModule } from '@angular/forms'; // Import FormsModule
 export class ImportComponent {
   private http = inject(HttpClient);
   private notify = inject(NotificationService);
+  private importJobService = inject(ImportJobService);
 
   isImportingProducts = signal(false);
   isImportingUsers = signal(false);
@@ -23,6 +26,8 @@ export class ImportComponent {
   productImportUrl: string = ''; // Biến để lưu URL sản phẩm
   userImportUrl: string = ''; // Biến để lưu URL người dùng
 
+  lastJob = signal<IImportJob | null>(null); // Job import gần nhất (chạy nền)
+
   onFileSelected(event: Event, type: 'products' | 'users'): void {
     const input = event.target as HTMLInputElement;
     if (input.files && input.files.length > 0) {
@@ -36,28 +41,25 @@ export class ImportComponent {
         this.isImportingUsers.set(true);
       }
 
-      this.http.post(`/api/admin/import/${type}`, formData).subscribe({
-        next: () => {
-          this.notify.success(`Import ${type} thành công!`);
-          if (type === 'products') {
-            this.isImportingProducts.set(false);
-          } else {
-            this.isImportingUsers.set(false);
-          }
-          input.value = ''; // Clear file input
-        },
-        error: (error: HttpErrorResponse) => {
-          const errorMessage =
-            error.error?.detail || error.message || `Import ${type} thất bại.`;
-          this.notify.error(errorMessage);
-          if (type === 'products') {
-            this.isImportingProducts.set(false);
-          } else {
-            this.isImportingUsers.set(false);
-          }
-          input.value = ''; // Clear file input
-        },
-      });
+      const loadingSignal =
+        type === 'products' ? this.isImportingProducts : this.isImportingUsers;
+      this.http
+        .post<IImportJob>(`/api/admin/import/${type}`, formData)
+        .subscribe({
+          next: (job) => {
+            input.value = ''; // Clear file input
+            this.watchJob(job, loadingSignal);
+          },
+          error: (error: HttpErrorResponse) => {
+            const errorMessage =
+              error.error?.detail ||
+              error.message ||
+              `Import ${type} thất bại.`;
+            this.notify.error(errorMessage);
+            loadingSignal.set(false);
+            input.value = ''; // Clear file input
+          },
+        });
     }
   }
 
@@ -80,13 +82,14 @@ export class ImportComponent {
 
     loadingSignal.set(true);
     this.http
-      .post(endpoint, urlToImport, {
+      .post<IImportJob>(endpoint, urlToImport, {
         headers: { 'Content-Type': 'text/plain' },
       })
       .subscribe({
-        next: () => {
-          this.notify.success(`Import ${type} từ URL thành công!`);
+        next: (job) => {
           this.resetImportState(type, loadingSignal);
+          loadingSignal.set(true);
+          this.watchJob(job, loadingSignal);
         },
         error: (error: HttpErrorResponse) => {
           const errorMessage =
@@ -99,6 +102,33 @@ export class ImportComponent {
       });
   }
 
+  /**
+   * Import chạy nền: theo dõi job đến khi xong rồi báo kết quả.
+   */
+  private watchJob(job: IImportJob, loadingSignal: any): void {
+    this.notify.info(`Đã nhận file, đang import (job #${job.id})...`);
+    this.lastJob.set(job);
+    this.importJobService.watch(job.id).subscribe({
+      next: (current) => {
+        this.lastJob.set(current);
+        if (current.status === 'COMPLETED') {
+          const message = this.importJobService.summary(current);
+          current.failedRows > 0
+            ? this.notify.warning(message)
+            : this.notify.success(message);
+          loadingSignal.set(false);
+        } else if (current.status === 'FAILED') {
+          this.notify.error(this.importJobService.summary(current));
+          loadingSignal.set(false);
+        }
+      },
+      error: () => {
+        this.notify.error(`Không lấy được trạng thái job #${job.id}.`);
+        loadingSignal.set(false);
+      },
+    });
+  }
+
   private validateUrl(url: string): boolean {
     if (!url) {
       this.notify.error('URL không được để trống!');
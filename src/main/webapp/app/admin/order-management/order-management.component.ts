@@ -111,6 +111,8 @@ export class OrderManagementComponent implements OnInit {
       DELIVERED: 'Đã giao',
       COMPLETED: 'Đã hoàn thành',
       CANCELLED: 'Đã hủy',
+      QUEUED: 'Đang tiếp nhận',
+      REJECTED: 'Hết hàng',
     };
     return statusMap[status || ''] || status || 'N/A';
   }
@@ -25,6 +25,8 @@ import ProductDeleteDialogComponent from '../delete/product-delete-dialog.compon
 import { NotificationService } from 'app/shared/notification/notification.service';
 import { ApplicationConfigService } from 'app/core/config/application-config.service';
 import { ItemCountComponent } from 'app/shared/pagination';
+import { IImportJob } from 'app/admin/import/import-job.model';
+import { ImportJobService } from 'app/admin/import/import-job.service';
 
 @Component({
   selector: 'jhi-product-management',
@@ -57,6 +59,7 @@ export default class ProductManagementComponent implements OnInit {
   private readonly notify = inject(NotificationService);
   private readonly http = inject(HttpClient);
   private readonly applicationConfigService = inject(ApplicationConfigService);
+  private readonly importJobService = inject(ImportJobService);
 
   ngOnInit(): void {
     this.handleNavigation();
@@ -195,17 +198,26 @@ export default class ProductManagementComponent implements OnInit {
     formData.append('file', file, file.name);
 
     this.http
-      .post(
+      .post<IImportJob>(
         this.applicationConfigService.getEndpointFor(
           'api/admin/import/products',
         ),
         formData,
       )
       .subscribe({
-        next: () => {
-          this.notify.success('Import sản phẩm thành công!');
-          this.loadAll();
+        next: (job) => {
           input.value = '';
+          this.notify.info(`Đã nhận file, đang import (job #${job.id})...`);
+          // Import chạy nền: chờ job xong mới tải lại danh sách
+          this.importJobService.watch(job.id).subscribe((current) => {
+            if (current.status === 'COMPLETED') {
+              this.notify.success(this.importJobService.summary(current));
+              this.loadAll();
+            } else if (current.status === 'FAILED') {
+              this.notify.error(this.importJobService.summary(current));
+              this.loadAll();
+            }
+          });
         },
         error: (error: HttpErrorResponse) => {
           console.error('Failed to import products');
@@ -2,7 +2,9 @@ import dayjs from 'dayjs';
 
 export interface IOrderSearchDTO {
   id?: number;
+  orderCode?: string;
   customerLogin?: string;
+  customerFullName?: string;
   orderDate?: dayjs.Dayjs; // Sử dụng dayjs cho Instant
   totalAmount?: number;
   status?: string;
@@ -0,0 +1,54 @@
+package com.mycompany.myapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.domain.Category;
+import com.mycompany.myapp.domain.Product;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+class CacheConfigurationTest {
+
+    private final GenericJackson2JsonRedisSerializer serializer = CacheConfiguration.cacheValueSerializer();
+
+    @Test
+    void productShouldRoundTripAsProductWithCategoryAndAuditFields() {
+        Category category = new Category();
+        category.setId(3L);
+        category.setName("Laptop");
+        category.setSlug("laptop");
+
+        Product product = new Product();
+        product.setId(42L);
+        product.setName("ThinkPad");
+        product.setPrice(1500.0);
+        product.setQuantity(7);
+        product.setSalesCount(2);
+        product.setCategory(category);
+        product.setCreatedBy("admin");
+        product.setCreatedDate(Instant.parse("2025-01-01T00:00:00Z"));
+
+        Object result = serializer.deserialize(serializer.serialize(product));
+
+        assertThat(result).isInstanceOf(Product.class);
+        Product cached = (Product) result;
+        assertThat(cached.getId()).isEqualTo(42L);
+        assertThat(cached.getName()).isEqualTo("ThinkPad");
+        assertThat(cached.getQuantity()).isEqualTo(7);
+        assertThat(cached.getCreatedBy()).isEqualTo("admin");
+        assertThat(cached.getCreatedDate()).isEqualTo(Instant.parse("2025-01-01T00:00:00Z"));
+        assertThat(cached.getCategory().getSlug()).isEqualTo("laptop");
+    }
+
+    @Test
+    void idListShouldRoundTripAsLongs() {
+        List<Long> ids = new ArrayList<>(List.of(1L, 2L, 3L));
+
+        Object result = serializer.deserialize(serializer.serialize(ids));
+
+        assertThat(result).isEqualTo(ids);
+    }
+}
@@ -0,0 +1,144 @@
+package com.mycompany.myapp.config.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+class TwoLevelCacheTest {
+
+    private ConcurrentMapCache remote;
+    private List<String> published;
+    private SimpleMeterRegistry meterRegistry;
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    void setUp() {
+        remote = new ConcurrentMapCache("products");
+        published = new ArrayList<>();
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new TwoLevelCache(
+            "products",
+            Caffeine.newBuilder().maximumSize(100).build(),
+            remote,
+            new TwoLevelCache.InvalidationPublisher() {
+                @Override
+                public void publishEvict(String cacheName, String key) {
+                    published.add(cacheName + ":" + key);
+                }
+
+                @Override
+                public void publishClear(String cacheName) {
+                    published.add(cacheName + ":*");
+                }
+            },
+            meterRegistry
+        );
+    }
+
+    @Test
+    void l2HitShouldPopulateL1() {
+        remote.put(1L, "ThinkPad");
+
+        assertThat(cache.get(1L, String.class)).isEqualTo("ThinkPad");
+        remote.evict(1L);
+        assertThat(cache.get(1L, String.class)).isEqualTo("ThinkPad");
+
+        assertThat(count("l1", "hit")).isEqualTo(1);
+        assertThat(count("l1", "miss")).isEqualTo(1);
+        assertThat(count("l2", "hit")).isEqualTo(1);
+    }
+
+    @Test
+    void missOnBothTiersShouldReturnNull() {
+        assertThat(cache.get(1L)).isNull();
+
+        assertThat(count("l1", "miss")).isEqualTo(1);
+        assertThat(count("l2", "miss")).isEqualTo(1);
+    }
+
+    @Test
+    void putAndEvictShouldWriteThroughAndPublish() {
+        cache.put(1L, "ThinkPad");
+        assertThat(remote.get(1L)).isNotNull();
+
+        cache.evict(1L);
+        assertThat(remote.get(1L)).isNull();
+        assertThat(cache.get(1L)).isNull();
+
+        cache.clear();
+        assertThat(published).containsExactly("products:1", "products:1", "products:*");
+    }
+
+    @Test
+    void putIfAbsentShouldNotPublish() {
+        cache.putIfAbsent(1L, "ThinkPad");
+
+        assertThat(cache.get(1L, String.class)).isEqualTo("ThinkPad");
+        assertThat(published).isEmpty();
+    }
+
+    @Test
+    void loadOnMissShouldNotPublish() {
+        assertThat(cache.get(1L, () -> "ThinkPad")).isEqualTo("ThinkPad");
+        assertThat(cache.get(1L, () -> "ThinkPad X1")).isEqualTo("ThinkPad");
+
+        assertThat(remote.get(1L, String.class)).isEqualTo("ThinkPad");
+        assertThat(published).isEmpty();
+    }
+
+    @Test
+    void concurrentMissesShouldLoadOnce() throws Exception {
+        int threads = 16;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            results.add(
+                executor.submit(() -> {
+                    start.await();
+                    return cache.get(1L, () -> {
+                        loads.incrementAndGet();
+                        Thread.sleep(100);
+                        return "ThinkPad";
+                    });
+                })
+            );
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        for (Future<String> result : results) {
+            assertThat(result.get()).isEqualTo("ThinkPad");
+        }
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(published).isEmpty();
+    }
+
+    @Test
+    void remoteInvalidationShouldOnlyDropL1() {
+        cache.put(1L, "ThinkPad");
+        remote.put(1L, "ThinkPad X1");
+
+        cache.evictLocal("1");
+
+        assertThat(cache.get(1L, String.class)).isEqualTo("ThinkPad X1");
+    }
+
+    private double count(String tier, String result) {
+        return meterRegistry.get(TwoLevelCache.REQUESTS_METER_NAME).tag("tier", tier).tag("result", result).counter().count();
+    }
+}
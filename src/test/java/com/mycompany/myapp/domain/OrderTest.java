@@ -0,0 +1,27 @@
+package com.mycompany.myapp.domain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class OrderTest {
+
+    @Test
+    void normalizeCustomerNameShouldFoldAccentsCaseAndWhitespace() {
+        assertThat(Order.normalizeCustomerName("  Nguyễn  Văn Đức ")).isEqualTo("nguyen van duc");
+        assertThat(Order.normalizeCustomerName("TRẦN THỊ ÁNH")).isEqualTo("tran thi anh");
+        assertThat(Order.normalizeCustomerName("Lê\t\tVăn   Tám\n")).isEqualTo("le van tam");
+        assertThat(Order.normalizeCustomerName("   ")).isNull();
+        assertThat(Order.normalizeCustomerName(null)).isNull();
+    }
+
+    @Test
+    void customerNameSearchShouldFollowFullNameBeforeSave() {
+        Order order = new Order();
+        order.setCustomerFullName("Lê Hoàng");
+
+        order.updateCustomerNameSearch();
+
+        assertThat(order.getCustomerNameSearch()).isEqualTo("le hoang");
+    }
+}
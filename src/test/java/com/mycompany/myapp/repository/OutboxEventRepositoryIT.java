@@ -0,0 +1,97 @@
+package com.mycompany.myapp.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.domain.OutboxEvent;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link OutboxEventRepository#lockNextBatch}.
+ * <p>
+ * Không dùng {@code @Transactional}: hai relay phải chạy trong hai transaction riêng.
+ */
+@IntegrationTest
+class OutboxEventRepositoryIT {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private OutboxEvent first;
+
+    private OutboxEvent second;
+
+    @BeforeEach
+    void init() {
+        outboxEventRepository.deleteAll();
+        Instant now = Instant.now();
+        first = newEvent(now.minusSeconds(10), null);
+        second = newEvent(now.minusSeconds(5), null);
+        newEvent(now.plusSeconds(60), null);
+        newEvent(now.minusSeconds(10), now);
+    }
+
+    private OutboxEvent newEvent(Instant nextAttemptDate, Instant publishedDate) {
+        OutboxEvent event = new OutboxEvent();
+        event.setEventId(UUID.randomUUID().toString());
+        event.setExchange("shop.events");
+        event.setEventType("order.created");
+        event.setPayloadType("java.lang.String");
+        event.setPayload("{}");
+        event.setCreatedDate(Instant.now());
+        event.setNextAttemptDate(nextAttemptDate);
+        event.setPublishedDate(publishedDate);
+        return outboxEventRepository.saveAndFlush(event);
+    }
+
+    @AfterEach
+    void cleanup() {
+        outboxEventRepository.deleteAll();
+    }
+
+    @Test
+    void shouldLockOnlyDueUnpublishedEventsInIdOrder() {
+        List<Long> ids = new TransactionTemplate(transactionManager).execute(status ->
+            outboxEventRepository.lockNextBatch(Instant.now(), 10).stream().map(OutboxEvent::getId).toList()
+        );
+
+        assertThat(ids).containsExactly(first.getId(), second.getId());
+    }
+
+    @Test
+    void shouldRespectBatchSize() {
+        List<Long> ids = new TransactionTemplate(transactionManager).execute(status ->
+            outboxEventRepository.lockNextBatch(Instant.now(), 1).stream().map(OutboxEvent::getId).toList()
+        );
+
+        assertThat(ids).containsExactly(first.getId());
+    }
+
+    @Test
+    void shouldSkipEventsLockedByAnotherRelay() {
+        TransactionTemplate relay = new TransactionTemplate(transactionManager);
+        TransactionTemplate otherRelay = new TransactionTemplate(transactionManager);
+        otherRelay.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        relay.executeWithoutResult(status -> {
+            assertThat(outboxEventRepository.lockNextBatch(Instant.now(), 1)).extracting(OutboxEvent::getId).containsExactly(first.getId());
+            // Node khác không chờ dòng đang bị khóa mà lấy dòng kế tiếp
+            List<Long> ids = otherRelay.execute(s ->
+                outboxEventRepository.lockNextBatch(Instant.now(), 10).stream().map(OutboxEvent::getId).toList()
+            );
+            assertThat(ids).containsExactly(second.getId());
+        });
+    }
+}
@@ -0,0 +1,62 @@
+package com.mycompany.myapp.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.mycompany.myapp.repository.UserProjection;
+import com.mycompany.myapp.repository.UserRepository;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Test class for the {@link CurrentUserResolver}.
+ */
+class CurrentUserResolverTest {
+
+    private static final UserProjection USER = new UserProjection(7L, "user@example.com", AuthoritiesConstants.USER, true);
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(UserRepository.USERS_BY_EMAIL_CACHE);
+    private final CurrentUserResolver resolver = new CurrentUserResolver(userRepository, cacheManager);
+
+    @BeforeEach
+    @AfterEach
+    void cleanup() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldResolveCurrentUserByLowerCaseLogin() {
+        when(userRepository.findProjectionByEmail("user@example.com")).thenReturn(Optional.of(USER));
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("User@Example.com", "password"));
+
+        assertThat(resolver.getCurrentUser()).contains(USER);
+        assertThat(resolver.getCurrentUserId()).contains(7L);
+    }
+
+    @Test
+    void shouldBeEmptyWithoutAuthentication() {
+        assertThat(resolver.getCurrentUser()).isEmpty();
+    }
+
+    @Test
+    void shouldEvictOldAndNewEmails() {
+        Cache cache = cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE);
+        cache.put("old@example.com", USER);
+        cache.put("new@example.com", USER);
+        cache.put("other@example.com", USER);
+
+        resolver.evict("Old@Example.com", "new@example.com", null);
+
+        assertThat(cache.get("old@example.com")).isNull();
+        assertThat(cache.get("new@example.com")).isNull();
+        assertThat(cache.get("other@example.com")).isNotNull();
+    }
+}
@@ -0,0 +1,88 @@
+package com.mycompany.myapp.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.AntPathMatcher;
+
+/**
+ * So sánh {@link PublicPathMatcher} với cách so khớp cũ của {@code JwtBlacklistFilter.shouldNotFilter}
+ * (AntPathMatcher trên danh sách đường dẫn ứng viên).
+ * <p>
+ * Không chạy trong surefire. Chạy thủ công sau {@code mvn test-compile}:
+ * <pre>
+ * java -cp target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout) \
+ *     com.mycompany.myapp.security.PublicPathMatcherBenchmark
+ * </pre>
+ * Thêm {@code -prof gc} (qua tham số dòng lệnh của JMH) để xem số byte cấp phát mỗi lần gọi.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PublicPathMatcherBenchmark {
+
+    private static final List<String> LEGACY_PUBLIC_ENDPOINTS = List.of(PublicPathMatcher.PATTERNS);
+
+    @Param({ "/api/authenticate", "/api/public/products/42", "/api/admin/orders/search" })
+    public String path;
+
+    private final PublicPathMatcher publicPathMatcher = new PublicPathMatcher();
+    private final AntPathMatcher antPathMatcher = new AntPathMatcher();
+    private HttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        MockHttpServletRequest mockRequest = new MockHttpServletRequest("GET", path);
+        mockRequest.setServletPath(path);
+        request = mockRequest;
+    }
+
+    @Benchmark
+    public boolean publicPathMatcher() {
+        return publicPathMatcher.matches(request);
+    }
+
+    @Benchmark
+    public boolean legacyAntPathMatcher() {
+        String servletPath = request.getServletPath() == null ? request.getRequestURI() : request.getServletPath();
+        String requestUri = request.getRequestURI();
+        String pathInfo = request.getPathInfo();
+
+        List<String> candidates = new ArrayList<>();
+        if (servletPath != null) candidates.add(servletPath);
+        if (requestUri != null) candidates.add(requestUri);
+        if (pathInfo != null) candidates.add(pathInfo);
+
+        for (String p : LEGACY_PUBLIC_ENDPOINTS) {
+            for (String candidate : candidates) {
+                if (antPathMatcher.match(p, candidate) || candidate.startsWith(p.replace("/**", ""))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PublicPathMatcherBenchmark.class.getSimpleName()).build()).run();
+    }
+}
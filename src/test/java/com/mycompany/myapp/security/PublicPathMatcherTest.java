@@ -0,0 +1,47 @@
+package com.mycompany.myapp.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+/**
+ * Test class for the {@link PublicPathMatcher}.
+ */
+class PublicPathMatcherTest {
+
+    private final PublicPathMatcher matcher = new PublicPathMatcher();
+
+    @Test
+    void shouldMatchExactPathsAndPrefixes() {
+        assertThat(matcher.matches("/api/authenticate")).isTrue();
+        assertThat(matcher.matches("/api/account/reset-password/finish")).isTrue();
+        assertThat(matcher.matches("/api/public")).isTrue();
+        assertThat(matcher.matches("/api/public/products/1")).isTrue();
+    }
+
+    @Test
+    void shouldNotMatchSiblingsOfPublicPaths() {
+        assertThat(matcher.matches("/api/authenticated")).isFalse();
+        assertThat(matcher.matches("/api/register/admin")).isFalse();
+        assertThat(matcher.matches("/api/publication")).isFalse();
+        assertThat(matcher.matches("/api/account")).isFalse();
+        assertThat(matcher.matches("/api")).isFalse();
+    }
+
+    @Test
+    void shouldIgnoreContextPath() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/shop/api/authenticate");
+        request.setContextPath("/shop");
+        assertThat(matcher.matches(request)).isTrue();
+
+        request.setRequestURI("/shop/api/admin/users");
+        assertThat(matcher.matches(request)).isFalse();
+    }
+
+    @Test
+    void shouldRejectUnsupportedPatterns() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new PublicPathMatcher("/api/*/public"));
+    }
+}
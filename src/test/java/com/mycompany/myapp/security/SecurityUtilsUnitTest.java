@@ -112,4 +112,12 @@ class SecurityUtilsUnitTest {
         assertThat(SecurityUtils.hasCurrentUserNoneOfAuthorities(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN)).isFalse();
         assertThat(SecurityUtils.hasCurrentUserNoneOfAuthorities(AuthoritiesConstants.ANONYMOUS, AuthoritiesConstants.ADMIN)).isTrue();
     }
+
+    @Test
+    void testGenerateTokenId() {
+        String tokenId = SecurityUtils.generateTokenId();
+
+        assertThat(tokenId).hasSize(22).matches("[A-Za-z0-9_-]+");
+        assertThat(SecurityUtils.generateTokenId()).isNotEqualTo(tokenId);
+    }
 }
@@ -0,0 +1,93 @@
+package com.mycompany.myapp.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+class CachingJwtDecoderTest {
+
+    private static final Instant NOW = Instant.parse("2025-06-01T00:00:00Z");
+
+    private final AtomicInteger decodes = new AtomicInteger();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final JwtDecoder delegate = token -> {
+        decodes.incrementAndGet();
+        if (token.startsWith("bad")) {
+            throw new BadJwtException("Invalid signature");
+        }
+        return Jwt.withTokenValue(token).header("alg", "HS512").subject("user").issuedAt(NOW).expiresAt(NOW.plusSeconds(60)).build();
+    };
+
+    @Test
+    void shouldDecodeSameTokenOnlyOnce() {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 100, meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        Jwt first = decoder.decode("token-a");
+        Jwt second = decoder.decode("token-a");
+        decoder.decode("token-b");
+
+        assertThat(second).isSameAs(first);
+        assertThat(decodes).hasValue(2);
+        assertThat(meterRegistry.get("cache.gets").tags("cache", CachingJwtDecoder.CACHE_NAME, "result", "hit").functionCounter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotServeTokenPastItsExpiry() {
+        MutableClock clock = new MutableClock(NOW);
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 100, meterRegistry, clock);
+        decoder.decode("token-a");
+
+        clock.instant = NOW.plus(Duration.ofMinutes(2));
+        decoder.decode("token-a");
+
+        assertThat(decodes).hasValue(2);
+    }
+
+    @Test
+    void shouldNotCacheInvalidTokens() {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, 100, meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        assertThatExceptionOfType(BadJwtException.class).isThrownBy(() -> decoder.decode("bad-token"));
+        assertThatExceptionOfType(BadJwtException.class).isThrownBy(() -> decoder.decode("bad-token"));
+
+        assertThat(decodes).hasValue(2);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
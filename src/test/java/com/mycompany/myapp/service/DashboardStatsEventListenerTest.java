@@ -0,0 +1,169 @@
+package com.mycompany.myapp.service;
+
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.mycompany.myapp.domain.Authority;
+import com.mycompany.myapp.domain.Order;
+import com.mycompany.myapp.domain.Product;
+import com.mycompany.myapp.domain.User;
+import com.mycompany.myapp.domain.enumeration.OrderStatus;
+import com.mycompany.myapp.security.AuthoritiesConstants;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.proxy.LazyInitializer;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link DashboardStatsEventListener}.
+ */
+class DashboardStatsEventListenerTest {
+
+    private final DashboardStatsService dashboardStatsService = mock(DashboardStatsService.class);
+    private final DashboardStatsEventListener listener = new DashboardStatsEventListener(
+        mock(EntityManagerFactory.class),
+        dashboardStatsService
+    );
+
+    private final EntityPersister orderPersister = persister("user", "status", "totalAmount");
+    private final EntityPersister userPersister = persister("login", "authority");
+
+    @Test
+    void shouldAddRevenueWhenOrderIsDelivered() {
+        Order order = order(OrderStatus.DELIVERED, 150.0);
+
+        listener.onPostUpdate(update(order, orderPersister, null, OrderStatus.SHIPPED, 150.0));
+
+        verify(dashboardStatsService).increment(150.0, 0, 0, 0);
+    }
+
+    @Test
+    void shouldRemoveRevenueWhenDeliveredOrderIsCancelled() {
+        Order order = order(OrderStatus.CANCELLED, 150.0);
+
+        listener.onPostUpdate(update(order, orderPersister, null, OrderStatus.DELIVERED, 150.0));
+
+        verify(dashboardStatsService).increment(-150.0, 0, 0, 0);
+    }
+
+    @Test
+    void shouldAddAmountDifferenceWhenCompletedOrderAmountChanges() {
+        Order order = order(OrderStatus.COMPLETED, 120.0);
+
+        listener.onPostUpdate(update(order, orderPersister, null, OrderStatus.COMPLETED, 150.0));
+
+        verify(dashboardStatsService).increment(-30.0, 0, 0, 0);
+    }
+
+    @Test
+    void shouldAddNoRevenueWhileOrderIsNotDelivered() {
+        Order order = order(OrderStatus.SHIPPED, 120.0);
+
+        listener.onPostUpdate(update(order, orderPersister, null, OrderStatus.PENDING, 150.0));
+
+        // increment tự bỏ qua khi mọi phần cộng đều bằng 0
+        verify(dashboardStatsService).increment(0.0, 0, 0, 0);
+    }
+
+    @Test
+    void shouldCountUserPromotedToCustomer() {
+        User user = user(AuthoritiesConstants.USER);
+
+        listener.onPostUpdate(update(user, userPersister, "admin", authority(AuthoritiesConstants.ADMIN)));
+
+        verify(dashboardStatsService).increment(0, 0, 1, 0);
+    }
+
+    @Test
+    void shouldUncountCustomerWhoseAuthorityChanges() {
+        User user = user(AuthoritiesConstants.ADMIN);
+
+        listener.onPostUpdate(update(user, userPersister, "admin", authority(AuthoritiesConstants.USER)));
+
+        verify(dashboardStatsService).increment(0, 0, -1, 0);
+    }
+
+    @Test
+    void shouldReadOldAuthorityFromProxyWithoutInitializingIt() {
+        User user = user(AuthoritiesConstants.ADMIN);
+        LazyInitializer initializer = mock(LazyInitializer.class);
+        when(initializer.getIdentifier()).thenReturn(AuthoritiesConstants.USER);
+        HibernateProxy proxy = mock(HibernateProxy.class);
+        when(proxy.getHibernateLazyInitializer()).thenReturn(initializer);
+
+        listener.onPostUpdate(update(user, userPersister, "admin", proxy));
+
+        verify(dashboardStatsService).increment(0, 0, -1, 0);
+        verify(initializer, never()).getImplementation();
+    }
+
+    @Test
+    void shouldIgnoreUserUpdateThatKeepsAuthority() {
+        User user = user(AuthoritiesConstants.USER);
+
+        listener.onPostUpdate(update(user, userPersister, "user", authority(AuthoritiesConstants.USER)));
+
+        verify(dashboardStatsService, never()).increment(anyDouble(), anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void shouldLeaveUpdateWithoutOldStateToReconcile() {
+        Order order = order(OrderStatus.DELIVERED, 150.0);
+
+        listener.onPostUpdate(new PostUpdateEvent(order, 1L, new Object[3], null, null, orderPersister, null));
+
+        verify(dashboardStatsService, never()).increment(anyDouble(), anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void shouldCountInsertedAndDeletedEntities() {
+        Order order = order(OrderStatus.COMPLETED, 80.0);
+
+        listener.onPostInsert(new PostInsertEvent(order, 1L, new Object[3], orderPersister, null));
+        listener.onPostInsert(new PostInsertEvent(new Product(), 2L, new Object[0], mock(EntityPersister.class), null));
+        listener.onPostDelete(new PostDeleteEvent(order, 1L, new Object[3], orderPersister, null));
+        listener.onPostDelete(new PostDeleteEvent(user(AuthoritiesConstants.USER), 3L, new Object[2], userPersister, null));
+
+        verify(dashboardStatsService).increment(80.0, 1, 0, 0);
+        verify(dashboardStatsService).increment(0, 0, 0, 1);
+        verify(dashboardStatsService).increment(-80.0, -1, 0, 0);
+        verify(dashboardStatsService).increment(0, 0, -1, 0);
+    }
+
+    private static PostUpdateEvent update(Object entity, EntityPersister persister, Object... oldState) {
+        return new PostUpdateEvent(entity, 1L, new Object[oldState.length], oldState, null, persister, null);
+    }
+
+    private static EntityPersister persister(String... propertyNames) {
+        EntityPersister persister = mock(EntityPersister.class);
+        when(persister.getPropertyNames()).thenReturn(propertyNames);
+        return persister;
+    }
+
+    private static Order order(OrderStatus status, Double totalAmount) {
+        Order order = new Order();
+        order.setStatus(status);
+        order.setTotalAmount(totalAmount);
+        return order;
+    }
+
+    private static User user(String authority) {
+        User user = new User();
+        user.setAuthority(authority(authority));
+        return user;
+    }
+
+    private static Authority authority(String name) {
+        Authority authority = new Authority();
+        authority.setName(name);
+        return authority;
+    }
+}
@@ -0,0 +1,132 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.mycompany.myapp.repository.DashboardStatsRepository;
+import com.mycompany.myapp.repository.UserRepository;
+import com.mycompany.myapp.security.AuthoritiesConstants;
+import com.mycompany.myapp.service.dto.DashboardStatsDTO;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * Test class for the {@link DashboardStatsService}.
+ */
+class DashboardStatsServiceTest {
+
+    private final DashboardStatsRepository dashboardStatsRepository = mock(DashboardStatsRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+
+    @SuppressWarnings("unchecked")
+    private final HashOperations<String, Object, Object> hash = mock(HashOperations.class);
+
+    private DashboardStatsService dashboardStatsService;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForHash()).thenReturn(hash);
+        when(dashboardStatsRepository.getTotalRevenue()).thenReturn(new BigDecimal("15000000"));
+        when(dashboardStatsRepository.getTotalOrders()).thenReturn(12L);
+        when(userRepository.countByAuthority_Name(AuthoritiesConstants.USER)).thenReturn(5L);
+        when(dashboardStatsRepository.getTotalProducts()).thenReturn(30L);
+        dashboardStatsService = new DashboardStatsService(dashboardStatsRepository, userRepository, redisTemplate);
+    }
+
+    @Test
+    void shouldReadStatsFromHash() {
+        when(hash.multiGet(eq(DashboardStatsService.STATS_KEY), any())).thenReturn(Arrays.asList("250.5", "3", "2", "7"));
+
+        assertThat(dashboardStatsService.getDashboardStats())
+            .usingRecursiveComparison()
+            .isEqualTo(new DashboardStatsDTO(250.5, 3L, 2L, 7L));
+        verify(dashboardStatsRepository, never()).getTotalOrders();
+    }
+
+    @Test
+    void shouldReconcileWhenHashIsMissing() {
+        when(hash.multiGet(eq(DashboardStatsService.STATS_KEY), any())).thenReturn(Arrays.asList(null, null, null, null));
+
+        DashboardStatsDTO stats = dashboardStatsService.getDashboardStats();
+
+        assertThat(stats).usingRecursiveComparison().isEqualTo(new DashboardStatsDTO(15000000.0, 12L, 5L, 30L));
+        // Doanh thu ghi dạng thường để HINCRBYFLOAT đọc được
+        verify(hash).putAll(
+            DashboardStatsService.STATS_KEY,
+            Map.of("revenue", "15000000", "orders", "12", "customers", "5", "products", "30")
+        );
+    }
+
+    @Test
+    void shouldComputeFromDatabaseWhenRedisIsDown() {
+        when(hash.multiGet(eq(DashboardStatsService.STATS_KEY), any())).thenThrow(new RedisConnectionFailureException("down"));
+
+        DashboardStatsDTO stats = dashboardStatsService.getDashboardStats();
+
+        assertThat(stats).usingRecursiveComparison().isEqualTo(new DashboardStatsDTO(15000000.0, 12L, 5L, 30L));
+        verify(hash, never()).putAll(anyString(), anyMap());
+    }
+
+    @Test
+    void shouldStillReturnReconciledStatsWhenHashCannotBeWritten() {
+        when(hash.multiGet(eq(DashboardStatsService.STATS_KEY), any())).thenReturn(Arrays.asList("1", null, "1", "1"));
+        doThrow(new RedisConnectionFailureException("down")).when(hash).putAll(anyString(), anyMap());
+
+        assertThat(dashboardStatsService.getDashboardStats().getTotalOrders()).isEqualTo(12L);
+    }
+
+    @Test
+    void shouldIncrementOnlyNonZeroFields() {
+        when(redisTemplate.hasKey(DashboardStatsService.STATS_KEY)).thenReturn(true);
+
+        dashboardStatsService.increment(-30.0, 0, 1, 0);
+
+        verify(hash).increment(DashboardStatsService.STATS_KEY, "revenue", -30.0);
+        verify(hash).increment(DashboardStatsService.STATS_KEY, "customers", 1L);
+        verify(hash, never()).increment(DashboardStatsService.STATS_KEY, "orders", 0L);
+        verify(hash, never()).increment(DashboardStatsService.STATS_KEY, "products", 0L);
+    }
+
+    @Test
+    void shouldLeaveMissingHashToReconcile() {
+        when(redisTemplate.hasKey(DashboardStatsService.STATS_KEY)).thenReturn(false);
+
+        dashboardStatsService.increment(150.0, 1, 0, 0);
+
+        verify(hash, never()).increment(anyString(), any(), anyDouble());
+        verify(hash, never()).increment(anyString(), any(), anyLong());
+    }
+
+    @Test
+    void shouldSkipRedisForEmptyIncrement() {
+        dashboardStatsService.increment(0, 0, 0, 0);
+
+        verify(redisTemplate, never()).hasKey(anyString());
+    }
+
+    @Test
+    void shouldSwallowRedisFailureOnIncrement() {
+        when(redisTemplate.hasKey(DashboardStatsService.STATS_KEY)).thenThrow(new RedisConnectionFailureException("down"));
+
+        dashboardStatsService.increment(150.0, 1, 0, 0);
+
+        verify(hash, never()).increment(anyString(), any(), anyDouble());
+    }
+}
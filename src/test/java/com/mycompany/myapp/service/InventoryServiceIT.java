@@ -0,0 +1,171 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.mycompany.myapp.IntegrationTest;
+import com.mycompany.myapp.domain.Category;
+import com.mycompany.myapp.domain.Product;
+import com.mycompany.myapp.repository.CategoryRepository;
+import com.mycompany.myapp.repository.ProductRepository;
+import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link InventoryService}.
+ * <p>
+ * Không dùng {@code @Transactional}: mỗi người mua phải chạy trong transaction riêng của mình.
+ */
+@IntegrationTest
+class InventoryServiceIT {
+
+    private static final int STOCK = 50;
+
+    private static final int BUYERS = 200;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductStockShardService stockShardService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Category category;
+
+    private Product product;
+
+    @BeforeEach
+    void init() {
+        category = new Category();
+        category.setName("Flash sale");
+        category.setSlug("flash-sale");
+        category = categoryRepository.saveAndFlush(category);
+
+        product = newProduct("Flash sale SKU");
+    }
+
+    private Product newProduct(String name) {
+        Product newProduct = new Product();
+        newProduct.setName(name);
+        newProduct.setPrice(100.0);
+        newProduct.setQuantity(STOCK);
+        newProduct.setSalesCount(0);
+        newProduct.setCategory(category);
+        return productRepository.saveAndFlush(newProduct);
+    }
+
+    @AfterEach
+    void cleanup() {
+        stockShardService.disable(product.getId());
+        productRepository.deleteById(product.getId());
+        categoryRepository.deleteById(category.getId());
+    }
+
+    @Test
+    void concurrentBuyersShouldNeverOversell() throws Exception {
+        assertThat(buyConcurrently()).isEqualTo(STOCK);
+
+        Product reloaded = productRepository.findById(product.getId()).orElseThrow();
+        assertThat(reloaded.getQuantity()).isZero();
+        assertThat(reloaded.getSalesCount()).isEqualTo(STOCK);
+    }
+
+    @Test
+    void concurrentBuyersOfShardedProductShouldNeverOversell() throws Exception {
+        stockShardService.enable(product.getId(), 8);
+
+        assertThat(buyConcurrently()).isEqualTo(STOCK);
+
+        stockShardService.reconcile(product.getId());
+        Product reloaded = productRepository.findById(product.getId()).orElseThrow();
+        assertThat(reloaded.getQuantity()).isZero();
+        assertThat(reloaded.getSalesCount()).isEqualTo(STOCK);
+    }
+
+    private int buyConcurrently() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(BUYERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < BUYERS; i++) {
+            results.add(
+                executor.submit(() -> {
+                    start.await();
+                    try {
+                        inventoryService.reserve(Map.of(product.getId(), 1));
+                        return true;
+                    } catch (BadRequestAlertException e) {
+                        return false;
+                    }
+                })
+            );
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+
+        int sold = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) {
+                sold++;
+            }
+        }
+        return sold;
+    }
+
+    @Test
+    void reservationShouldBeAllOrNothing() {
+        Map<Long, Integer> tooMany = Map.of(product.getId(), STOCK + 1);
+
+        assertThatThrownBy(() -> inventoryService.reserve(tooMany)).isInstanceOf(
+            BadRequestAlertException.class
+        );
+
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getQuantity()).isEqualTo(STOCK);
+    }
+
+    @Test
+    void failedUpdateInBatchShouldRollBackOtherProducts() {
+        Product soldOut = newProduct("Flash sale SKU 2");
+        TransactionTemplate order = new TransactionTemplate(transactionManager);
+        TransactionTemplate otherBuyer = new TransactionTemplate(transactionManager);
+        otherBuyer.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            assertThatThrownBy(() ->
+                order.executeWithoutResult(status -> {
+                    // Nạp trước vào persistence context để bước kiểm tra sớm thấy số tồn kho cũ và cho qua,
+                    // sau đó một người mua khác lấy hết hàng: lệnh UPDATE của soldOut trong batch trừ 0 dòng
+                    productRepository.findAllById(List.of(product.getId(), soldOut.getId()));
+                    otherBuyer.executeWithoutResult(s -> productRepository.findById(soldOut.getId()).orElseThrow().setQuantity(0));
+                    inventoryService.reserve(Map.of(product.getId(), 5, soldOut.getId(), 1));
+                })
+            ).isInstanceOf(BadRequestAlertException.class);
+
+            assertThat(productRepository.findById(product.getId()).orElseThrow().getQuantity()).isEqualTo(STOCK);
+            assertThat(productRepository.findById(soldOut.getId()).orElseThrow().getQuantity()).isZero();
+        } finally {
+            productRepository.deleteById(soldOut.getId());
+        }
+    }
+}
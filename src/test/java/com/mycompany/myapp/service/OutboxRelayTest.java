@@ -0,0 +1,188 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.domain.OutboxEvent;
+import com.mycompany.myapp.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+/**
+ * Test class for the {@link OutboxRelay}.
+ */
+class OutboxRelayTest {
+
+    private static final Duration CONFIRM_TIMEOUT = Duration.ofMillis(100);
+
+    private final OutboxEventRepository outboxEventRepository = mock(OutboxEventRepository.class);
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<OutboxEvent> batch = new ArrayList<>();
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(outboxEventRepository.lockNextBatch(any(), anyInt())).thenReturn(batch);
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getOutbox().setBatchSize(10);
+        properties.getOutbox().setConfirmTimeout(CONFIRM_TIMEOUT);
+        properties.getOutbox().setInitialBackoff(Duration.ofSeconds(1));
+        properties.getOutbox().setMaxBackoff(Duration.ofMinutes(5));
+        relay = new OutboxRelay(outboxEventRepository, rabbitTemplate, properties, meterRegistry, transactionManager);
+    }
+
+    @Test
+    void shouldMarkAckedEventsPublished() {
+        OutboxEvent event = event(1L, 0);
+        confirmWith(true, null);
+
+        relay.relay();
+
+        assertThat(event.getPublishedDate()).isNotNull();
+        assertThat(event.getLastError()).isNull();
+        assertThat(event.getAttempts()).isZero();
+        verify(outboxEventRepository).lockNextBatch(any(Instant.class), eq(10));
+        verify(outboxEventRepository).saveAll(batch);
+        assertThat(meterRegistry.get("outbox.publish.lag").tag("type", "order.created").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldClaimBatchAndCommitBeforeWaitingForConfirms() {
+        OutboxEvent event = event(1L, 0);
+        Instant start = Instant.now();
+        AtomicReference<Instant> nextAttemptWhileSending = new AtomicReference<>();
+        doAnswer(invocation -> {
+            nextAttemptWhileSending.set(event.getNextAttemptDate());
+            invocation.<CorrelationData>getArgument(3).getFuture().complete(new CorrelationData.Confirm(true, null));
+            return null;
+        })
+            .when(rabbitTemplate)
+            .send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+
+        relay.relay();
+
+        // Lô đã được dời qua hết thời gian chờ xác nhận, và transaction khóa lô đã commit trước khi gửi
+        assertThat(nextAttemptWhileSending.get()).isAfterOrEqualTo(start.plus(CONFIRM_TIMEOUT).plus(OutboxRelay.CLAIM_MARGIN));
+        InOrder order = inOrder(outboxEventRepository, transactionManager, rabbitTemplate);
+        order.verify(outboxEventRepository).lockNextBatch(any(Instant.class), eq(10));
+        order.verify(transactionManager).commit(any());
+        order.verify(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(outboxEventRepository).saveAll(batch);
+        order.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void shouldRetryNackedEventsWithBackoff() {
+        OutboxEvent event = event(1L, 0);
+        confirmWith(false, "queue full");
+
+        relay.relay();
+
+        assertThat(event.getPublishedDate()).isNull();
+        assertThat(event.getAttempts()).isEqualTo(1);
+        assertThat(event.getLastError()).isEqualTo("nack: queue full");
+        assertThat(event.getNextAttemptDate()).isCloseTo(Instant.now().plusSeconds(1), within(500, ChronoUnit.MILLIS));
+        assertThat(meterRegistry.get("outbox.publish.failures").tag("type", "order.created").counter().count()).isEqualTo(1);
+        verify(outboxEventRepository).saveAll(batch);
+    }
+
+    @Test
+    void shouldFailEventsWithoutConfirmWithinTimeout() {
+        OutboxEvent unconfirmed = event(1L, 0);
+
+        long start = System.nanoTime();
+        relay.relay();
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(CONFIRM_TIMEOUT);
+        assertThat(unconfirmed.getPublishedDate()).isNull();
+        assertThat(unconfirmed.getAttempts()).isEqualTo(1);
+        assertThat(unconfirmed.getLastError()).isEqualTo("no publisher confirm within " + CONFIRM_TIMEOUT);
+        verify(outboxEventRepository).saveAll(batch);
+    }
+
+    @Test
+    void shouldDoubleBackoffUpToMax() {
+        OutboxEvent first = event(1L, 0);
+        OutboxEvent fourth = event(2L, 3);
+        OutboxEvent tenth = event(3L, 9);
+        OutboxEvent overflow = event(4L, 40);
+        doThrow(new AmqpException("connection refused"))
+            .when(rabbitTemplate)
+            .send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+
+        relay.relay();
+
+        Instant now = Instant.now();
+        assertThat(first.getNextAttemptDate()).isCloseTo(now.plusSeconds(1), within(500, ChronoUnit.MILLIS));
+        assertThat(fourth.getNextAttemptDate()).isCloseTo(now.plusSeconds(8), within(500, ChronoUnit.MILLIS));
+        // 2^9 = 512 giây vượt maxBackoff
+        assertThat(tenth.getNextAttemptDate()).isCloseTo(now.plus(Duration.ofMinutes(5)), within(500, ChronoUnit.MILLIS));
+        assertThat(overflow.getNextAttemptDate()).isCloseTo(now.plus(Duration.ofMinutes(5)), within(500, ChronoUnit.MILLIS));
+        assertThat(first.getAttempts()).isEqualTo(1);
+        assertThat(overflow.getAttempts()).isEqualTo(41);
+        assertThat(first.getLastError()).isEqualTo("connection refused");
+    }
+
+    @Test
+    void shouldNotOpenSecondTransactionForEmptyBatch() {
+        relay.relay();
+
+        verify(transactionManager).getTransaction(any());
+        verify(outboxEventRepository, never()).saveAll(any());
+        verify(rabbitTemplate, never()).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+    }
+
+    private OutboxEvent event(Long id, int attempts) {
+        OutboxEvent event = new OutboxEvent();
+        event.setId(id);
+        event.setEventId("event-" + id);
+        event.setExchange("shop.events");
+        event.setEventType("order.created");
+        event.setPayloadType("com.mycompany.myapp.service.dto.OrderCreatedEvent");
+        event.setPayload("{}");
+        event.setCreatedDate(Instant.now().minusSeconds(1));
+        event.setNextAttemptDate(Instant.now());
+        event.setAttempts(attempts);
+        batch.add(event);
+        return event;
+    }
+
+    private void confirmWith(boolean ack, String reason) {
+        doAnswer(invocation -> {
+            invocation.<CorrelationData>getArgument(3).getFuture().complete(new CorrelationData.Confirm(ack, reason));
+            return null;
+        })
+            .when(rabbitTemplate)
+            .send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+    }
+}
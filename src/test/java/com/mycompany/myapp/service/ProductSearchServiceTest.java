@@ -0,0 +1,104 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.mycompany.myapp.repository.CategoryRepository;
+import com.mycompany.myapp.repository.ProductProjection;
+import com.mycompany.myapp.repository.ProductRepository;
+import com.mycompany.myapp.service.dto.ProductSearchResultDTO;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+/**
+ * Test class for the {@link ProductSearchService} refresh messages between nodes.
+ */
+class ProductSearchServiceTest {
+
+    private static final String CHANNEL = "cache:invalidation";
+
+    private static final ProductProjection THINKPAD = new ProductProjection(5L, "ThinkPad X1", null, 30.0, 3, null, 7, null);
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private ProductSearchService searchService;
+
+    @BeforeEach
+    void setUp() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(productRepository.streamProjections(any())).thenAnswer(invocation -> Stream.of(THINKPAD));
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getCache().setInvalidationChannel(CHANNEL);
+        searchService = new ProductSearchService(
+            productRepository,
+            mock(CategoryRepository.class),
+            transactionManager,
+            redisTemplate,
+            properties
+        );
+    }
+
+    @Test
+    void shouldRefreshLocallyAndPublishChangedIds() {
+        searchService.refreshAfterCommit(List.of(5L));
+
+        assertThat(ids("thinkpad")).containsExactly(5L);
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq(CHANNEL), message.capture());
+        assertThat(message.getValue()).endsWith("\n" + ProductSearchService.REFRESH_MESSAGE + "\n5");
+
+        // Message của chính node này quay lại qua Redis thì bỏ qua
+        searchService.onMessage(message(message.getValue()), null);
+        searchService.refreshChangedOnPeers();
+        verify(productRepository, times(1)).streamProjections(any(Specification.class));
+    }
+
+    @Test
+    void shouldRefreshIdsChangedOnOtherNodesInOneBatch() {
+        searchService.onMessage(message("other-node\n" + ProductSearchService.REFRESH_MESSAGE + "\n5"), null);
+        searchService.onMessage(message("other-node\n" + ProductSearchService.REFRESH_MESSAGE + "\n5,6"), null);
+        assertThat(ids("thinkpad")).isEmpty();
+
+        searchService.refreshChangedOnPeers();
+        searchService.refreshChangedOnPeers();
+
+        assertThat(ids("thinkpad")).containsExactly(5L);
+        verify(productRepository, times(1)).streamProjections(any(Specification.class));
+        verify(redisTemplate, never()).convertAndSend(any(), any());
+    }
+
+    @Test
+    void shouldIgnoreCacheInvalidations() {
+        searchService.onMessage(message("other-node\n" + ProductRepository.PRODUCTS_BY_ID_CACHE + "\n5"), null);
+        searchService.onMessage(message("other-node\n" + ProductRepository.PRODUCT_PAGES_CACHE), null);
+
+        searchService.refreshChangedOnPeers();
+
+        verify(productRepository, never()).streamProjections(any(Specification.class));
+    }
+
+    private List<Long> ids(String query) {
+        return searchService.search(query, 10).stream().map(ProductSearchResultDTO::getId).toList();
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,56 @@
+package com.mycompany.myapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+class RevokedTokenFilterTest {
+
+    private static final Instant NOW = Instant.parse("2025-06-01T00:00:00Z");
+
+    @Test
+    void shouldContainEveryRevokedToken() {
+        RevokedTokenFilter filter = new RevokedTokenFilter(Duration.ofHours(1), 1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.put("token-" + i, NOW.plus(Duration.ofMinutes(i)));
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(filter.mightContain("token-" + i, NOW)).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateShouldStayNearConfiguredRate() {
+        RevokedTokenFilter filter = new RevokedTokenFilter(Duration.ofDays(1), 1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.put("revoked-" + i, NOW.plusSeconds(60));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("valid-" + i, NOW)) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives).isLessThan(300);
+    }
+
+    @Test
+    void expiredPartitionsShouldBeIgnoredAndEvicted() {
+        RevokedTokenFilter filter = new RevokedTokenFilter(Duration.ofHours(1), 100, 0.01);
+        filter.put("short", NOW.plus(Duration.ofMinutes(30)));
+        filter.put("long", NOW.plus(Duration.ofHours(5)));
+        Instant later = NOW.plus(Duration.ofHours(2));
+
+        assertThat(filter.mightContain("short", later)).isFalse();
+        assertThat(filter.mightContain("long", later)).isTrue();
+
+        filter.evictExpired(later);
+
+        assertThat(filter.partitionCount()).isEqualTo(1);
+    }
+}
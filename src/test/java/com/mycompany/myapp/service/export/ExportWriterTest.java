@@ -0,0 +1,69 @@
+package com.mycompany.myapp.service.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Stream;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+class ExportWriterTest {
+
+    private record Row(Long id, String name, Double price) {}
+
+    private static final List<ExportColumn<Row>> COLUMNS = List.of(
+        new ExportColumn<>("id", "ID", 10, Row::id),
+        new ExportColumn<>("name", "Name", 40, Row::name),
+        new ExportColumn<>("price", "Price", 14, Row::price)
+    );
+
+    private final ExportWriter exportWriter = new ExportWriter(new ObjectMapper());
+
+    @Test
+    void csvShouldQuoteFieldsWithSeparatorsAndLeaveNullsEmpty() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportWriter.write(
+            Stream.of(new Row(1L, "Chuột, \"không dây\"", 15000000.0), new Row(2L, null, 9.5)),
+            COLUMNS,
+            ExportFormat.CSV,
+            "Rows",
+            out
+        );
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+            "ID,Name,Price\r\n1,\"Chuột, \"\"không dây\"\"\",15000000\r\n2,,9.5\r\n"
+        );
+    }
+
+    @Test
+    void ndjsonShouldWriteOneObjectPerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportWriter.write(Stream.of(new Row(1L, "a\nb", 1.0), new Row(2L, null, 2.0)), COLUMNS, ExportFormat.NDJSON, "Rows", out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+            "{\"id\":1,\"name\":\"a\\nb\",\"price\":1.0}\n{\"id\":2,\"name\":null,\"price\":2.0}\n"
+        );
+    }
+
+    @Test
+    void xlsxShouldWriteHeaderAndTypedCells() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportWriter.write(Stream.of(new Row(7L, "ThinkPad", 1500.0)), COLUMNS, ExportFormat.XLSX, "Rows", out);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("Rows");
+            assertThat(sheet.getRow(0).getCell(1).getStringCellValue()).isEqualTo("Name");
+            assertThat(sheet.getRow(1).getCell(0).getNumericCellValue()).isEqualTo(7.0);
+            assertThat(sheet.getRow(1).getCell(1).getStringCellValue()).isEqualTo("ThinkPad");
+            assertThat(sheet.getRow(1).getCell(2).getNumericCellValue()).isEqualTo(1500.0);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.mycompany.myapp.service.importer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.mycompany.myapp.config.ApplicationProperties;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+class ImportFileDownloaderTest {
+
+    private static final long DECLARED_LARGE_SIZE = 256L * 1024 * 1024;
+
+    @TempDir
+    Path tempDir;
+
+    private HttpServer server;
+
+    private ImportFileDownloader downloader;
+
+    private final AtomicLong declaredLargeWritten = new AtomicLong();
+
+    private final CountDownLatch declaredLargeDone = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/small", exchange -> {
+            byte[] body = new byte[512];
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        // Không gửi Content-Length (chunked) để kiểm tra giới hạn khi đang đọc body
+        server.createContext("/large", exchange -> {
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                for (int i = 0; i < 64; i++) {
+                    out.write(new byte[1024]);
+                }
+            } catch (IOException e) {
+                // client đã hủy
+            }
+        });
+        server.createContext("/declared-large", exchange -> {
+            exchange.sendResponseHeaders(200, DECLARED_LARGE_SIZE);
+            try (OutputStream out = exchange.getResponseBody()) {
+                byte[] chunk = new byte[64 * 1024];
+                while (declaredLargeWritten.get() < DECLARED_LARGE_SIZE) {
+                    out.write(chunk);
+                    declaredLargeWritten.addAndGet(chunk.length);
+                }
+            } catch (IOException e) {
+                // client đã hủy
+            } finally {
+                declaredLargeDone.countDown();
+            }
+        });
+        server.createContext("/missing", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.start();
+
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getImport().setMaxDownloadSize(DataSize.ofKilobytes(4));
+        downloader = new ImportFileDownloader(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void shouldWriteBodyToTargetFile() throws Exception {
+        Path target = tempDir.resolve("small.xlsx");
+
+        downloader.download(uri("/small"), target);
+
+        assertThat(Files.size(target)).isEqualTo(512);
+    }
+
+    @Test
+    void shouldAbortAndDeleteFileWhenBodyExceedsLimit() {
+        Path target = tempDir.resolve("large.xlsx");
+
+        assertThatThrownBy(() -> downloader.download(uri("/large"), target)).isInstanceOf(IOException.class);
+        assertThat(target).doesNotExist();
+    }
+
+    @Test
+    void shouldNotReadBodyWhenContentLengthExceedsLimit() throws Exception {
+        Path target = tempDir.resolve("declared-large.xlsx");
+
+        assertThatThrownBy(() -> downloader.download(uri("/declared-large"), target))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("giới hạn");
+        assertThat(target).doesNotExist();
+        assertThat(declaredLargeDone.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(declaredLargeWritten.get()).isLessThan(DECLARED_LARGE_SIZE);
+    }
+
+    @Test
+    void shouldRejectNonSuccessStatus() {
+        Path target = tempDir.resolve("missing.xlsx");
+
+        assertThatThrownBy(() -> downloader.download(uri("/missing"), target)).isInstanceOf(IOException.class).hasMessageContaining("404");
+        assertThat(target).doesNotExist();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path);
+    }
+}
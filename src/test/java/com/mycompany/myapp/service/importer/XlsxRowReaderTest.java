@@ -0,0 +1,65 @@
+package com.mycompany.myapp.service.importer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class XlsxRowReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldStreamDataRowsWithTypedValuesAndSkipHeaderAndEmptyRows() throws Exception {
+        Path file = tempDir.resolve("products.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+            Sheet sheet = workbook.createSheet("Products");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("ID");
+            header.createCell(1).setCellValue("Name");
+
+            Row first = sheet.createRow(1);
+            first.createCell(0).setCellValue(12);
+            first.createCell(1).setCellValue("ThinkPad");
+            // Bỏ trống cột 2 để kiểm tra ô bị thiếu
+            first.createCell(3).setCellValue(1500.5);
+            first.createCell(4).setCellValue(true);
+
+            sheet.createRow(2).createCell(1).setCellValue("");
+
+            Row third = sheet.createRow(4);
+            third.createCell(1).setCellValue("Chuột không dây");
+            workbook.write(out);
+        }
+
+        assertThat(XlsxRowReader.countRows(file)).isEqualTo(5);
+
+        List<XlsxRow> rows = new ArrayList<>();
+        XlsxRowReader.readFirstSheet(file, true, rows::add);
+
+        assertThat(rows).hasSize(2);
+        XlsxRow first = rows.get(0);
+        assertThat(first.getRowNum()).isEqualTo(1);
+        assertThat(first.getNumber(0)).isEqualTo(12.0);
+        assertThat(first.getString(0)).isEqualTo("12");
+        assertThat(first.getString(1)).isEqualTo("ThinkPad");
+        assertThat(first.get(2)).isNull();
+        assertThat(first.getNumber(3)).isEqualTo(1500.5);
+        assertThat(first.get(4)).isEqualTo(Boolean.TRUE);
+        assertThat(first.get(10)).isNull();
+
+        XlsxRow second = rows.get(1);
+        assertThat(second.getRowNum()).isEqualTo(4);
+        assertThat(second.getNumber(0)).isNull();
+        assertThat(second.getString(1)).isEqualTo("Chuột không dây");
+    }
+}
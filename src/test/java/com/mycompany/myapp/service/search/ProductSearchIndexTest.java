@@ -0,0 +1,70 @@
+package com.mycompany.myapp.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.repository.ProductProjection;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex();
+        index.put(product(1L, "Điện thoại Samsung Galaxy", "Màn hình AMOLED", "dien-thoai"));
+        index.put(product(2L, "Laptop Dell XPS", "Mỏng nhẹ, pin lâu", "laptop"));
+        index.put(product(3L, "Ốp lưng điện thoại", "Silicon dẻo", "phu-kien"));
+        index.put(product(4L, "Chuột không dây", "Dùng tốt với laptop", "phu-kien"));
+    }
+
+    @Test
+    void shouldMatchWithoutVietnameseDiacritics() {
+        // "phu-kien" của sản phẩm 4 chỉ khớp gần đúng với "dien" nên xếp sau
+        assertThat(ids("dien thoai")).startsWith(1L, 3L);
+        assertThat(ids("ĐIỆN THOẠI")).isEqualTo(ids("dien thoai"));
+    }
+
+    @Test
+    void shouldRankNameMatchesAboveDescriptionMatches() {
+        assertThat(ids("laptop")).containsExactly(2L, 4L);
+    }
+
+    @Test
+    void shouldMatchPrefixesAndSingleTypos() {
+        assertThat(ids("gala")).containsExactly(1L);
+        assertThat(ids("samsnug")).containsExactly(1L);
+        assertThat(ids("chuot khong day")).startsWith(4L);
+    }
+
+    @Test
+    void shouldDropRemovedAndReplacedProducts() {
+        index.remove(2L);
+        index.put(product(4L, "Bàn phím cơ", null, "phu-kien"));
+
+        assertThat(ids("laptop")).isEmpty();
+        assertThat(ids("chuot")).isEmpty();
+        assertThat(ids("ban phim")).containsExactly(4L);
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void oneEditDistanceShouldCoverInsertDeleteSubstituteAndTranspose() {
+        assertThat(ProductSearchIndex.withinOneEdit("laptop", "laptp")).isTrue();
+        assertThat(ProductSearchIndex.withinOneEdit("laptp", "laptop")).isTrue();
+        assertThat(ProductSearchIndex.withinOneEdit("laptop", "laptip")).isTrue();
+        assertThat(ProductSearchIndex.withinOneEdit("laptop", "lpatop")).isTrue();
+        assertThat(ProductSearchIndex.withinOneEdit("laptop", "lpatpo")).isFalse();
+        assertThat(ProductSearchIndex.withinOneEdit("laptop", "lap")).isFalse();
+    }
+
+    private List<Long> ids(String query) {
+        return index.search(query, 10).stream().map(hit -> hit.product().id()).toList();
+    }
+
+    private static ProductProjection product(Long id, String name, String description, String categorySlug) {
+        return new ProductProjection(id, name, description, 100.0, 1, null, 0, categorySlug);
+    }
+}
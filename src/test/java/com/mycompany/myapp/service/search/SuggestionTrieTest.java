@@ -0,0 +1,93 @@
+package com.mycompany.myapp.service.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.mycompany.myapp.service.search.SuggestionTrie.Suggestion;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SuggestionTrieTest {
+
+    private SuggestionTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = new SuggestionTrie(3);
+        Map<String, Suggestion> suggestions = new LinkedHashMap<>();
+        suggestions.put("product:1", new Suggestion("Điện thoại Samsung Galaxy", 1L, "dien-thoai", 50));
+        suggestions.put("product:2", new Suggestion("Điện thoại iPhone", 2L, "dien-thoai", 120));
+        suggestions.put("product:3", new Suggestion("Đèn bàn", 3L, "gia-dung", 5));
+        suggestions.put("product:4", new Suggestion("Samsung Galaxy Tab", 4L, "may-tinh-bang", 80));
+        suggestions.put("category:dien-thoai", new Suggestion("Điện thoại", null, "dien-thoai", 170));
+        trie.putAll(suggestions);
+    }
+
+    @Test
+    void shouldRankByPrefixOfAnyWordAndSalesCount() {
+        assertThat(texts("die")).containsExactly("Điện thoại", "Điện thoại iPhone", "Điện thoại Samsung Galaxy");
+        assertThat(texts("de")).containsExactly("Đèn bàn");
+        assertThat(texts("galaxy")).containsExactly("Samsung Galaxy Tab", "Điện thoại Samsung Galaxy");
+        assertThat(texts("thoai sam")).containsExactly("Điện thoại Samsung Galaxy");
+        assertThat(texts("xyz")).isEmpty();
+        assertThat(texts("  ")).isEmpty();
+    }
+
+    @Test
+    void shouldFoldQueryCharByCharLikeTokenize() {
+        assertThat(texts("  ĐIỆN---thoại, s")).containsExactly("Điện thoại Samsung Galaxy");
+        // Văn bản dạng NFD: dấu ghép rời bị bỏ
+        assertThat(texts("Đie\u0302\u0323n thoa\u0323i i")).containsExactly("Điện thoại iPhone");
+        // Ký tự ngoài bảng chuẩn hóa: chuẩn hóa cả chuỗi
+        assertThat(texts("galaxy ΣΑΣ")).isEmpty();
+        assertThat(texts("galaxy \uD835\uDC00")).isEqualTo(texts("galaxy"));
+        assertThat(texts("-- ,")).isEmpty();
+    }
+
+    @Test
+    void shouldReturnSameListWithoutRecomputing() {
+        assertThat(trie.suggest("sam")).isSameAs(trie.suggest("SAM"));
+    }
+
+    @Test
+    void shouldUpdateRankingOnPutAndRemove() {
+        trie.put("product:3", new Suggestion("Đèn bàn", 3L, "gia-dung", 500));
+        assertThat(texts("d")).first().isEqualTo("Đèn bàn");
+
+        trie.remove("product:2");
+        trie.remove("category:dien-thoai");
+        assertThat(texts("dien")).containsExactly("Điện thoại Samsung Galaxy");
+        assertThat(texts("iph")).isEmpty();
+        assertThat(trie.size()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldFilterPrefixesLongerThanMaxDepth() {
+        trie.put("product:5", new Suggestion("Samsung Galaxy Buds Pro tai nghe", 5L, "phu-kien", 1));
+        assertThat(texts("samsung galaxy buds pro tai")).containsExactly("Samsung Galaxy Buds Pro tai nghe");
+        assertThat(texts("samsung galaxy buds pro xx")).isEmpty();
+    }
+
+    @Test
+    void shouldFindLongPrefixOutsideTopOfDeepestNode() {
+        for (int i = 0; i < 5; i++) {
+            trie.put("product:" + (10 + i), new Suggestion("Samsung Galaxy Buds Pro đen " + i, 10L + i, "phu-kien", 100 + i));
+        }
+        trie.put("product:20", new Suggestion("Samsung Galaxy Buds Pro trắng", 20L, "phu-kien", 1));
+
+        assertThat(texts("samsung galaxy buds pro trang")).containsExactly("Samsung Galaxy Buds Pro trắng");
+        assertThat(texts("Samsung  Galaxy Buds Pro—TRẮNG")).containsExactly("Samsung Galaxy Buds Pro trắng");
+        assertThat(texts("samsung galaxy buds pro")).hasSize(3);
+        assertThat(texts("samsung galaxy buds pro den")).containsExactly(
+            "Samsung Galaxy Buds Pro đen 4",
+            "Samsung Galaxy Buds Pro đen 3",
+            "Samsung Galaxy Buds Pro đen 2"
+        );
+    }
+
+    private List<String> texts(String prefix) {
+        return trie.suggest(prefix).stream().map(Suggestion::text).toList();
+    }
+}
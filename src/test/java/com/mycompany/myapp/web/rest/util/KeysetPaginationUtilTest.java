@@ -0,0 +1,61 @@
+package com.mycompany.myapp.web.rest.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.mycompany.myapp.web.rest.errors.BadRequestAlertException;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+
+class KeysetPaginationUtilTest {
+
+    @Test
+    void cursorShouldRoundTripWithTypedKeys() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("price", 1500.5);
+        keys.put("createdDate", Instant.parse("2025-01-01T00:00:00Z"));
+        keys.put("name", "Chuột: không dây");
+        keys.put("id", 42L);
+
+        String cursor = KeysetPaginationUtil.encodeCursor(ScrollPosition.forward(keys));
+        KeysetScrollPosition position = KeysetPaginationUtil.decodeCursor(cursor, "product");
+
+        assertThat(cursor).doesNotContain("=", "+", "/");
+        assertThat(position.getKeys()).isEqualTo(keys);
+        assertThat(position.getKeys().get("id")).isInstanceOf(Long.class);
+    }
+
+    @Test
+    void emptyCursorShouldStartFromFirstPage() {
+        assertThat(KeysetPaginationUtil.decodeCursor("", "product").isInitial()).isTrue();
+    }
+
+    @Test
+    void malformedCursorShouldBeRejected() {
+        assertThatThrownBy(() -> KeysetPaginationUtil.decodeCursor("not-a-cursor", "product")).isInstanceOf(BadRequestAlertException.class);
+        String badValue = java.util.Base64.getUrlEncoder().encodeToString("{\"id\":\"x:1\"}".getBytes());
+        assertThatThrownBy(() -> KeysetPaginationUtil.decodeCursor(badValue, "product")).isInstanceOf(BadRequestAlertException.class);
+    }
+
+    @Test
+    void headersShouldLinkToNextCursorWithoutPageParameter() {
+        Window<String> window = Window.from(List.of("a", "b"), i -> ScrollPosition.forward(Map.of("id", (long) i + 10)), true);
+        UriComponentsBuilder uri = UriComponentsBuilder.fromUriString("http://localhost/api/products?page=3&size=2&after=");
+
+        HttpHeaders headers = KeysetPaginationUtil.generateKeysetHttpHeaders(uri, window);
+
+        String next = KeysetPaginationUtil.encodeCursor(ScrollPosition.forward(Map.of("id", 11L)));
+        assertThat(headers.getFirst(HttpHeaders.LINK)).isEqualTo(
+            "<http://localhost/api/products?size=2&after=" + next + ">; rel=\"next\",<http://localhost/api/products?size=2&after=>; rel=\"first\""
+        );
+        assertThat(headers.containsKey("X-Total-Count")).isFalse();
+    }
+}